@@ -0,0 +1,109 @@
+package main.java.com.xakers.app;
+
+import main.java.com.xakers.model.Seminar;
+
+/**
+ * One parsed line (or, for an insert, five lines) of a command file, passed from the
+ * parsing stage of {@link SeminarDB#loadPipelined} to the executor.
+ * <p>
+ * Only the fields of the command's kind are set: the seminar of an insert, the ID of a
+ * delete, the type and arguments of a search, the type of a print, the file name of a
+ * save or restore, and the unknown word of an invalid command. The parser ends its
+ * stream of commands with an end marker, or with a failure carrying the throwable that
+ * stopped it.
+ *
+ * @author Xavier Akers
+ * @version 2026-10-16
+ * @since 2026-10-16
+ */
+final class Command {
+
+    /**
+     * The kinds of command.
+     */
+    enum Kind {
+        INSERT, SEARCH, DELETE, PRINT, SAVE, RESTORE, INVALID, END, FAILURE
+    }
+
+    /** Marker ending the stream of commands. */
+    static final Command END = new Command(Kind.END, null, 0, null, null, null);
+
+    final Kind kind;            // What the command does
+    final Seminar seminar;      // Seminar to insert
+    final int id;               // ID of the seminar to delete
+    final String name;          // Search or print type, snapshot file, or unknown command word
+    final String[] args;        // Search arguments
+    final Throwable failure;    // Throwable that stopped the parser
+
+    /**
+     * Constructs a command.
+     *
+     * @param kind    What the command does.
+     * @param seminar The seminar to insert, or null.
+     * @param id      The ID of the seminar to delete, or 0.
+     * @param name    The search or print type, snapshot file or unknown word, or null.
+     * @param args    The search arguments, or null.
+     * @param failure The throwable that stopped the parser, or null.
+     */
+    private Command(Kind kind, Seminar seminar, int id, String name, String[] args, Throwable failure) {
+        this.kind = kind;
+        this.seminar = seminar;
+        this.id = id;
+        this.name = name;
+        this.args = args;
+        this.failure = failure;
+    }
+
+    /**
+     * Creates an insert command.
+     *
+     * @param seminar The seminar to insert.
+     * @return The command.
+     */
+    static Command insert(Seminar seminar) {
+        return new Command(Kind.INSERT, seminar, 0, null, null, null);
+    }
+
+    /**
+     * Creates a search command.
+     *
+     * @param type The search type.
+     * @param args The search arguments.
+     * @return The command.
+     */
+    static Command search(String type, String[] args) {
+        return new Command(Kind.SEARCH, null, 0, type, args, null);
+    }
+
+    /**
+     * Creates a delete command.
+     *
+     * @param id The ID of the seminar to delete.
+     * @return The command.
+     */
+    static Command delete(int id) {
+        return new Command(Kind.DELETE, null, id, null, null, null);
+    }
+
+    /**
+     * Creates a command that takes a single word: print, save, restore, or an
+     * invalid command naming the unknown word.
+     *
+     * @param kind The kind of command.
+     * @param name The word.
+     * @return The command.
+     */
+    static Command named(Kind kind, String name) {
+        return new Command(kind, null, 0, name, null, null);
+    }
+
+    /**
+     * Creates the command reporting that the parser stopped.
+     *
+     * @param failure The throwable that stopped the parser.
+     * @return The command.
+     */
+    static Command failure(Throwable failure) {
+        return new Command(Kind.FAILURE, null, 0, null, null, failure);
+    }
+}
@@ -1,18 +1,24 @@
 package main.java.com.xakers.app;
 
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+
 /**
  * Main class to run SeminarTree application.
- * Reads input from command-line arguments to set up a world size and a command file then loads the command file into the SeminarDB controller.
+ * Reads input from command-line arguments to set up a world size and a command file then loads the command file into the SeminarDB controller through its pipelined loader,
+ * running stretches of consecutive searches and prints concurrently on the common fork-join pool.
+ * Given a snapshot file and a log file as well, the controller first recovers from them and runs in durable mode,
+ * logging every insert and delete so that a later run can recover them after a crash.
  *
  * @author Xavier Akers
- * @version 2025-01-08
+ * @version 2026-10-16
  * @since 2025-01-05
  */
 public class Main {
 
     public static void main(String[] args) {
-        if (args.length != 2) {
-            System.out.println("command usage : {world-size} {command-file}");
+        if (args.length != 2 && args.length != 4) {
+            System.out.println("command usage : {world-size} {command-file} [{snapshot-file} {log-file}]");
             System.exit(1);
         }
         // Parse world size
@@ -24,7 +30,24 @@ public class Main {
         // Create new SeminarDB controller with world size
         SeminarDB controller = new SeminarDB(worldSize);
 
-        // Load the commands from the file into the controller
-        controller.load(commandFile);
+        try {
+            // Restore the last checkpoint and replay the log written since
+            if (args.length == 4) {
+                controller.recover(args[2], args[3]);
+            }
+
+            // Load the commands from the file into the controller, parsing, executing and
+            // writing output on separate threads, with queries sharing the common pool
+            controller.loadPipelined(commandFile, ForkJoinPool.commonPool());
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        } finally {
+            try {
+                controller.closeLog();
+            } catch (IOException e) {
+                System.err.println(e.getMessage());
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,153 +1,761 @@
 package main.java.com.xakers.app;
 
 import main.java.com.xakers.datastructures.bintree.BinTree;
+import main.java.com.xakers.datastructures.bintree.SpatialIndex;
 import main.java.com.xakers.datastructures.binarysearchtree.BinarySearchTree;
+import main.java.com.xakers.datastructures.binarysearchtree.PersistentBinarySearchTree;
+import main.java.com.xakers.datastructures.hashtable.IntIntHashTable;
+import main.java.com.xakers.datastructures.invertedindex.KeywordIndex;
+import main.java.com.xakers.datastructures.rangeindex.IntRangeIndex;
+import main.java.com.xakers.datastructures.recordstore.SeminarStore;
+import main.java.com.xakers.datastructures.recordstore.SeminarView;
+import main.java.com.xakers.datastructures.stringpool.StringPool;
+import main.java.com.xakers.io.BufferedOutputSink;
+import main.java.com.xakers.io.CommandReader;
+import main.java.com.xakers.io.MemoryOutputSink;
+import main.java.com.xakers.io.OutputSink;
+import main.java.com.xakers.io.PipelinedOutputSink;
+import main.java.com.xakers.io.SnapshotReader;
+import main.java.com.xakers.io.SnapshotWriter;
+import main.java.com.xakers.io.WriteAheadLog;
+import main.java.com.xakers.model.PackedDate;
 import main.java.com.xakers.model.Seminar;
 
-import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Scanner;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * SeminarDB class represents a database of seminars.
  * Operations include insert, delete, search, and print.
  * based on different attributes such as ID, cost, date, keyword, and location.
+ * <p>
+ * Seminars are kept off the heap in a {@link SeminarStore}. The ID table maps each
+ * seminar ID to its record offset, and the other indexes hold seminar IDs, so no index
+ * holds a reference to a seminar object. Keywords are interned into one
+ * {@link StringPool} shared by the parser, the store and the keyword index, which
+ * all refer to a keyword by its int code.
+ * <p>
+ * The whole database can be saved to a binary snapshot and restored from it, either
+ * through {@link #save} and {@link #restore} or with the {@code save} and
+ * {@code restore} commands. Restoring maps the snapshot and reloads every structure
+ * in its saved layout, so no index is rebuilt.
+ * <p>
+ * After {@link #recover} the database runs in durable mode: every accepted insert and
+ * delete is appended to a {@link WriteAheadLog} before it is applied, and the log is
+ * forced to disk once per group of operations and at the end of each command file.
+ * Results of the group in progress are printed before that group reaches the disk.
+ * Each snapshot records the sequence number of the last logged operation it holds,
+ * so recovery replays only the operations logged after it; saving to the recovery
+ * snapshot is a checkpoint that empties the log.
+ * <p>
+ * The database is safe for use by multiple threads. Inserts, deletes, loads, saves
+ * and restores take the write lock, so a change to the store and all its indexes
+ * appears atomic to readers. ID, keyword and location searches and the location print
+ * share the read lock and run side by side, as the indexes keep no state between reads.
+ * Cost and date searches and the other prints take no lock at all: after every change
+ * the writer publishes a view holding the store and {@link PersistentBinarySearchTree}
+ * versions of the cost and date entries, and these readers pin the latest view, so a
+ * long scan or dump neither waits for writers nor holds them up, and never sees half
+ * of a change. A deleted record stays in the store until no pinned view can reach it;
+ * a save waits for such readers to finish, so that snapshots hold no deleted records.
+ * {@link #search} and the other public commands write to a sink supplied by the
+ * caller, letting each serving thread keep its own output.
+ * <p>
+ * {@link #loadPipelined} runs a command file as a three-stage pipeline: a parser thread
+ * turns the file into {@link Command}s, the calling thread executes them in order, and
+ * a writer thread encodes and writes the results. The stages are joined by bounded
+ * queues, and the output is identical to that of {@link #load}. Given a fork-join pool,
+ * the executor also runs each stretch of consecutive searches and prints concurrently
+ * and emits their results in file order.
+ * <p>
+ * Results are written to an {@link OutputSink}; lines are assembled in a reused
+ * {@link StringBuilder}, one per thread. Errors still go straight to
+ * {@code System.err}, after the sink has been flushed so the two streams stay in order.
  *
  * @author Xavier Akers
- * @version 2025-01-08
+ * @version 2026-10-16
  * @since 2025-01-03
  */
 public class SeminarDB {
-    private final int worldSize;                                // Size of bounding box for the spatial binary tree
-    private final BinarySearchTree<Integer, Seminar> idBST;     // BST for searching by seminar ID
-    private final BinarySearchTree<Integer, Seminar> costBST;   // BST for searching by seminar cost
-    private final BinarySearchTree<String, Seminar> dateBST;    // BST for searching by seminar date
-    private final BinarySearchTree<String, Seminar> keywordBST; // BST for searching by seminar keyword
-    private final BinTree locationBT;                           // Binary Tree for storing seminar location
+    // Snapshot section tags, in the order the sections are written
+    private static final int POOL_SECTION = 1;
+    private static final int STORE_SECTION = 2;
+    private static final int ID_SECTION = 3;
+    private static final int COST_SECTION = 4;
+    private static final int DATE_SECTION = 5;
+    private static final int KEYWORD_SECTION = 6;
+    private static final int LOCATION_SECTION = 7;
+    private static final int END_SECTION = 8;
+
+    private static final int PIPELINE_DEPTH = 1024; // Parsed commands queued ahead of the executor
+    private static final int QUERY_RUN_LIMIT = 256;  // Consecutive queries run concurrently at most
+    private static final int NO_RECORD = -1;         // Retired record of a view not replaced by a delete
+
+    /**
+     * What the lock-free readers see of the database: the store and immutable versions of
+     * the cost and date entries, as they stood after one change. Readers pin a view while
+     * they use it. The record deleted by the change that replaced a view stays in the store
+     * until neither that view nor an older one is pinned.
+     */
+    private static final class ReadView {
+        private final SeminarStore store;                                       // Store the records live in
+        private final PersistentBinarySearchTree.Snapshot<Long, Integer> costs; // Cost entries to record offsets
+        private final PersistentBinarySearchTree.Snapshot<Long, Integer> dates; // Date entries to record offsets
+        private final AtomicInteger readers;                                    // Threads pinning the view
+        private int retired;                                                    // Record deleted after the view, or NO_RECORD
+
+        /**
+         * Constructs an unpinned view.
+         *
+         * @param store The store the records live in.
+         * @param costs The cost entries.
+         * @param dates The date entries.
+         */
+        private ReadView(SeminarStore store, PersistentBinarySearchTree.Snapshot<Long, Integer> costs,
+                         PersistentBinarySearchTree.Snapshot<Long, Integer> dates) {
+            this.store = store;
+            this.costs = costs;
+            this.dates = dates;
+            this.readers = new AtomicInteger();
+            this.retired = NO_RECORD;
+        }
+    }
+
+    private int worldSize;                                      // Size of bounding box for the spatial binary tree
+    private StringPool keywordPool;                             // Canonical keywords and their codes
+    private SeminarStore store;                                 // Off-heap storage of the seminar records
+    private IntIntHashTable idTable;                            // Hash table mapping seminar IDs to record offsets
+    private IntRangeIndex costIndex;                            // Range index for searching by seminar cost
+    private IntRangeIndex dateIndex;                            // Range index for searching by packed seminar date
+    private KeywordIndex keywordIndex;                          // Inverted index for searching by seminar keyword
+    private SpatialIndex locationBT;                            // Binary Tree for storing seminar location
+    private PersistentBinarySearchTree<Long, Integer> costView; // (cost, ID) entries to record offsets, for lock-free reads
+    private PersistentBinarySearchTree<Long, Integer> dateView; // (packed date, ID) entries to record offsets, likewise
+    private volatile ReadView view;                             // Latest view published to lock-free readers
+    private final ArrayDeque<ReadView> superseded;              // Replaced views, oldest first, not yet reclaimed
+    private WriteAheadLog log;                                  // Log of mutations in durable mode, null otherwise
+    private Path checkpointPath;                                // Snapshot recovered from, emptying the log when saved
+    private long logSequence;                                   // Sequence number of the last logged mutation applied
+    private final OutputSink out;                               // Destination of command file results
+    private final ThreadLocal<StringBuilder> text;              // Reused per-thread buffer for formatting output lines
+    private final ReentrantReadWriteLock lock;                  // Shared by queries, exclusive for changes
 
     /**
      * Constructor to initialize the SeminarDB with a specified world size.
+     * Results are written to a buffered sink over {@code System.out}.
      *
      * @param worldSize The size of the bounding box for the spatial binary tree.
      */
     public SeminarDB(int worldSize) {
+        this(worldSize, new BufferedOutputSink(System.out));
+    }
+
+    /**
+     * Constructor to initialize the SeminarDB with a specified world size and output sink.
+     *
+     * @param worldSize The size of the bounding box for the spatial binary tree.
+     * @param out       The sink command results are written to.
+     */
+    public SeminarDB(int worldSize, OutputSink out) {
         this.worldSize = worldSize;
-        this.idBST = new BinarySearchTree<>();
-        this.costBST = new BinarySearchTree<>();
-        this.dateBST = new BinarySearchTree<>();
-        this.keywordBST = new BinarySearchTree<>();
+        this.out = out;
+        this.text = ThreadLocal.withInitial(() -> new StringBuilder(256));
+        this.lock = new ReentrantReadWriteLock();
+        this.keywordPool = new StringPool();
+        this.store = new SeminarStore(keywordPool);
+        this.idTable = new IntIntHashTable();
+        this.costIndex = new IntRangeIndex();
+        this.dateIndex = new IntRangeIndex();
+        this.keywordIndex = new KeywordIndex(keywordPool);
         this.locationBT = new BinTree(worldSize, worldSize);
+        this.costView = new PersistentBinarySearchTree<>();
+        this.dateView = new PersistentBinarySearchTree<>();
+        this.superseded = new ArrayDeque<>();
+        publish(NO_RECORD);
     }
 
     /**
      * Load commands from a file and processes each command (insert, search, delete, print).
+     * The file is memory-mapped and tokenized in place by a {@link CommandReader}.
      *
      * @param filename The file path containing the commands.
      */
     public void load(String filename) {
-        try (Scanner sc = new Scanner(new File(filename))) {
+        try (CommandReader reader = new CommandReader(filename)) {
             // Read and process each line
-            while (sc.hasNextLine()) {
-                String[] line = sc.nextLine().trim().split("\\s+");
-                if (line.length < 2) {
+            while (reader.nextLine()) {
+                if (reader.countTokens() < 2) {
                     continue; // Skip line with insufficient arguments
                 }
 
-                String command = line[0];
                 // Process commands based on the first word (command)
-                switch (command) {
-                    case "insert": {
-                        Seminar seminar = parseInputCommand(sc, line); // Parse semiar details and insert
-                        processInsert(seminar);
-                        break;
-                    }
-                    case "search": {
-                        String type = line[1]; // Type of serach (ID, date, cost, etc.)
-                        String[] searchArgs = Arrays.copyOfRange(line, 2, line.length);
-                        processSearch(type, searchArgs); // Performs the search
-                        break;
+                reader.nextToken();
+                if (reader.tokenEquals("insert")) {
+                    // Parsing interns keywords into the shared pool, so it is a change too
+                    lock.writeLock().lock();
+                    try {
+                        Seminar seminar = parseInputCommand(reader, keywordPool); // Parse semiar details and insert
+                        processInsert(seminar, out);
+                    } finally {
+                        lock.writeLock().unlock();
                     }
-                    case "delete": {
-                        int key = Integer.parseInt(line[1]); // ID of seminar to delete
-                        processDelete(key); // Delete the seminar
-                        break;
+                } else if (reader.tokenEquals("search")) {
+                    reader.nextToken();
+                    String type = reader.token(); // Type of serach (ID, date, cost, etc.)
+                    String[] searchArgs = reader.remainingTokens();
+                    search(type, searchArgs, out); // Performs the search
+                } else if (reader.tokenEquals("delete")) {
+                    reader.nextToken();
+                    int key = reader.parseInt(); // ID of seminar to delete
+                    delete(key, out); // Delete the seminar
+                } else if (reader.tokenEquals("print")) {
+                    reader.nextToken();
+                    String type = reader.token();
+                    print(type, out); // Print the details of the tree based on type
+                } else if (reader.tokenEquals("save")) {
+                    reader.nextToken();
+                    processSave(reader.token(), out); // Write a snapshot of the database
+                } else if (reader.tokenEquals("restore")) {
+                    reader.nextToken();
+                    processRestore(reader.token(), out); // Replace the database with a snapshot
+                } else {
+                    out.flush();
+                    System.err.printf("error: invalid command {%s}\n", reader.token());
+                }
+            }
+            syncLog();
+        } catch (IOException e) {
+            // Handle the case where the file cannot be found or read
+            throw new RuntimeException(e);
+        } finally {
+            out.flush();
+        }
+    }
+
+    /**
+     * Loads commands from a file like {@link #load}, but in three overlapping stages.
+     * A parser thread reads the file into {@link Command}s and queues up to
+     * {@value #PIPELINE_DEPTH} of them; the calling thread executes them in file order;
+     * and a {@link PipelinedOutputSink} encodes and writes the results on a third thread.
+     * Record text is formatted by the executor, since it reads the store the executor
+     * updates. The parser interns keywords into a pool of its own, leaving the shared
+     * pool to the executor.
+     *
+     * @param filename The file path containing the commands.
+     */
+    public void loadPipelined(String filename) {
+        loadPipelined(filename, null);
+    }
+
+    /**
+     * Loads commands from a file like {@link #loadPipelined(String)}, but runs each
+     * stretch of consecutive queries (searches and prints) concurrently on a fork-join
+     * pool. Queries do not change the database, so they share the read lock; each writes
+     * to a sink of its own, and the sinks are emitted in file order once the stretch is
+     * done. A stretch ends at the first other command, at a query that would report an
+     * error, or after {@value #QUERY_RUN_LIMIT} queries. The output is identical to that
+     * of {@link #load}.
+     *
+     * @param filename The file path containing the commands.
+     * @param pool     The pool that runs the queries, or null to run them in turn.
+     */
+    public void loadPipelined(String filename, ForkJoinPool pool) {
+        BlockingQueue<Command> commands = new ArrayBlockingQueue<>(PIPELINE_DEPTH);
+        Thread parser = new Thread(() -> parseCommands(filename, commands), "command-parser");
+        parser.setDaemon(true);
+        parser.start();
+        List<Command> run = new ArrayList<>();
+        MemoryOutputSink[] results = new MemoryOutputSink[QUERY_RUN_LIMIT];
+        try (PipelinedOutputSink sink = new PipelinedOutputSink(out)) {
+            for (Command command = commands.take(); command != Command.END; command = commands.take()) {
+                if (pool != null && isIndependentQuery(command)) {
+                    run.add(command);
+                    if (run.size() == QUERY_RUN_LIMIT) {
+                        runQueries(run, results, sink, pool);
                     }
-                    case "print": {
-                        String type = line[1];
-                        processPrint(type); // Print the details of the tree based on type
-                        break;
+                    continue;
+                }
+                runQueries(run, results, sink, pool);
+                if (command.kind == Command.Kind.FAILURE) {
+                    // Fail as load would have at this line
+                    if (command.failure instanceof RuntimeException) {
+                        throw (RuntimeException) command.failure;
                     }
-                    default: {
-                        System.err.printf("error: invalid command {%s}\n", command);
-                        break;
+                    if (command.failure instanceof Error) {
+                        throw (Error) command.failure;
                     }
+                    throw new RuntimeException(command.failure);
                 }
-
-
+                execute(command, sink);
             }
-        } catch (FileNotFoundException e) {
-            // Handle the case where the file cannot be found
+            runQueries(run, results, sink, pool);
+            syncLog();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             throw new RuntimeException(e);
+        } finally {
+            parser.interrupt();
+            out.flush();
         }
     }
 
     /**
      * Parses a seminar input command and creates a Seminar object.
+     * The reader must be positioned on the {@code insert} token of the command line;
+     * the four lines that follow hold the title, logistics, keywords and description.
+     * Keywords are interned straight from the input, so a keyword seen before yields its
+     * canonical string without allocating.
      *
-     * @param sc   Scanner to read from the command file.
-     * @param line The line of input command.
+     * @param reader Reader positioned on the insert command.
+     * @param pool   The pool the keywords are interned into.
      * @return A new Seminar object created from the parsed data.
      */
-    Seminar parseInputCommand(Scanner sc, String[] line) {
+    Seminar parseInputCommand(CommandReader reader, StringPool pool) {
         // Parse the seminar details from the input lines
-        int id = Integer.parseInt(line[1]);
-        String title = sc.nextLine();
-        String[] logistics = sc.nextLine().trim().split("\\s+");
-        String date = logistics[0];
-        String[] keywords = sc.nextLine().trim().split("\\s+");
-        String desc = sc.nextLine().trim();
+        reader.requireToken();
+        int id = reader.parseInt();
+
+        reader.requireLine();
+        String title = reader.line();
 
         // Extract Logistics
-        int length = Integer.parseInt(logistics[1]);
-        short x = Short.parseShort(logistics[2]);
-        short y = Short.parseShort(logistics[3]);
-        int cost = Integer.parseInt(logistics[4]);
+        reader.requireLine();
+        reader.requireToken();
+        String date = reader.token();
+        reader.requireToken();
+        int length = reader.parseInt();
+        reader.requireToken();
+        short x = reader.parseShort();
+        reader.requireToken();
+        short y = reader.parseShort();
+        reader.requireToken();
+        int cost = reader.parseInt();
+
+        reader.requireLine();
+        int[] codes = reader.internRemainingTokens(pool);
+        String[] keywords = new String[codes.length];
+        for (int i = 0; i < codes.length; i++) {
+            keywords[i] = pool.string(codes[i]);
+        }
+
+        reader.requireLine();
+        String desc = reader.trimmedLine();
 
         // Return a new Seminar object
         return new Seminar(id, title, date, length, x, y, cost, keywords, desc);
     }
 
+    /**
+     * Parses the command on the reader's current line.
+     *
+     * @param reader Reader positioned at the start of a line.
+     * @param pool   The pool the keywords of an insert are interned into.
+     * @return The command, or null for a line with too few words to be one.
+     */
+    Command parseCommand(CommandReader reader, StringPool pool) {
+        if (reader.countTokens() < 2) return null;
+
+        reader.nextToken();
+        if (reader.tokenEquals("insert")) {
+            return Command.insert(parseInputCommand(reader, pool));
+        }
+        if (reader.tokenEquals("search")) {
+            reader.nextToken();
+            String type = reader.token();
+            return Command.search(type, reader.remainingTokens());
+        }
+        if (reader.tokenEquals("delete")) {
+            reader.nextToken();
+            return Command.delete(reader.parseInt());
+        }
+        Command.Kind kind = reader.tokenEquals("print") ? Command.Kind.PRINT
+                : reader.tokenEquals("save") ? Command.Kind.SAVE
+                : reader.tokenEquals("restore") ? Command.Kind.RESTORE
+                : Command.Kind.INVALID;
+        if (kind != Command.Kind.INVALID) {
+            reader.nextToken();
+        }
+        return Command.named(kind, reader.token());
+    }
+
+    /**
+     * Loads a batch of seminars, building each index from the whole batch at once
+     * instead of walking it once per record. Seminars that {@code insert} would reject
+     * (bad coordinates, bad date, duplicate ID) are skipped. Nothing is printed.
+     *
+     * @param seminars The seminars to load.
+     * @return The number of seminars loaded.
+     */
+    public int bulkLoad(Collection<Seminar> seminars) {
+        lock.writeLock().lock();
+        try {
+            List<Seminar> accepted = acceptBatch(seminars);
+            logBatch(accepted);
+            for (Runnable build : indexBuilds(accepted, false)) {
+                build.run();
+            }
+            rebuildViews();
+            return accepted.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Loads a batch of seminars like {@link #bulkLoad(Collection)}, but builds the five
+     * indexes concurrently on a fork-join pool. The location index is itself built by
+     * fork-join subtasks. The result is identical to a serial bulk load.
+     *
+     * @param seminars The seminars to load.
+     * @param pool     The pool that runs the index builds.
+     * @return The number of seminars loaded.
+     */
+    public int bulkLoad(Collection<Seminar> seminars, ForkJoinPool pool) {
+        lock.writeLock().lock();
+        try {
+            List<Seminar> accepted = acceptBatch(seminars);
+            logBatch(accepted);
+            List<ForkJoinTask<?>> builds = new ArrayList<>();
+            for (Runnable build : indexBuilds(accepted, true)) {
+                builds.add(ForkJoinTask.adapt(build));
+            }
+            pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(builds)));
+            rebuildViews();
+            return accepted.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Saves the whole database to a snapshot file, replacing the file atomically.
+     * <p>
+     * After the header (see {@link SnapshotWriter}) the snapshot holds the world size and
+     * the sequence number of the last logged mutation applied, then one section per structure, each introduced by its tag: the keyword pool,
+     * the record store, the ID table, the cost and date indexes, the keyword index and
+     * the location tree. A closing tag is followed by the number of records.
+     * In durable mode, saving to the snapshot the database was recovered from also
+     * empties the write-ahead log, whose operations the snapshot now holds. The save
+     * first waits for lock-free readers of replaced views, so that every deleted record
+     * has left the store.
+     *
+     * @param filename The path of the snapshot file.
+     * @throws IOException if the snapshot cannot be written.
+     */
+    public void save(String filename) throws IOException {
+        lock.writeLock().lock();
+        try {
+            awaitReaders();
+            try (SnapshotWriter snapshot = new SnapshotWriter(filename)) {
+                snapshot.putInt(worldSize);
+                snapshot.putLong(logSequence);
+                snapshot.putInt(POOL_SECTION);
+                keywordPool.writeTo(snapshot);
+                snapshot.putInt(STORE_SECTION);
+                store.writeTo(snapshot);
+                snapshot.putInt(ID_SECTION);
+                idTable.writeTo(snapshot);
+                snapshot.putInt(COST_SECTION);
+                costIndex.writeTo(snapshot);
+                snapshot.putInt(DATE_SECTION);
+                dateIndex.writeTo(snapshot);
+                snapshot.putInt(KEYWORD_SECTION);
+                keywordIndex.writeTo(snapshot);
+                snapshot.putInt(LOCATION_SECTION);
+                locationBT.writeTo(snapshot);
+                snapshot.putInt(END_SECTION);
+                snapshot.putInt(store.size());
+                snapshot.commit();
+            }
+            if (log != null && Path.of(filename).toAbsolutePath().normalize().equals(checkpointPath)) {
+                log.truncate(logSequence);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the whole database, world size included, with the contents of a snapshot
+     * written by {@link #save}. The snapshot is memory-mapped: the record store adopts
+     * its pages in place and the indexes are copied back in their saved layout, so the
+     * database can answer queries without rebuilding anything. The database is left
+     * unchanged if the snapshot cannot be read. In durable mode the restored contents
+     * are not in the log, so they are checkpointed to the recovery snapshot at once.
+     *
+     * @param filename The path of the snapshot file.
+     * @throws IOException if the snapshot cannot be read or is corrupt.
+     */
+    public void restore(String filename) throws IOException {
+        lock.writeLock().lock();
+        try {
+            try (SnapshotReader snapshot = new SnapshotReader(filename)) {
+                int restoredWorld = snapshot.getInt();
+                long restoredSequence = snapshot.getLong();
+                snapshot.expect(POOL_SECTION);
+                StringPool restoredPool = StringPool.readFrom(snapshot);
+                snapshot.expect(STORE_SECTION);
+                SeminarStore restoredStore = SeminarStore.readFrom(snapshot, restoredPool);
+                snapshot.expect(ID_SECTION);
+                IntIntHashTable restoredIds = IntIntHashTable.readFrom(snapshot);
+                snapshot.expect(COST_SECTION);
+                IntRangeIndex restoredCosts = IntRangeIndex.readFrom(snapshot);
+                snapshot.expect(DATE_SECTION);
+                IntRangeIndex restoredDates = IntRangeIndex.readFrom(snapshot);
+                snapshot.expect(KEYWORD_SECTION);
+                KeywordIndex restoredKeywords = KeywordIndex.readFrom(snapshot, restoredPool);
+                snapshot.expect(LOCATION_SECTION);
+                BinTree restoredLocations = BinTree.readFrom(snapshot);
+                snapshot.expect(END_SECTION);
+                snapshot.expect(restoredStore.size());
+                if (restoredIds.size() != restoredStore.size() || restoredCosts.size() != restoredStore.size()
+                        || restoredDates.size() != restoredStore.size()) {
+                    throw new IOException("error: corrupt snapshot, index sizes disagree");
+                }
+
+                this.worldSize = restoredWorld;
+                this.keywordPool = restoredPool;
+                this.store = restoredStore;
+                this.idTable = restoredIds;
+                this.costIndex = restoredCosts;
+                this.dateIndex = restoredDates;
+                this.keywordIndex = restoredKeywords;
+                this.locationBT = restoredLocations;
+                this.logSequence = restoredSequence;
+                rebuildViews();
+            }
+            if (log != null) {
+                logSequence = log.lastSequence();
+                save(checkpointPath.toString());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Recovers the database after a crash and switches it to durable mode: restores the
+     * snapshot if it exists, replays the mutations logged after it, and keeps the log
+     * open to append every later mutation. Replay prints nothing. A torn record at the
+     * end of the log, left by a crash during a group commit, is discarded.
+     *
+     * @param snapshotFile The path of the snapshot, written to by checkpoints.
+     * @param logFile      The path of the write-ahead log, created if it does not exist.
+     * @return The number of mutations replayed.
+     * @throws IOException if the snapshot or log cannot be read, or the log does not
+     *                     continue where the snapshot ends.
+     */
+    public long recover(String snapshotFile, String logFile) throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (log != null) {
+                throw new IllegalStateException("error: write-ahead log already open");
+            }
+            if (Files.exists(Path.of(snapshotFile))) {
+                restore(snapshotFile);
+            }
+            WriteAheadLog opened = new WriteAheadLog(logFile, WriteAheadLog.DEFAULT_GROUP_SIZE);
+            try {
+                long replayed = opened.replay(logSequence, new WriteAheadLog.Handler() {
+                    @Override
+                    public void insert(Seminar seminar) {
+                        if (inBounds(seminar) && seminar.packedDate() != PackedDate.INVALID
+                                && idTable.search(seminar.id()) == IntIntHashTable.NOT_FOUND) {
+                            addRecord(seminar);
+                        }
+                    }
+
+                    @Override
+                    public void delete(int id) {
+                        int record = idTable.remove(id);
+                        if (record != IntIntHashTable.NOT_FOUND) {
+                            removeRecord(record);
+                        }
+                    }
+                });
+                if (opened.lastSequence() < logSequence) {
+                    // A crash during a checkpoint left the log behind the snapshot: number
+                    // new records after the snapshot so a later replay does not skip them
+                    opened.truncate(logSequence);
+                }
+                logSequence = opened.lastSequence();
+                this.log = opened;
+                this.checkpointPath = Path.of(snapshotFile).toAbsolutePath().normalize();
+                return replayed;
+            } catch (IOException | RuntimeException e) {
+                opened.close();
+                throw e;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Commits any pending mutations and closes the write-ahead log, leaving durable mode.
+     *
+     * @throws IOException if the log cannot be written.
+     */
+    public void closeLog() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (log == null) return;
+
+            try {
+                log.close();
+            } finally {
+                log = null;
+                checkpointPath = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Commits the pending group of logged mutations in durable mode, so that every
+     * insert and delete made so far survives a crash. Does nothing otherwise.
+     *
+     * @throws IOException if the log cannot be written.
+     */
+    public void syncLog() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (log != null) {
+                log.sync();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Inserts a seminar, writing the result to a sink. Runs under the write lock.
+     *
+     * @param seminar The seminar to insert.
+     * @param sink    The sink the result is written to.
+     */
+    public void insert(Seminar seminar, OutputSink sink) {
+        lock.writeLock().lock();
+        try {
+            processInsert(seminar, sink);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Deletes a seminar, writing the result to a sink. Runs under the write lock.
+     *
+     * @param id   The ID of the seminar to delete.
+     * @param sink The sink the result is written to.
+     */
+    public void delete(int id, OutputSink sink) {
+        lock.writeLock().lock();
+        try {
+            processDelete(id, sink);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Runs a search, writing the results to a sink. Cost and date searches read the
+     * latest published view and take no lock; the others run under the read lock.
+     * Either way, searches from several threads proceed together.
+     *
+     * @param type       The search type (e.g., ID, cost, date, keyword, location).
+     * @param searchArgs The arguments for the search.
+     * @param sink       The sink the results are written to.
+     */
+    public void search(String type, String[] searchArgs, OutputSink sink) {
+        if (type.equals("cost") || type.equals("date")) {
+            processSearch(type, searchArgs, sink);
+            return;
+        }
+
+        lock.readLock().lock();
+        try {
+            processSearch(type, searchArgs, sink);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Prints the contents of an index to a sink. The location tree is printed under the
+     * read lock; the other indexes are printed from the latest published view, with no lock.
+     *
+     * @param type The index to print (e.g., ID, cost, date, keyword, location).
+     * @param sink The sink the contents are written to.
+     */
+    public void print(String type, OutputSink sink) {
+        if (!type.equals("location")) {
+            processPrint(type, sink);
+            return;
+        }
+
+        lock.readLock().lock();
+        try {
+            processPrint(type, sink);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
     /**
      * Processes the insert command to add a seminar to the database.
      *
      * @param seminar The Seminar object to be inserted.
+     * @param sink    The sink the results are written to.
      */
-    void processInsert(Seminar seminar) {
+    void processInsert(Seminar seminar, OutputSink sink) {
         // Check if seminar is within the bounding box
-        if ((seminar.x() < 0 || seminar.x() >= this.worldSize) || (seminar.y() < 0 || seminar.y() >= this.worldSize)) {
-            System.out.printf("Insert FAILED - Bad x, y coordinates: %d, %d\n", seminar.x(), seminar.y());
+        if (!inBounds(seminar)) {
+            sink.print(text().append("Insert FAILED - Bad x, y coordinates: ")
+                    .append(seminar.x()).append(", ").append(seminar.y()).append('\n'));
             return;
         }
 
-        // Check if the seminar already exists in the database
-        if (!idBST.insertUnique(seminar.id(), seminar)) {
-            System.out.printf("Insert FAILED - There is already a record with ID %d\n", seminar.id());
+        // Check if the seminar date can be indexed
+        if (seminar.packedDate() == PackedDate.INVALID) {
+            sink.print(text().append("Insert FAILED - Bad date: ").append(seminar.date()).append('\n'));
             return;
         }
 
-        // Insert seminar into all relevant trees
-        costBST.insert(seminar.cost(), seminar);
-        dateBST.insert(seminar.date(), seminar);
-        for (String keyword : seminar.keywords()) {
-            keywordBST.insert(keyword, seminar);
+        // Check if the seminar already exists in the database
+        if (idTable.search(seminar.id()) != IntIntHashTable.NOT_FOUND) {
+            sink.print(text().append("Insert FAILED - There is already a record with ID ")
+                    .append(seminar.id()).append('\n'));
+            return;
         }
-        // Insert seminar into spatial binary tree
-        locationBT.insertSeminar(seminar);
+        if (log != null) {
+            try {
+                logSequence = log.appendInsert(seminar);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        addRecord(seminar);
 
-        System.out.printf("Successfully inserted record with ID %d\n", seminar.id());
-        System.out.println(seminar);
+        sink.print(text().append("Successfully inserted record with ID ").append(seminar.id()).append('\n'));
+        sink.println(seminar.appendTo(text()));
     }
 
     /**
@@ -155,9 +763,11 @@ public class SeminarDB {
      *
      * @param type       The search type (e.g., ID, cost, date, keyword, location).
      * @param searchArgs The arguments for the search.
+     * @param sink       The sink the results are written to.
      */
-    void processSearch(String type, String[] searchArgs) {
+    void processSearch(String type, String[] searchArgs, OutputSink sink) {
         if (searchArgs == null || searchArgs.length == 0) {
+            sink.flush();
             System.err.println("error: invalid search arguments");
             return;
         }
@@ -168,13 +778,13 @@ public class SeminarDB {
                 if (searchArgs.length != 1) return;
 
                 int key = Integer.parseInt(searchArgs[0]);
-                Seminar seminar = idBST.search(key);
+                int record = idTable.search(key);
 
-                if (seminar == null) {
-                    System.out.printf("Search FAILED -- There is no record with ID %d\n", key);
+                if (record == IntIntHashTable.NOT_FOUND) {
+                    sink.print(text().append("Search FAILED -- There is no record with ID ").append(key).append('\n'));
                 } else {
-                    System.out.printf("Found record with ID %d\n", key);
-                    System.out.println(seminar);
+                    sink.print(text().append("Found record with ID ").append(key).append('\n'));
+                    sink.println(store.view(record).appendTo(text()));
                 }
 
                 break;
@@ -185,11 +795,19 @@ public class SeminarDB {
                 String low = searchArgs[0];
                 String high = searchArgs[1];
                 int[] count = {0};
-                List<Seminar> seminars = dateBST.search(low, high, count);
 
-                System.out.printf("Seminars with %s in range %s to %s:\n", type, low, high);
-                seminars.forEach(System.out::println);
-                System.out.printf("%d nodes visited in this search\n", count[0]);
+                sink.print(text().append("Seminars with ").append(type)
+                        .append(" in range ").append(low).append(" to ").append(high).append(":\n"));
+                ReadView snapshot = pin();
+                try {
+                    List<Integer> records = snapshot.dates.search(entry(PackedDate.lowerBound(low), Integer.MIN_VALUE),
+                            entry(PackedDate.upperBound(high), Integer.MAX_VALUE), count);
+                    printRecords(snapshot.store, records, sink);
+                } finally {
+                    unpin(snapshot);
+                }
+                // As for cost, the count is nodes of the view's balanced tree visited
+                sink.print(text().append(count[0]).append(" nodes visited in this search\n"));
                 break;
             }
             case "cost": {
@@ -198,22 +816,45 @@ public class SeminarDB {
                 int low = Integer.parseInt(searchArgs[0]);
                 int high = Integer.parseInt(searchArgs[1]);
                 int[] count = {0};
-                List<Seminar> seminars = costBST.search(low, high, count);
 
-                System.out.printf("Seminars with %s in range %d to %d:\n", type, low, high);
-                seminars.forEach(System.out::println);
-                System.out.printf("%d nodes visited in this search\n", count[0]);
+                sink.print(text().append("Seminars with ").append(type)
+                        .append(" in range ").append(low).append(" to ").append(high).append(":\n"));
+                ReadView snapshot = pin();
+                try {
+                    List<Integer> records = snapshot.costs.search(entry(low, Integer.MIN_VALUE),
+                            entry(high, Integer.MAX_VALUE), count);
+                    printRecords(snapshot.store, records, sink);
+                } finally {
+                    unpin(snapshot);
+                }
+                sink.print(text().append(count[0]).append(" nodes visited in this search\n"));
                 break;
             }
             case "keyword": {
                 if (searchArgs.length != 1) return;
 
                 String keyword = searchArgs[0];
-                List<Seminar> seminars = keywordBST.multiSearch(keyword);
+                int[] ids = keywordIndex.search(keyword);
+
+                sink.print(text().append("Seminars matching keyword ").append(keyword).append(":\n"));
+                printSeminars(ids, sink);
+
+                break;
+            }
+            case "allkeywords": {
+                int[] ids = keywordIndex.searchAll(searchArgs);
 
-                System.out.printf("Seminars matching keyword %s:\n", keyword);
-                seminars.forEach(System.out::println);
+                sink.print(text().append("Seminars matching all keywords ")
+                        .append(String.join(" ", searchArgs)).append(":\n"));
+                printSeminars(ids, sink);
+                break;
+            }
+            case "anykeywords": {
+                int[] ids = keywordIndex.searchAny(searchArgs);
 
+                sink.print(text().append("Seminars matching any keyword ")
+                        .append(String.join(" ", searchArgs)).append(":\n"));
+                printSeminars(ids, sink);
                 break;
             }
             case "location": {
@@ -224,17 +865,49 @@ public class SeminarDB {
                 int radius = Integer.parseInt(searchArgs[2]);
 
                 int[] count = {0};
-                List<Seminar> seminars = locationBT.search(x, y, radius, count);
+                int[] ids = locationBT.search(x, y, radius, count);
 
-                System.out.printf("Seminars within %d units of %d, %d:\n", radius, x, y);
-                for (Seminar seminar : seminars) {
-                    System.out.printf("Found a record with key value %d at %d, %d\n",
-                            seminar.id(), seminar.x(), seminar.y());
-                }
-                System.out.printf("%d nodes visited in this search\n", count[0]);
+                sink.print(text().append("Seminars within ").append(radius)
+                        .append(" units of ").append(x).append(", ").append(y).append(":\n"));
+                printLocations(ids, sink);
+                sink.print(text().append(count[0]).append(" nodes visited in this search\n"));
+                break;
+            }
+            case "region": {
+                if (searchArgs.length != 4) return;
+
+                int x1 = Integer.parseInt(searchArgs[0]);
+                int y1 = Integer.parseInt(searchArgs[1]);
+                int x2 = Integer.parseInt(searchArgs[2]);
+                int y2 = Integer.parseInt(searchArgs[3]);
+
+                int[] count = {0};
+                int[] ids = locationBT.searchRegion(x1, y1, x2, y2, count);
+
+                sink.print(text().append("Seminars in region ").append(x1).append(", ").append(y1)
+                        .append(" to ").append(x2).append(", ").append(y2).append(":\n"));
+                printLocations(ids, sink);
+                sink.print(text().append(count[0]).append(" nodes visited in this search\n"));
+                break;
+            }
+            case "nearest": {
+                if (searchArgs.length != 3) return;
+
+                int x = Integer.parseInt(searchArgs[0]);
+                int y = Integer.parseInt(searchArgs[1]);
+                int k = Integer.parseInt(searchArgs[2]);
+
+                int[] count = {0};
+                int[] ids = locationBT.nearest(x, y, k, count);
+
+                sink.print(text().append("Seminars nearest to ").append(x).append(", ").append(y)
+                        .append(" (up to ").append(k).append("):\n"));
+                printLocations(ids, sink);
+                sink.print(text().append(count[0]).append(" nodes visited in this search\n"));
                 break;
             }
             default: {
+                sink.flush();
                 System.err.println("error: invalid search type");
                 break;
             }
@@ -244,62 +917,685 @@ public class SeminarDB {
     /**
      * Processes the delete command to remove a seminar from the database.
      *
-     * @param id The ID of the seminar to be deleted.
+     * @param id   The ID of the seminar to be deleted.
+     * @param sink The sink the results are written to.
      */
-    void processDelete(int id) {
-        // Remove seminar from the ID BST
-        Seminar seminar = idBST.remove(id);
-        if (seminar == null) {
-            System.out.printf("Delete FAILED -- There is no record with ID %d\n", id);
+    void processDelete(int id, OutputSink sink) {
+        // Remove seminar from the ID table
+        int record = idTable.remove(id);
+        if (record == IntIntHashTable.NOT_FOUND) {
+            sink.print(text().append("Delete FAILED -- There is no record with ID ").append(id).append('\n'));
             return;
         }
+        if (log != null) {
+            try {
+                logSequence = log.appendDelete(id);
+            } catch (IOException e) {
+                idTable.insertUnique(id, record);
+                throw new UncheckedIOException(e);
+            }
+        }
+        removeRecord(record);
+        sink.print(text().append("Record with ID ").append(id)
+                .append(" successfully deleted from the database\n"));
 
-        // Remove seminar from other trees and spatial binary tree
-        costBST.remove(seminar.cost(), seminar);
-        dateBST.remove(seminar.date(), seminar);
-        for (String keyword : seminar.keywords()) {
-            keywordBST.remove(keyword, seminar);
+    }
+
+    /**
+     * Processes the save command to write a snapshot of the database.
+     *
+     * @param filename The path of the snapshot file.
+     * @param sink     The sink the result is written to.
+     */
+    void processSave(String filename, OutputSink sink) {
+        try {
+            save(filename);
+            sink.print(text().append("Saved snapshot of ").append(store.size())
+                    .append(" records to ").append(filename).append('\n'));
+        } catch (IOException e) {
+            sink.flush();
+            System.err.println(snapshotError("save", filename, e));
         }
-        locationBT.remove(seminar.id(), seminar.x(), seminar.y());
-        System.out.printf("Record with ID %d successfully deleted from the database\n", id);
+    }
 
+    /**
+     * Processes the restore command to replace the database with a snapshot.
+     *
+     * @param filename The path of the snapshot file.
+     * @param sink     The sink the result is written to.
+     */
+    void processRestore(String filename, OutputSink sink) {
+        try {
+            restore(filename);
+            sink.print(text().append("Restored snapshot of ").append(store.size())
+                    .append(" records from ").append(filename).append('\n'));
+        } catch (IOException e) {
+            sink.flush();
+            System.err.println(snapshotError("restore", filename, e));
+        }
     }
 
     /**
      * Processes the print command to display the contents of the trees.
      *
      * @param type The type of tree to print (e.g., ID, cost, date, keyword, location).
+     * @param sink The sink the results are written to.
      */
-    void processPrint(String type) {
+    void processPrint(String type, OutputSink sink) {
         switch (type) {
             case "ID": {
-                System.out.println("ID Tree:");
-                idBST.dump();
+                sink.println("ID Tree:");
+                // Every ID is in the view's cost entries; IDs are only looked up exactly, so they are sorted here
+                List<Long> entries = new ArrayList<>();
+                view.costs.entries(entries, new ArrayList<>());
+                int[] sorted = new int[entries.size()];
+                for (int i = 0; i < sorted.length; i++) {
+                    sorted[i] = entryId(entries.get(i));
+                }
+                Arrays.sort(sorted);
+                List<Integer> ids = new ArrayList<>(sorted.length);
+                for (int id : sorted) {
+                    ids.add(id);
+                }
+                BinarySearchTree.fromSorted(ids, ids).dump(sink);
                 break;
             }
             case "cost": {
-                System.out.println("Cost Tree:");
-                costBST.dump();
+                sink.println("Cost Tree:");
+                // Ordered view of the cost entries
+                List<Long> entries = new ArrayList<>();
+                List<Integer> records = new ArrayList<>();
+                view.costs.entries(entries, records);
+                List<Integer> costs = new ArrayList<>(entries.size());
+                for (long entry : entries) {
+                    costs.add(entryKey(entry));
+                }
+                BinarySearchTree.fromSorted(costs, records).dump(sink);
                 break;
             }
             case "date": {
-                System.out.println("Date Tree:");
-                dateBST.dump();
+                sink.println("Date Tree:");
+                // Ordered view of the date entries; packed dates format back to the original strings
+                List<Long> entries = new ArrayList<>();
+                List<Integer> records = new ArrayList<>();
+                view.dates.entries(entries, records);
+                List<String> dates = new ArrayList<>(entries.size());
+                for (long entry : entries) {
+                    dates.add(PackedDate.format(entryKey(entry)));
+                }
+                BinarySearchTree.fromSorted(dates, records).dump(sink);
                 break;
             }
             case "keyword": {
-                System.out.println("Keyword Tree:");
-                keywordBST.dump();
+                sink.println("Keyword Tree:");
+                // One entry per (keyword, seminar) pair, read from the records of a pinned view
+                List<String> keywords = new ArrayList<>();
+                ReadView snapshot = pin();
+                try {
+                    List<Long> entries = new ArrayList<>();
+                    List<Integer> records = new ArrayList<>();
+                    snapshot.costs.entries(entries, records);
+                    for (int record : records) {
+                        addKeywords(snapshot.store.view(record), keywords);
+                    }
+                } finally {
+                    unpin(snapshot);
+                }
+                keywords.sort(null);
+                BinarySearchTree.fromSorted(keywords, keywords).dump(sink);
                 break;
             }
             case "location": {
-                System.out.println("Location Tree:");
-                locationBT.dump();
+                sink.println("Location Tree:");
+                locationBT.dump(sink);
                 break;
             }
             default: {
+                sink.flush();
                 System.err.println("error: invalid print type");
             }
         }
     }
+
+    /**
+     * Body of the parser thread of {@link #loadPipelined}: queues the commands of a file,
+     * then the end marker, or a failure once anything, errors included, stops the parser.
+     * The executor waits for one or the other, so every way out but an interrupt queues it.
+     *
+     * @param filename The file path containing the commands.
+     * @param commands The queue the commands are passed on through.
+     */
+    private void parseCommands(String filename, BlockingQueue<Command> commands) {
+        StringPool pool = new StringPool(); // The shared pool belongs to the executor
+        Command last;
+        try (CommandReader reader = new CommandReader(filename)) {
+            while (reader.nextLine()) {
+                Command command = parseCommand(reader, pool);
+                if (command != null) {
+                    commands.put(command);
+                }
+            }
+            last = Command.END;
+        } catch (InterruptedException e) {
+            return; // The executor stopped early and no longer takes commands
+        } catch (Throwable e) {
+            last = Command.failure(e);
+        }
+        try {
+            commands.put(last);
+        } catch (InterruptedException e) {
+            // The executor stopped early and no longer takes commands
+        }
+    }
+
+    /**
+     * Helper method to execute a parsed command, writing its results to a sink.
+     *
+     * @param command The command.
+     * @param sink    The sink the results are written to.
+     */
+    private void execute(Command command, OutputSink sink) {
+        switch (command.kind) {
+            case INSERT:
+                insert(command.seminar, sink);
+                break;
+            case SEARCH:
+                search(command.name, command.args, sink);
+                break;
+            case DELETE:
+                delete(command.id, sink);
+                break;
+            case PRINT:
+                print(command.name, sink);
+                break;
+            case SAVE:
+                processSave(command.name, sink);
+                break;
+            case RESTORE:
+                processRestore(command.name, sink);
+                break;
+            default:
+                sink.flush();
+                System.err.printf("error: invalid command {%s}\n", command.name);
+                break;
+        }
+    }
+
+    /**
+     * Helper method to run a stretch of queries concurrently, then write their results
+     * to a sink in order. A query that fails has the results before it written, and
+     * its exception rethrown once every query of the stretch has finished. The
+     * stretch is emptied.
+     *
+     * @param run     The queries, in file order.
+     * @param results Reusable sinks, one per query.
+     * @param sink    The sink the results are written to.
+     * @param pool    The pool that runs the queries.
+     */
+    private void runQueries(List<Command> run, MemoryOutputSink[] results, OutputSink sink, ForkJoinPool pool) {
+        if (run.isEmpty()) return;
+        if (run.size() == 1) {
+            execute(run.get(0), sink);
+            run.clear();
+            return;
+        }
+
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[run.size()];
+        // Each query's own exception, as join would rethrow a copy
+        RuntimeException[] failures = new RuntimeException[tasks.length];
+        for (int i = 0; i < tasks.length; i++) {
+            if (results[i] == null) {
+                results[i] = new MemoryOutputSink();
+            }
+            Command command = run.get(i);
+            MemoryOutputSink result = results[i];
+            int index = i;
+            tasks[i] = pool.submit(ForkJoinTask.adapt(() -> {
+                try {
+                    execute(command, result);
+                } catch (RuntimeException e) {
+                    failures[index] = e;
+                }
+            }));
+        }
+        run.clear();
+
+        int i = 0;
+        try {
+            for (; i < tasks.length; i++) {
+                tasks[i].join();
+                if (failures[i] != null) throw failures[i];
+
+                sink.print(results[i].text());
+                results[i].clear();
+            }
+        } finally {
+            // After a failure, let the later queries finish before their sinks are reused
+            for (int j = i; j < tasks.length; j++) {
+                tasks[j].quietlyJoin();
+                results[j].clear();
+            }
+        }
+    }
+
+    /**
+     * Checks whether a command is a query that can run alongside others: a search of a
+     * known type with arguments, or a print of a known type, so that it reports no error
+     * on {@code System.err}. A print writes its dump to its own sink like a search.
+     *
+     * @param command The command.
+     * @return {@code true} if the command is such a query.
+     */
+    private static boolean isIndependentQuery(Command command) {
+        if (command.kind == Command.Kind.PRINT) {
+            switch (command.name) {
+                case "ID":
+                case "cost":
+                case "date":
+                case "keyword":
+                case "location":
+                    return true;
+                default:
+                    return false;
+            }
+        }
+        if (command.kind != Command.Kind.SEARCH || command.args.length == 0) return false;
+
+        switch (command.name) {
+            case "ID":
+            case "date":
+            case "cost":
+            case "keyword":
+            case "allkeywords":
+            case "anykeywords":
+            case "location":
+            case "region":
+            case "nearest":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Selects the seminars of a batch that insert would accept: in bounds, with a valid
+     * date, and with an ID that is neither in the database nor earlier in the batch.
+     *
+     * @param seminars The batch.
+     * @return The accepted seminars, sorted by ID.
+     */
+    private List<Seminar> acceptBatch(Collection<Seminar> seminars) {
+        List<Seminar> valid = new ArrayList<>(seminars.size());
+        for (Seminar seminar : seminars) {
+            if (inBounds(seminar) && seminar.packedDate() != PackedDate.INVALID) {
+                valid.add(seminar);
+            }
+        }
+        // Stable sort: of several seminars sharing an ID, the first in the batch comes first
+        valid.sort(Comparator.comparingInt(Seminar::id));
+
+        List<Seminar> accepted = new ArrayList<>(valid.size());
+        for (Seminar seminar : valid) {
+            boolean repeated = !accepted.isEmpty() && accepted.getLast().id() == seminar.id();
+            if (!repeated && idTable.search(seminar.id()) == IntIntHashTable.NOT_FOUND) {
+                accepted.add(seminar);
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Returns one build step per index for a batch of accepted seminars. The steps touch
+     * disjoint structures, so they can run in any order or concurrently. The batch's
+     * keywords are interned first, so the shared pool is only read while the steps run.
+     *
+     * @param accepted The accepted seminars, sorted by ID.
+     * @param parallel Whether the location index should split its build into fork-join subtasks.
+     * @return The build steps.
+     */
+    private Runnable[] indexBuilds(List<Seminar> accepted, boolean parallel) {
+        int n = accepted.size();
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = accepted.get(i).id();
+        }
+        int[][] keywordCodes = new int[n][];
+        for (int i = 0; i < n; i++) {
+            String[] keywords = accepted.get(i).keywords();
+            keywordCodes[i] = new int[keywords.length];
+            for (int j = 0; j < keywords.length; j++) {
+                keywordCodes[i][j] = keywordPool.intern(keywords[j]);
+            }
+        }
+
+        return new Runnable[]{
+            () -> {
+                idTable.ensureCapacity(idTable.size() + n);
+                for (Seminar seminar : accepted) {
+                    idTable.insertUnique(seminar.id(), store.add(seminar));
+                }
+            },
+            () -> {
+                int[] costs = new int[n];
+                for (int i = 0; i < n; i++) {
+                    costs[i] = accepted.get(i).cost();
+                }
+                costIndex.insertAll(costs, ids);
+            },
+            () -> {
+                int[] dates = new int[n];
+                for (int i = 0; i < n; i++) {
+                    dates[i] = accepted.get(i).packedDate();
+                }
+                dateIndex.insertAll(dates, ids);
+            },
+            () -> {
+                // ID order turns posting-list inserts into appends
+                for (int i = 0; i < n; i++) {
+                    for (int code : keywordCodes[i]) {
+                        keywordIndex.insert(code, ids[i]);
+                    }
+                }
+            },
+            () -> {
+                int[] xs = new int[n];
+                int[] ys = new int[n];
+                for (int i = 0; i < n; i++) {
+                    xs[i] = accepted.get(i).x();
+                    ys[i] = accepted.get(i).y();
+                }
+                locationBT.insertAll(ids, xs, ys, parallel);
+            }
+        };
+    }
+
+    /**
+     * Helper method to add a validated seminar to the store and every index.
+     *
+     * @param seminar The seminar, whose ID is not in the database yet.
+     */
+    private void addRecord(Seminar seminar) {
+        int record = store.add(seminar);
+        idTable.insertUnique(seminar.id(), record);
+
+        // Insert seminar into all relevant trees
+        costIndex.insert(seminar.cost(), seminar.id());
+        dateIndex.insert(seminar.packedDate(), seminar.id());
+        for (int code : store.view(record).keywordCodes()) {
+            keywordIndex.insert(code, seminar.id());
+        }
+        // Insert seminar into spatial binary tree
+        locationBT.insert(seminar.id(), seminar.x(), seminar.y());
+
+        costView.insert(entry(seminar.cost(), seminar.id()), record);
+        dateView.insert(entry(seminar.packedDate(), seminar.id()), record);
+        publish(NO_RECORD);
+    }
+
+    /**
+     * Helper method to remove a record, already taken out of the ID table, from the
+     * other indexes. The record leaves the store once no lock-free reader can see it.
+     *
+     * @param record The record offset.
+     */
+    private void removeRecord(int record) {
+        // Remove seminar from other trees and spatial binary tree
+        SeminarView seminar = store.view(record);
+        costIndex.remove(seminar.cost(), seminar.id());
+        dateIndex.remove(seminar.packedDate(), seminar.id());
+        for (int code : seminar.keywordCodes()) {
+            keywordIndex.remove(code, seminar.id());
+        }
+        locationBT.remove(seminar.id(), seminar.x(), seminar.y());
+
+        costView.remove(entry(seminar.cost(), seminar.id()));
+        dateView.remove(entry(seminar.packedDate(), seminar.id()));
+        publish(record);
+    }
+
+    /**
+     * Helper method to rebuild the cost and date views from their indexes after a bulk
+     * load or a restore, and publish them.
+     */
+    private void rebuildViews() {
+        costView = viewOf(costIndex);
+        dateView = viewOf(dateIndex);
+        publish(NO_RECORD);
+    }
+
+    /**
+     * Helper method to build the view of a range index, mapping each entry to the
+     * record offset of its seminar.
+     *
+     * @param index The cost or date index.
+     * @return The view.
+     */
+    private PersistentBinarySearchTree<Long, Integer> viewOf(IntRangeIndex index) {
+        int[] keys = index.keys();
+        int[] ids = index.ids();
+        List<Long> entries = new ArrayList<>(keys.length);
+        List<Integer> records = new ArrayList<>(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            entries.add(entry(keys[i], ids[i]));
+            records.add(idTable.search(ids[i]));
+        }
+        return PersistentBinarySearchTree.fromSorted(entries, records);
+    }
+
+    /**
+     * Helper method to publish the current store and views to lock-free readers. The view
+     * replaced waits in line until it and every older view are unpinned; then the record
+     * deleted by this change, if any, is removed from the store.
+     *
+     * @param retired The record the change deleted, or {@link #NO_RECORD}.
+     */
+    private void publish(int retired) {
+        ReadView previous = view;
+        view = new ReadView(store, costView.snapshot(), dateView.snapshot());
+        if (previous != null) {
+            previous.retired = retired;
+            superseded.addLast(previous);
+        }
+        reclaim();
+    }
+
+    /**
+     * Helper method to remove the retired records of the oldest replaced views that are
+     * no longer pinned. A view is only reclaimed once every older one has been, since
+     * the older views can still reach its record too.
+     */
+    private void reclaim() {
+        while (!superseded.isEmpty() && superseded.peekFirst().readers.get() == 0) {
+            ReadView oldest = superseded.pollFirst();
+            if (oldest.retired != NO_RECORD) {
+                oldest.store.remove(oldest.retired);
+            }
+        }
+    }
+
+    /**
+     * Helper method to wait, under the write lock, until every replaced view has been
+     * reclaimed. Only readers that pinned a view before it was replaced are waited for,
+     * and they take no locks, so the wait is short.
+     */
+    private void awaitReaders() {
+        reclaim();
+        while (!superseded.isEmpty()) {
+            Thread.yield();
+            reclaim();
+        }
+    }
+
+    /**
+     * Helper method to pin the latest published view. A view pinned here cannot have been
+     * reclaimed: the writer replaces it before checking its readers, and the check below
+     * sees the replacement.
+     *
+     * @return The pinned view, to be released with {@link #unpin}.
+     */
+    private ReadView pin() {
+        while (true) {
+            ReadView latest = view;
+            latest.readers.incrementAndGet();
+            if (latest == view) return latest;
+
+            latest.readers.decrementAndGet();
+        }
+    }
+
+    /**
+     * Helper method to release a view pinned by {@link #pin}.
+     *
+     * @param pinned The view.
+     */
+    private static void unpin(ReadView pinned) {
+        pinned.readers.decrementAndGet();
+    }
+
+    /**
+     * Helper method to pack a key and a seminar ID into a view entry. Entries order by
+     * key, then by ID, as in {@link IntRangeIndex}.
+     *
+     * @param key The cost or packed date.
+     * @param id  The seminar ID.
+     * @return The entry.
+     */
+    private static long entry(int key, int id) {
+        return ((long) key << 32) | ((id ^ Integer.MIN_VALUE) & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Helper method to unpack the key of a view entry.
+     *
+     * @param entry The entry.
+     * @return The cost or packed date.
+     */
+    private static int entryKey(long entry) {
+        return (int) (entry >> 32);
+    }
+
+    /**
+     * Helper method to unpack the seminar ID of a view entry.
+     *
+     * @param entry The entry.
+     * @return The seminar ID.
+     */
+    private static int entryId(long entry) {
+        return (int) entry ^ Integer.MIN_VALUE;
+    }
+
+    /**
+     * Helper method to add the keywords of a seminar to a list, each once, as the
+     * keyword index holds them.
+     *
+     * @param seminar  The seminar.
+     * @param keywords The list the keywords are added to.
+     */
+    private static void addKeywords(SeminarView seminar, List<String> keywords) {
+        int[] codes = seminar.keywordCodes();
+        String[] words = seminar.keywords();
+        for (int i = 0; i < codes.length; i++) {
+            boolean repeated = false;
+            for (int j = 0; j < i && !repeated; j++) {
+                repeated = codes[j] == codes[i];
+            }
+            if (!repeated) {
+                keywords.add(words[i]);
+            }
+        }
+    }
+
+    /**
+     * Helper method to log a bulk-loaded batch in durable mode and commit it.
+     *
+     * @param accepted The seminars about to be loaded.
+     */
+    private void logBatch(List<Seminar> accepted) {
+        if (log == null) return;
+
+        try {
+            for (Seminar seminar : accepted) {
+                logSequence = log.appendInsert(seminar);
+            }
+            log.sync();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Checks whether a seminar lies within the bounding box of the world.
+     *
+     * @param seminar The seminar to check.
+     * @return {@code true} if both coordinates are within [0, worldSize).
+     */
+    private boolean inBounds(Seminar seminar) {
+        return seminar.x() >= 0 && seminar.x() < this.worldSize
+                && seminar.y() >= 0 && seminar.y() < this.worldSize;
+    }
+
+    /**
+     * Prints the seminars with the given IDs, in order.
+     *
+     * @param ids  The IDs of the seminars to print.
+     * @param sink The sink the results are written to.
+     */
+    private void printSeminars(int[] ids, OutputSink sink) {
+        for (int id : ids) {
+            sink.println(store.view(idTable.search(id)).appendTo(text()));
+        }
+    }
+
+    /**
+     * Prints the seminars of a view's records, in order.
+     *
+     * @param store   The store of the view.
+     * @param records The record offsets of the seminars to print.
+     * @param sink    The sink the results are written to.
+     */
+    private void printRecords(SeminarStore store, List<Integer> records, OutputSink sink) {
+        for (int record : records) {
+            sink.println(store.view(record).appendTo(text()));
+        }
+    }
+
+    /**
+     * Prints the ID and location of each seminar, in order.
+     *
+     * @param ids  The IDs of the seminars to print.
+     * @param sink The sink the results are written to.
+     */
+    private void printLocations(int[] ids, OutputSink sink) {
+        for (int id : ids) {
+            SeminarView seminar = store.view(idTable.search(id));
+            sink.print(text().append("Found a record with key value ").append(id)
+                    .append(" at ").append(seminar.x()).append(", ").append(seminar.y()).append('\n'));
+        }
+    }
+
+    /**
+     * Describes a failed save or restore. Snapshot errors already carry an
+     * {@code error:} message; other I/O errors are reported with the file name.
+     *
+     * @param action   The failed action, {@code save} or {@code restore}.
+     * @param filename The path of the snapshot file.
+     * @param e        The failure.
+     * @return The error message.
+     */
+    private static String snapshotError(String action, String filename, IOException e) {
+        String message = e.getMessage();
+        if (message != null && message.startsWith("error:")) return message;
+        return "error: cannot " + action + " snapshot {" + filename + "}";
+    }
+
+    /**
+     * Returns the calling thread's reused output line buffer, cleared.
+     *
+     * @return The empty line buffer.
+     */
+    private StringBuilder text() {
+        StringBuilder line = text.get();
+        line.setLength(0);
+        return line;
+    }
 }
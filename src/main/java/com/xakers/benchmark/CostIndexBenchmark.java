@@ -0,0 +1,119 @@
+package main.java.com.xakers.benchmark;
+
+import main.java.com.xakers.datastructures.binarysearchtree.BinarySearchTree;
+import main.java.com.xakers.datastructures.rangeindex.IntRangeIndex;
+import main.java.com.xakers.model.Seminar;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark comparing cost range queries on a balanced {@link BinarySearchTree}
+ * of seminars (the former cost index) against the primitive {@link IntRangeIndex}.
+ * <p>
+ * Usage: {@code CostIndexBenchmark [seminars] [queries]}, defaulting to 1,000,000
+ * seminars and 10,000 queries. Each structure is built and queried twice; the
+ * second (warmed up) round is reported.
+ *
+ * @author Xavier Akers
+ * @version 2026-10-16
+ * @since 2026-10-16
+ */
+public class CostIndexBenchmark {
+    private static final int MAX_COST = 100_000;    // Costs are drawn from [0, MAX_COST)
+    private static final int QUERY_WIDTH = 100;     // Width of each cost range query
+
+    public static void main(String[] args) {
+        int numSeminars = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int numQueries = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+
+        Random random = new Random(42);
+        Seminar[] seminars = new Seminar[numSeminars];
+        for (int i = 0; i < numSeminars; i++) {
+            seminars[i] = new Seminar(i, "title", "0610051600", 60, (short) 0, (short) 0,
+                    random.nextInt(MAX_COST), new String[]{"keyword"}, "description");
+        }
+        int[] lows = new int[numQueries];
+        for (int i = 0; i < numQueries; i++) {
+            lows[i] = random.nextInt(MAX_COST - QUERY_WIDTH);
+        }
+
+        System.out.printf("%d seminars, %d queries of width %d%n", numSeminars, numQueries, QUERY_WIDTH);
+        for (int round = 1; round <= 2; round++) {
+            System.out.printf("Round %d%n", round);
+            runTree(seminars, lows);
+            runIndex(seminars, lows);
+        }
+    }
+
+    /**
+     * Builds and queries a balanced BinarySearchTree keyed by cost.
+     *
+     * @param seminars The seminars to index.
+     * @param lows     The lower bounds of the queries.
+     */
+    private static void runTree(Seminar[] seminars, int[] lows) {
+        long start = System.nanoTime();
+        BinarySearchTree<Integer, Seminar> tree = new BinarySearchTree<>(true);
+        for (Seminar seminar : seminars) {
+            tree.insert(seminar.cost(), seminar);
+        }
+        long built = System.nanoTime();
+
+        long results = 0;
+        long visited = 0;
+        int[] count = {0};
+        for (int low : lows) {
+            List<Seminar> found = tree.search(low, low + QUERY_WIDTH, count);
+            results += found.size();
+            visited += count[0];
+        }
+        long queried = System.nanoTime();
+
+        report("BinarySearchTree", built - start, queried - built, results, visited, lows.length);
+    }
+
+    /**
+     * Builds and queries an IntRangeIndex keyed by cost.
+     *
+     * @param seminars The seminars to index.
+     * @param lows     The lower bounds of the queries.
+     */
+    private static void runIndex(Seminar[] seminars, int[] lows) {
+        long start = System.nanoTime();
+        IntRangeIndex index = new IntRangeIndex();
+        for (Seminar seminar : seminars) {
+            index.insert(seminar.cost(), seminar.id());
+        }
+        long built = System.nanoTime();
+
+        long results = 0;
+        long visited = 0;
+        int[] count = {0};
+        for (int low : lows) {
+            int[] found = index.search(low, low + QUERY_WIDTH, count);
+            results += found.length;
+            visited += count[0];
+        }
+        long queried = System.nanoTime();
+
+        report("IntRangeIndex", built - start, queried - built, results, visited, lows.length);
+    }
+
+    /**
+     * Prints one benchmark line.
+     *
+     * @param name       The structure measured.
+     * @param buildNanos Time spent inserting every seminar.
+     * @param queryNanos Time spent running every query.
+     * @param results    Total number of results returned.
+     * @param visited    Total number of nodes (or blocks) visited.
+     * @param numQueries Number of queries run.
+     */
+    private static void report(String name, long buildNanos, long queryNanos,
+                               long results, long visited, int numQueries) {
+        System.out.printf("  %-16s build %7.1f ms, queries %7.1f ms (%6.1f us/query), %d results, %.1f visits/query%n",
+                name, buildNanos / 1e6, queryNanos / 1e6, queryNanos / 1e3 / numQueries,
+                results, (double) visited / numQueries);
+    }
+}
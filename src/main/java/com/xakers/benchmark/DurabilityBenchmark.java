@@ -0,0 +1,111 @@
+package main.java.com.xakers.benchmark;
+
+import main.java.com.xakers.app.SeminarDB;
+import main.java.com.xakers.io.MemoryOutputSink;
+import main.java.com.xakers.io.WriteAheadLog;
+import main.java.com.xakers.model.Seminar;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Benchmark comparing the mutation throughput of a {@link SeminarDB} in memory
+ * against the same database in durable mode, where every insert and delete is also
+ * appended to a {@link WriteAheadLog} and forced to disk once per group.
+ * <p>
+ * Usage: {@code DurabilityBenchmark [seminars]}, defaulting to 200,000 seminars.
+ * Each run inserts every seminar and then deletes every other one, so all of its
+ * operations are mutations; the durable run commits the last group at the end. The
+ * log lives in a temporary directory that is removed afterwards. Both modes run
+ * twice; the second (warmed up) round is reported.
+ *
+ * @author Xavier Akers
+ * @version 2026-10-16
+ * @since 2026-10-16
+ */
+public class DurabilityBenchmark {
+    private static final int WORLD_SIZE = 1 << 14;  // Side of the world the seminars lie in
+    private static final int NUM_KEYWORDS = 4;      // Keywords per seminar
+    private static final int VOCABULARY = 5_000;    // Distinct keywords
+
+    public static void main(String[] args) throws IOException {
+        int numSeminars = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+
+        Random random = new Random(42);
+        Seminar[] seminars = new Seminar[numSeminars];
+        for (int i = 0; i < numSeminars; i++) {
+            seminars[i] = seminar(i, random);
+        }
+
+        System.out.printf("%d seminars, %d mutations, group commit of %d records%n",
+                numSeminars, numSeminars + numSeminars / 2, WriteAheadLog.DEFAULT_GROUP_SIZE);
+        for (int round = 1; round <= 2; round++) {
+            System.out.printf("Round %d%n", round);
+            long inMemory = run("in-memory", seminars, false);
+            long durable = run("durable", seminars, true);
+            System.out.printf("  durable / in-memory time: %.2fx%n", (double) durable / inMemory);
+        }
+    }
+
+    /**
+     * Inserts the seminars into a new database, then deletes every other one.
+     *
+     * @param name     The name of the mode.
+     * @param seminars The seminars.
+     * @param durable  Whether to log the mutations.
+     * @return The elapsed time in nanoseconds.
+     * @throws IOException if the log cannot be written.
+     */
+    private static long run(String name, Seminar[] seminars, boolean durable) throws IOException {
+        Path dir = Files.createTempDirectory("durability");
+        Path snapshot = dir.resolve("seminars.snap");
+        Path log = dir.resolve("seminars.log");
+        try {
+            SeminarDB db = new SeminarDB(WORLD_SIZE);
+            MemoryOutputSink sink = new MemoryOutputSink();
+
+            long start = System.nanoTime();
+            if (durable) {
+                db.recover(snapshot.toString(), log.toString());
+            }
+            for (Seminar seminar : seminars) {
+                db.insert(seminar, sink);
+                sink.clear();
+            }
+            for (int id = 0; id < seminars.length; id += 2) {
+                db.delete(id, sink);
+                sink.clear();
+            }
+            db.closeLog();
+            long elapsed = System.nanoTime() - start;
+
+            int mutations = seminars.length + (seminars.length + 1) / 2;
+            System.out.printf("  %-9s %8.1f ms, %7.1f mutations/ms, log %6.1f MB%n", name, elapsed / 1e6,
+                    mutations / (elapsed / 1e6), Files.exists(log) ? Files.size(log) / 1e6 : 0.0);
+            return elapsed;
+        } finally {
+            Files.deleteIfExists(log);
+            Files.deleteIfExists(snapshot);
+            Files.delete(dir);
+        }
+    }
+
+    /**
+     * Creates a seminar with generated text and a random location.
+     *
+     * @param id     The seminar ID.
+     * @param random Source of the generated fields.
+     * @return The seminar.
+     */
+    private static Seminar seminar(int id, Random random) {
+        String[] keywords = new String[NUM_KEYWORDS];
+        for (int i = 0; i < NUM_KEYWORDS; i++) {
+            keywords[i] = "keyword" + random.nextInt(VOCABULARY);
+        }
+        return new Seminar(id, "Seminar title " + id, "0610051600", 30 + random.nextInt(90),
+                (short) random.nextInt(WORLD_SIZE), (short) random.nextInt(WORLD_SIZE), random.nextInt(1000),
+                keywords, "A description of seminar " + id + " and what it covers");
+    }
+}
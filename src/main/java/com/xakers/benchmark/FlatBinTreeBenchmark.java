@@ -0,0 +1,112 @@
+package main.java.com.xakers.benchmark;
+
+import main.java.com.xakers.datastructures.bintree.BinTree;
+import main.java.com.xakers.datastructures.bintree.FlatBinTree;
+import main.java.com.xakers.datastructures.bintree.SpatialIndex;
+import main.java.com.xakers.model.Seminar;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Benchmark comparing the object-graph {@link BinTree} with the array-encoded
+ * {@link FlatBinTree}.
+ * <p>
+ * Usage: {@code FlatBinTreeBenchmark [seminars] [queries] [leafCapacity]}, defaulting to
+ * 1,000,000 seminars, 100,000 queries and a leaf capacity of 8 in a 16,384 by 16,384
+ * world. For each implementation the tree is built by individual inserts, queried with
+ * radius searches centred on seminars, and finally emptied by removes. The heap
+ * retained by the tree itself (not the seminars) is estimated after a garbage collection.
+ *
+ * @author Xavier Akers
+ * @version 2026-10-16
+ * @since 2026-10-16
+ */
+public class FlatBinTreeBenchmark {
+    private static final int WORLD_SIZE = 1 << 14;  // Width and height of the world
+    private static final int RADIUS = 50;           // Radius of each query
+
+    public static void main(String[] args) {
+        int numSeminars = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int numQueries = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        int capacity = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+
+        Random random = new Random(42);
+        Seminar[] seminars = new Seminar[numSeminars];
+        for (int i = 0; i < numSeminars; i++) {
+            seminars[i] = new Seminar(i, "title", "0610051600", 60,
+                    (short) random.nextInt(WORLD_SIZE), (short) random.nextInt(WORLD_SIZE),
+                    100, new String[]{"keyword"}, "description");
+        }
+        int[] queryX = new int[numQueries];
+        int[] queryY = new int[numQueries];
+        for (int i = 0; i < numQueries; i++) {
+            Seminar centre = seminars[random.nextInt(numSeminars)];
+            queryX[i] = centre.x();
+            queryY[i] = centre.y();
+        }
+
+        System.out.printf("%d seminars, %d queries of radius %d, leaf capacity %d, world %d%n",
+                numSeminars, numQueries, RADIUS, capacity, WORLD_SIZE);
+        for (int round = 1; round <= 2; round++) {
+            System.out.printf("Round %d%n", round);
+            run("BinTree", () -> new BinTree(WORLD_SIZE, WORLD_SIZE, capacity), seminars, queryX, queryY);
+            run("FlatBinTree", () -> new FlatBinTree(WORLD_SIZE, WORLD_SIZE, capacity), seminars, queryX, queryY);
+        }
+    }
+
+    /**
+     * Builds, queries and empties one tree, reporting timings and retained heap.
+     *
+     * @param name     The name of the implementation.
+     * @param factory  Creates an empty tree.
+     * @param seminars The seminars to insert.
+     * @param queryX   X-coordinates of the query centres.
+     * @param queryY   Y-coordinates of the query centres.
+     */
+    private static void run(String name, Supplier<SpatialIndex> factory, Seminar[] seminars,
+                            int[] queryX, int[] queryY) {
+        long before = usedHeap();
+        long start = System.nanoTime();
+        SpatialIndex tree = factory.get();
+        for (Seminar seminar : seminars) {
+            tree.insert(seminar.id(), seminar.x(), seminar.y());
+        }
+        long built = System.nanoTime();
+        long retained = usedHeap() - before;
+
+        long results = 0;
+        long visited = 0;
+        int[] count = {0};
+        long queryStart = System.nanoTime();
+        for (int i = 0; i < queryX.length; i++) {
+            results += tree.search(queryX[i], queryY[i], RADIUS, count).length;
+            visited += count[0];
+        }
+        long queried = System.nanoTime();
+
+        for (Seminar seminar : seminars) {
+            tree.remove(seminar.id(), seminar.x(), seminar.y());
+        }
+        long removed = System.nanoTime();
+
+        System.out.printf("  %-11s build %7.1f ms, queries %7.1f ms (%5.2f us/query, %.1f results,"
+                        + " %.1f visits), remove %7.1f ms, tree heap %6.1f MB%n",
+                name, (built - start) / 1e6, (queried - queryStart) / 1e6,
+                (queried - queryStart) / 1e3 / queryX.length, (double) results / queryX.length,
+                (double) visited / queryX.length, (removed - queried) / 1e6, retained / 1e6);
+    }
+
+    /**
+     * Estimates the heap in use after a garbage collection.
+     *
+     * @return The used heap in bytes.
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
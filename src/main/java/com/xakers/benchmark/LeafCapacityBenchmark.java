@@ -0,0 +1,128 @@
+package main.java.com.xakers.benchmark;
+
+import main.java.com.xakers.datastructures.bintree.BinTree;
+import main.java.com.xakers.model.Seminar;
+
+import java.util.Random;
+
+/**
+ * Benchmark measuring how the leaf capacity of a {@link BinTree} affects its shape
+ * and the cost of radius searches.
+ * <p>
+ * Usage: {@code LeafCapacityBenchmark [seminars] [queries]}, defaulting to 200,000
+ * seminars and 10,000 queries in a 16,384 by 16,384 world. Two data sets are measured:
+ * seminars spread uniformly over the world, and seminars clustered tightly around a
+ * few dozen city centres. For each leaf capacity the tree is built by individual
+ * inserts and its node count and height are reported, along with the nodes visited
+ * and time taken by radius queries centred on seminars.
+ *
+ * @author Xavier Akers
+ * @version 2026-10-16
+ * @since 2026-10-16
+ */
+public class LeafCapacityBenchmark {
+    private static final int WORLD_SIZE = 1 << 14;                 // Width and height of the world
+    private static final int NUM_CITIES = 40;                       // Cluster centres of the clustered data
+    private static final int CITY_SPREAD = 60;                      // Standard deviation around a centre
+    private static final int RADIUS = 50;                           // Radius of each query
+    private static final int[] CAPACITIES = {1, 2, 4, 8, 16, 32};   // Leaf capacities measured
+
+    public static void main(String[] args) {
+        int numSeminars = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int numQueries = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+
+        Random random = new Random(42);
+        Seminar[] uniform = new Seminar[numSeminars];
+        for (int i = 0; i < numSeminars; i++) {
+            uniform[i] = seminar(i, random.nextInt(WORLD_SIZE), random.nextInt(WORLD_SIZE));
+        }
+
+        int[] cityX = new int[NUM_CITIES];
+        int[] cityY = new int[NUM_CITIES];
+        for (int i = 0; i < NUM_CITIES; i++) {
+            cityX[i] = random.nextInt(WORLD_SIZE);
+            cityY[i] = random.nextInt(WORLD_SIZE);
+        }
+        Seminar[] clustered = new Seminar[numSeminars];
+        for (int i = 0; i < numSeminars; i++) {
+            int city = random.nextInt(NUM_CITIES);
+            clustered[i] = seminar(i, clamp(cityX[city] + random.nextGaussian() * CITY_SPREAD),
+                    clamp(cityY[city] + random.nextGaussian() * CITY_SPREAD));
+        }
+
+        System.out.printf("%d seminars, %d queries of radius %d, world %d%n",
+                numSeminars, numQueries, RADIUS, WORLD_SIZE);
+        for (int round = 1; round <= 2; round++) {
+            System.out.printf("Round %d%n", round);
+            run("uniform", uniform, numQueries, random);
+            run("clustered", clustered, numQueries, random);
+        }
+    }
+
+    /**
+     * Builds one tree per leaf capacity from a data set and queries it.
+     *
+     * @param name       The name of the data set.
+     * @param seminars   The seminars to insert.
+     * @param numQueries The number of queries to run.
+     * @param random     Source of query centres.
+     */
+    private static void run(String name, Seminar[] seminars, int numQueries, Random random) {
+        // Queries are centred on seminars so they land where the data is
+        int[] queryX = new int[numQueries];
+        int[] queryY = new int[numQueries];
+        for (int i = 0; i < numQueries; i++) {
+            Seminar centre = seminars[random.nextInt(seminars.length)];
+            queryX[i] = centre.x();
+            queryY[i] = centre.y();
+        }
+
+        System.out.printf("  %s%n", name);
+        for (int capacity : CAPACITIES) {
+            long start = System.nanoTime();
+            BinTree tree = new BinTree(WORLD_SIZE, WORLD_SIZE, capacity);
+            for (Seminar seminar : seminars) {
+                tree.insert(seminar.id(), seminar.x(), seminar.y());
+            }
+            long built = System.nanoTime();
+
+            long results = 0;
+            long visited = 0;
+            int[] count = {0};
+            for (int i = 0; i < numQueries; i++) {
+                results += tree.search(queryX[i], queryY[i], RADIUS, count).length;
+                visited += count[0];
+            }
+            long queried = System.nanoTime();
+
+            System.out.printf("    N=%-3d %8d nodes, height %2d, build %6.1f ms, queries %6.1f ms"
+                            + " (%5.1f us/query), %.1f results/query, %.1f visits/query%n",
+                    capacity, tree.nodeCount(), tree.height(), (built - start) / 1e6,
+                    (queried - built) / 1e6, (queried - built) / 1e3 / numQueries,
+                    (double) results / numQueries, (double) visited / numQueries);
+        }
+    }
+
+    /**
+     * Creates a seminar at a location.
+     *
+     * @param id The seminar ID.
+     * @param x  The x-coordinate.
+     * @param y  The y-coordinate.
+     * @return The seminar.
+     */
+    private static Seminar seminar(int id, int x, int y) {
+        return new Seminar(id, "title", "0610051600", 60, (short) x, (short) y,
+                100, new String[]{"keyword"}, "description");
+    }
+
+    /**
+     * Rounds a coordinate and clamps it to the world.
+     *
+     * @param coordinate The coordinate.
+     * @return The clamped coordinate.
+     */
+    private static int clamp(double coordinate) {
+        return (int) Math.max(0, Math.min(WORLD_SIZE - 1, Math.round(coordinate)));
+    }
+}
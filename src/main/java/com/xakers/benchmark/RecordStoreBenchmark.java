@@ -0,0 +1,152 @@
+package main.java.com.xakers.benchmark;
+
+import main.java.com.xakers.datastructures.hashtable.IntIntHashTable;
+import main.java.com.xakers.datastructures.recordstore.SeminarStore;
+import main.java.com.xakers.model.Seminar;
+
+import java.util.Random;
+
+/**
+ * Benchmark comparing seminars kept as heap objects with seminars kept in an
+ * off-heap {@link SeminarStore}.
+ * <p>
+ * Usage: {@code RecordStoreBenchmark [seminars]}, defaulting to 1,000,000 seminars with
+ * short titles and descriptions and four keywords each. The heap variant holds the
+ * seminars in an array; the store variant copies them into a store. Both find a
+ * seminar through an {@link IntIntHashTable} of array indexes or record offsets. For
+ * each, the heap retained after loading, the off-heap bytes, the duration of a full
+ * garbage collection with the data live, and the time to format every record are
+ * reported.
+ *
+ * @author Xavier Akers
+ * @version 2026-10-16
+ * @since 2026-10-16
+ */
+public class RecordStoreBenchmark {
+    private static final int NUM_KEYWORDS = 4;      // Keywords per seminar
+    private static final int VOCABULARY = 5_000;    // Distinct keywords
+
+    public static void main(String[] args) {
+        int numSeminars = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        System.out.printf("%d seminars%n", numSeminars);
+        for (int round = 1; round <= 2; round++) {
+            System.out.printf("Round %d%n", round);
+            runHeap(numSeminars);
+            runStore(numSeminars);
+        }
+    }
+
+    /**
+     * Loads the seminars as heap objects and measures them.
+     *
+     * @param numSeminars The number of seminars.
+     */
+    private static void runHeap(int numSeminars) {
+        long before = usedHeap();
+        Random random = new Random(42);
+        Seminar[] seminars = new Seminar[numSeminars];
+        IntIntHashTable table = new IntIntHashTable(numSeminars);
+        for (int i = 0; i < numSeminars; i++) {
+            seminars[i] = seminar(i, random);
+            table.insertUnique(i, i);
+        }
+        long retained = usedHeap() - before;
+        long gc = timeFullGc();
+
+        long start = System.nanoTime();
+        StringBuilder text = new StringBuilder(256);
+        long chars = 0;
+        for (int i = 0; i < numSeminars; i++) {
+            text.setLength(0);
+            chars += seminars[table.search(i)].appendTo(text).length();
+        }
+        long formatted = System.nanoTime();
+
+        report("heap", retained, 0, gc, formatted - start, chars);
+    }
+
+    /**
+     * Loads the seminars into a store and measures them.
+     *
+     * @param numSeminars The number of seminars.
+     */
+    private static void runStore(int numSeminars) {
+        long before = usedHeap();
+        Random random = new Random(42);
+        SeminarStore store = new SeminarStore();
+        IntIntHashTable table = new IntIntHashTable(numSeminars);
+        for (int i = 0; i < numSeminars; i++) {
+            table.insertUnique(i, store.add(seminar(i, random)));
+        }
+        long retained = usedHeap() - before;
+        long gc = timeFullGc();
+
+        long start = System.nanoTime();
+        StringBuilder text = new StringBuilder(256);
+        long chars = 0;
+        for (int i = 0; i < numSeminars; i++) {
+            text.setLength(0);
+            chars += store.view(table.search(i)).appendTo(text).length();
+        }
+        long formatted = System.nanoTime();
+
+        report("store", retained, store.offHeapBytes(), gc, formatted - start, chars);
+    }
+
+    /**
+     * Prints one result line.
+     *
+     * @param name      The name of the variant.
+     * @param retained  The heap retained by the data, in bytes.
+     * @param offHeap   The bytes allocated outside the heap.
+     * @param gcNanos   The duration of a full garbage collection.
+     * @param fmtNanos  The time to format every record.
+     * @param chars     The number of characters formatted, to keep the work observable.
+     */
+    private static void report(String name, long retained, long offHeap, long gcNanos, long fmtNanos, long chars) {
+        System.out.printf("  %-5s heap %7.1f MB, off-heap %6.1f MB, full GC %6.1f ms, format %7.1f ms (%d chars)%n",
+                name, retained / 1e6, offHeap / 1e6, gcNanos / 1e6, fmtNanos / 1e6, chars);
+    }
+
+    /**
+     * Creates a seminar with generated text.
+     *
+     * @param id     The seminar ID.
+     * @param random Source of the generated fields.
+     * @return The seminar.
+     */
+    private static Seminar seminar(int id, Random random) {
+        String[] keywords = new String[NUM_KEYWORDS];
+        for (int i = 0; i < NUM_KEYWORDS; i++) {
+            keywords[i] = "keyword" + random.nextInt(VOCABULARY);
+        }
+        return new Seminar(id, "Seminar title " + id, "0610051600", 30 + random.nextInt(90),
+                (short) random.nextInt(1 << 14), (short) random.nextInt(1 << 14), random.nextInt(1000),
+                keywords, "A description of seminar " + id + " and what it covers");
+    }
+
+    /**
+     * Measures the duration of a full garbage collection.
+     *
+     * @return The duration in nanoseconds.
+     */
+    private static long timeFullGc() {
+        long start = System.nanoTime();
+        System.gc();
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Estimates the heap in use after a garbage collection.
+     *
+     * @return The used heap in bytes.
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -1,19 +1,33 @@
 package main.java.com.xakers.datastructures.binarysearchtree;
 
+import main.java.com.xakers.io.OutputSink;
 import main.java.com.xakers.model.Record;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * A generic Binary Search Tree (BST) implementation that support various operations.
  * It allows inserting key-value pairs, searching by key, removing by key or key-value,
  * and performing rage and multi-search queries.
+ * <p>
+ * The tree can optionally run in a self-balancing (AVL) mode. In that mode every
+ * update rebalances the path it touched, so the height stays O(log n) even when
+ * keys arrive in sorted order.
+ * <p>
+ * All operations are iterative, so even a degenerate (linked-list shaped) tree can
+ * be searched, updated and dumped without overflowing the call stack. Updates record
+ * their path in a stack that is pooled across calls. Searches and dumps keep their
+ * stacks per call and change no state, so they may run concurrently with each
+ * other, though not with an update.
+ * Building from sorted input ({@link #fromSorted(List, List)}) recurses only
+ * O(log n) deep.
  *
  * @param <K> Type of keys in the tree (must be Comparable)
  * @param <V> Type of values associated with the keys
  * @author Xavier Akers
- * @version 2025-01-06
+ * @version 2026-10-16
  * @since 2025-01-04
  */
 public class BinarySearchTree<K extends Comparable<K>, V> {
@@ -21,6 +35,7 @@ public class BinarySearchTree<K extends Comparable<K>, V> {
         private Record<K, V> data;  // Data held in the node
         private BSTNode left;       // Left child node
         private BSTNode right;      // Right child node
+        private int height;         // Height of the subtree rooted at this node
 
         /**
          * Constructor to create a new BST node.
@@ -32,6 +47,7 @@ public class BinarySearchTree<K extends Comparable<K>, V> {
             this.data = new Record<>(key, value);
             this.left = null;
             this.right = null;
+            this.height = 1;
         }
 
         /**
@@ -87,17 +103,72 @@ public class BinarySearchTree<K extends Comparable<K>, V> {
         public void setRight(BSTNode right) {
             this.right = right;
         }
+
+        /**
+         * Returns the height of the subtree rooted at the node.
+         *
+         * @return The height of the node.
+         */
+        public int getHeight() {
+            return height;
+        }
+
+        /**
+         * Sets the height of the subtree rooted at the node.
+         *
+         * @param height The height of the node.
+         */
+        public void setHeight(int height) {
+            this.height = height;
+        }
     }
 
-    private BSTNode root;   // Root of the BST
-    private int numNodes;   // Number of nodes in the BST
+    private BSTNode root;           // Root of the BST
+    private int numNodes;           // Number of nodes in the BST
+    private final boolean balanced; // Whether updates rebalance the tree (AVL mode)
+
+    private final List<BSTNode> path = new ArrayList<>();   // Pooled root-to-node path of updates
+    private final List<BSTNode> stack = new ArrayList<>();  // Pooled depth-first search stack of updates
+    private int[] levels = new int[16];                     // Pooled per-entry depths for the update stack
 
     /**
-     * Constructs an empty BST
+     * Constructs an empty, unbalanced BST
      */
     public BinarySearchTree() {
+        this(false);
+    }
+
+    /**
+     * Constructs an empty BST.
+     *
+     * @param balanced {@code true} to keep the tree height-balanced (AVL) on every update.
+     */
+    public BinarySearchTree(boolean balanced) {
         this.root = null;
         this.numNodes = 0;
+        this.balanced = balanced;
+    }
+
+    /**
+     * Builds a perfectly balanced tree, bottom-up, from key-value pairs already in key order.
+     * This takes O(n) time, compared to O(n log n) for n separate inserts. The tree is in
+     * balanced mode, so later updates keep it balanced.
+     *
+     * @param keys   The keys in ascending order.
+     * @param values The values, parallel to {@code keys}.
+     * @param <K>    Type of keys in the tree
+     * @param <V>    Type of values associated with the keys
+     * @return The new tree.
+     */
+    public static <K extends Comparable<K>, V> BinarySearchTree<K, V> fromSorted(List<K> keys, List<V> values) {
+        if (keys.size() != values.size()) {
+            throw new IllegalArgumentException("error: keys and values must have the same length.");
+        }
+
+        BinarySearchTree<K, V> tree = new BinarySearchTree<>(true);
+        tree.root = tree.build(keys, values, 0, keys.size() - 1);
+        tree.numNodes = keys.size();
+        return tree;
     }
 
     /**
@@ -108,8 +179,7 @@ public class BinarySearchTree<K extends Comparable<K>, V> {
      * @param value The value associated with the key.
      */
     public void insert(K key, V value) {
-        this.root = insert(root, key, value);
-        this.numNodes++;
+        insert(key, value, false);
     }
 
     /**
@@ -121,10 +191,7 @@ public class BinarySearchTree<K extends Comparable<K>, V> {
      * @return True if the node was successfully inserted, false if the key already exists.
      */
     public boolean insertUnique(K key, V value) {
-        boolean[] inserted = new boolean[1];
-        this.root = insertUnique(root, key, value, inserted);
-        if (inserted[0]) this.numNodes++;
-        return inserted[0];
+        return insert(key, value, true);
     }
 
     /**
@@ -134,7 +201,13 @@ public class BinarySearchTree<K extends Comparable<K>, V> {
      * @return The value associated with the key, or null if the key is not found.
      */
     public V search(K key) {
-        return search(root, key);
+        BSTNode node = this.root;
+        while (node != null) {
+            int cmp = key.compareTo(node.getData().getKey());
+            if (cmp == 0) return node.getData().getValue();
+            node = cmp < 0 ? node.getLeft() : node.getRight();
+        }
+        return null;
     }
 
     /**
@@ -148,7 +221,7 @@ public class BinarySearchTree<K extends Comparable<K>, V> {
     public List<V> search(K low, K high, int[] count) {
         List<V> results = new ArrayList<>();
         count[0] = 0;
-        rangeSearch(this.root, low, high, results, count);
+        rangeSearch(low, high, results, count);
         return results;
     }
 
@@ -160,7 +233,7 @@ public class BinarySearchTree<K extends Comparable<K>, V> {
      */
     public List<V> multiSearch(K key) {
         List<V> results = new ArrayList<>();
-        multiSearch(this.root, key, results);
+        multiSearch(key, results);
         return results;
     }
 
@@ -172,11 +245,20 @@ public class BinarySearchTree<K extends Comparable<K>, V> {
      * @return The value of the removed ode, or null if the key is not found.
      */
     public V remove(K key) {
-        List<V> deletedValue = new ArrayList<>(1);
-
-        this.root = removeByKey(this.root, key, deletedValue);
+        path.clear();
+        BSTNode node = this.root;
+        while (node != null) {
+            int cmp = key.compareTo(node.getData().getKey());
+            if (cmp == 0) break;
+            path.add(node);
+            node = cmp < 0 ? node.getLeft() : node.getRight();
+        }
+        if (node == null) return null;
 
-        return deletedValue.isEmpty() ? null : deletedValue.getFirst();
+        V deletedValue = node.getData().getValue();
+        removeAt(node);
+        this.numNodes--;
+        return deletedValue;
     }
 
     /**
@@ -187,21 +269,48 @@ public class BinarySearchTree<K extends Comparable<K>, V> {
      * @param value The value to be removed.
      */
     public void remove(K key, V value) {
-        this.root = removeByKeyValue(this.root, key, value);
+        BSTNode node = findKeyValue(key, value);
+        if (node == null) return;
+
+        removeAt(node);
+        this.numNodes--;
+    }
+
+    /**
+     * Returns the number of records in the tree.
+     *
+     * @return The number of records.
+     */
+    public int size() {
+        return numNodes;
+    }
+
+    /**
+     * Returns the height of the tree (0 for an empty tree).
+     * In balanced mode this stays within roughly 1.44 * log2(n).
+     *
+     * @return The height of the tree.
+     */
+    public int height() {
+        return height(root);
     }
 
     /**
      * Prints the entire tree structure in a human-readable format.
      * It also displays the total number of records in the tree.
+     *
+     * @param out The sink the tree is written to.
      */
-    public void dump() {
+    public void dump(OutputSink out) {
         if (root == null) {
-            System.out.println("This tree is empty");
+            out.println("This tree is empty");
             return;
         }
 
-        dump(root, 0);
-        System.out.printf("Number of records: %d\n", numNodes);
+        dump(root, out);
+        out.print("Number of records: ");
+        out.print(numNodes);
+        out.print("\n");
     }
 
     // ----------------------------------------------------------
@@ -210,230 +319,395 @@ public class BinarySearchTree<K extends Comparable<K>, V> {
 
     /**
      * Helper method to insert a key-value pair into the tree.
+     * Duplicates go left unless {@code unique} is set, in which case an equal key aborts the insert.
      *
-     * @param node  The current node in the tree.
-     * @param key   The key to be inserted.
-     * @param value The value to be inserted.
-     * @return The updated tree node.
+     * @param key    The key to be inserted.
+     * @param value  The value to be inserted.
+     * @param unique Whether an existing equal key prevents the insert.
+     * @return True if the node was inserted.
      */
-    private BSTNode insert(BSTNode node, K key, V value) {
-        // If node is null, create new node
-        if (node == null) return new BSTNode(key, value);
-
-        if (key.compareTo(node.data.getKey()) <= 0) {
+    private boolean insert(K key, V value, boolean unique) {
+        path.clear();
+        BSTNode node = this.root;
+        boolean left = false;
+        while (node != null) {
+            int cmp = key.compareTo(node.getData().getKey());
+            if (unique && cmp == 0) return false;
+
+            path.add(node);
             // Traverse left if less than or equal to (duplicates go left)
-            node.setLeft(insert(node.left, key, value));
-        } else {
-            // Traverse right if greater than
-            node.setRight(insert(node.right, key, value));
-        }
-
-        return node;
-    }
-
-    /**
-     * Helper method to insert a key-value pair into the tree, ensuring uniqueness.
-     *
-     * @param node     The current node in the tree.
-     * @param key      The key to be inserted.
-     * @param value    The value to be inserted.
-     * @param inserted A flag indicating if the node was inserted.
-     * @return The updated tree node.
-     */
-    private BSTNode insertUnique(BSTNode node, K key, V value, boolean[] inserted) {
-        // If node is null, create new node
-        if (node == null) {
-            inserted[0] = true;
-            return new BSTNode(key, value);
+            left = cmp <= 0;
+            node = left ? node.getLeft() : node.getRight();
         }
 
-        if (key.compareTo(node.data.getKey()) < 0) {
-            // Traverse left if less than
-            node.setLeft(insertUnique(node.left, key, value, inserted));
-        } else if (key.compareTo(node.data.getKey()) > 0) {
-            // Traverse right if greater than
-            node.setRight(insertUnique(node.right, key, value, inserted));
+        BSTNode leaf = new BSTNode(key, value);
+        if (path.isEmpty()) {
+            this.root = leaf;
+        } else if (left) {
+            path.getLast().setLeft(leaf);
         } else {
-            inserted[0] = false;
+            path.getLast().setRight(leaf);
         }
-        return node;
-
+        this.root = retrace(0);
+        this.numNodes++;
+        return true;
     }
 
     /**
-     * Helper method to search for a key in the tree.
+     * Helper method to build a balanced subtree from a sorted range, taking the middle as root.
      *
-     * @param node The current node.
-     * @param key  The key to search for.
-     * @return The value associated with the key, or null if the key is not found.
+     * @param keys   The keys in ascending order.
+     * @param values The values, parallel to {@code keys}.
+     * @param from   The first index of the range (inclusive).
+     * @param to     The last index of the range (inclusive).
+     * @return The root of the subtree, or null for an empty range.
      */
-    private V search(BSTNode node, K key) {
-        if (node == null) return null;
-
-        if (key.compareTo(node.getData().getKey()) < 0) {
-            search(node.getLeft(), key);
-        } else if (key.compareTo(node.getData().getKey()) > 0) {
-            search(node.getRight(), key);
-        }
-        return node.getData().getValue();
+    private BSTNode build(List<K> keys, List<V> values, int from, int to) {
+        if (from > to) return null;
+
+        int mid = (from + to) >>> 1;
+        BSTNode node = new BSTNode(keys.get(mid), values.get(mid));
+        node.setLeft(build(keys, values, from, mid - 1));
+        node.setRight(build(keys, values, mid + 1, to));
+        updateHeight(node);
+        return node;
     }
 
     /**
      * Helper method for performing a range search in the tree.
+     * Walks the tree in order with an explicit stack of pending nodes, allocated per
+     * call. Each subtree the search descends into (including empty ones) counts as
+     * one visited node.
      *
-     * @param node    The current node.
      * @param low     The lower bound of the range.
      * @param high    The upper bound of the range.
      * @param results A list to store the values within the range.
      * @param count   An array used to count the number of nodes visited during the search.
      */
-    private void rangeSearch(BSTNode node, K low, K high, List<V> results, int[] count) {
-        count[0]++;
-
-        if (node == null) return;
-
-        K key = node.getData().getKey();
+    private void rangeSearch(K low, K high, List<V> results, int[] count) {
+        List<BSTNode> pending = new ArrayList<>();
+        BSTNode node = this.root;
+        boolean descending = true;
+        while (true) {
+            if (descending) {
+                count[0]++;
+                if (node == null) {
+                    if (pending.isEmpty()) return;
+                    node = pending.removeLast();
+                } else if (node.getData().getKey().compareTo(low) >= 0) {
+                    // Traverse left if left subtree may have keys >= low
+                    pending.add(node);
+                    node = node.getLeft();
+                    continue;
+                }
+            }
 
-        // Traverse left if left subtree may have keys >= low
-        if (key.compareTo(low) >= 0) {
-            rangeSearch(node.getLeft(), low, high, results, count);
-        }
+            K key = node.getData().getKey();
 
-        // If current key is within range
-        if (key.compareTo(low) >= 0 && key.compareTo(high) <= 0) {
-            results.add(node.getData().getValue());
-        }
+            // If current key is within range
+            if (key.compareTo(low) >= 0 && key.compareTo(high) <= 0) {
+                results.add(node.getData().getValue());
+            }
 
-        // Traverse right if right subtree may have keys <= high
-        if (key.compareTo(high) <= 0) {
-            rangeSearch(node.getRight(), low, high, results, count);
+            // Traverse right if right subtree may have keys <= high
+            if (key.compareTo(high) <= 0) {
+                node = node.getRight();
+                descending = true;
+            } else {
+                if (pending.isEmpty()) return;
+                node = pending.removeLast();
+                descending = false;
+            }
         }
     }
 
     /**
      * Helper method to perform a multi-search for a specific key.
+     * Walks the tree in order but only enters subtrees that can hold the key,
+     * so the cost is O(height + number of matches).
      *
-     * @param node    The current node.
      * @param key     The key to search for.
      * @param results A list to store the values associated with the keys.
      */
-    private void multiSearch(BSTNode node, K key, List<V> results) {
-        if (node == null) return;
+    private void multiSearch(K key, List<V> results) {
+        List<BSTNode> pending = new ArrayList<>();
+        BSTNode node = this.root;
+        while (node != null || !pending.isEmpty()) {
+            while (node != null) {
+                int cmp = key.compareTo(node.getData().getKey());
+                if (cmp > 0) {
+                    // Node and its left subtree are smaller than the key
+                    node = node.getRight();
+                    continue;
+                }
+                pending.add(node);
+                node = node.getLeft();
+            }
+            if (pending.isEmpty()) break;
+            node = pending.removeLast();
 
-        multiSearch(node.getLeft(), key, results);
+            int cmp = key.compareTo(node.getData().getKey());
+            if (cmp == 0) {
+                results.add(node.getData().getValue());
+            }
 
-        if (key.compareTo(node.getData().getKey()) == 0) {
-            results.add(node.getData().getValue());
+            // Right subtree can only hold the key if it is not smaller than this node's key
+            node = cmp == 0 ? node.getRight() : null;
         }
-
-        multiSearch(node.getRight(), key, results);
-
     }
 
     /**
-     * Helper method to remove a node by key and return its associated value.
+     * Helper method to find the node holding a key-value pair.
+     * Duplicate keys normally sit in the left subtree, but rotations in balanced mode
+     * can move them to the right, so both sides of an equal key are explored.
+     * On return {@link #path} holds the ancestors of the node found.
      *
-     * @param node         The current node.
-     * @param key          THe key to be removed.
-     * @param deletedValue A list to store the value of the deleted node.
-     * @return The updated tree node.
+     * @param key   The key to search for.
+     * @param value The value to search for.
+     * @return The matching node, or null if there is none.
      */
-    private BSTNode removeByKey(BSTNode node, K key, List<V> deletedValue) {
-        if (node == null) return null;
+    private BSTNode findKeyValue(K key, V value) {
+        path.clear();
+        if (this.root == null) return null;
+
+        // Depth-first search; each stack entry remembers its depth so that the
+        // ancestor path can be rebuilt for the node that matches.
+        int[] depths = this.levels;
+        stack.clear();
+        stack.add(this.root);
+        depths[0] = 0;
+        while (!stack.isEmpty()) {
+            int depth = depths[stack.size() - 1];
+            BSTNode node = stack.removeLast();
+            while (path.size() > depth) path.removeLast();
+
+            int cmp = key.compareTo(node.getData().getKey());
+            if (cmp == 0 && node.getData().getValue().equals(value)) return node;
+
+            path.add(node);
+            if (depths.length < stack.size() + 2) {
+                depths = this.levels = Arrays.copyOf(depths, depths.length * 2);
+            }
+            // Push right first so the left side (where duplicates usually are) is searched first
+            if (cmp >= 0 && node.getRight() != null) {
+                depths[stack.size()] = depth + 1;
+                stack.add(node.getRight());
+            }
+            if (cmp <= 0 && node.getLeft() != null) {
+                depths[stack.size()] = depth + 1;
+                stack.add(node.getLeft());
+            }
+        }
+        path.clear();
+        return null;
+    }
 
-        if (key.compareTo(node.getData().getKey()) < 0) {
-            node.setLeft(removeByKey(node.getLeft(), key, deletedValue));
-        } else if (key.compareTo(node.getData().getKey()) > 0) {
-            node.setRight(removeByKey(node.getRight(), key, deletedValue));
+    /**
+     * Helper method to unlink a node whose record is being removed.
+     * {@link #path} must hold the node's ancestors; the path is rebalanced afterwards.
+     * A node with two children takes over the record of its in-order predecessor.
+     *
+     * @param node The node being removed.
+     */
+    private void removeAt(BSTNode node) {
+        BSTNode replacement;
+        int base = path.size();
+        if (node.getLeft() == null) {
+            replacement = node.getRight();
+        } else if (node.getRight() == null) {
+            replacement = node.getLeft();
         } else {
-            deletedValue.add(node.getData().getValue());
-
-            // Case 1: Node has no children
-            if (node.getLeft() == null && node.getRight() == null) {
-                return null;
-            } else if (node.getLeft() == null) {
-                return node.getRight();
-            } else if (node.getRight() == null) {
-                return node.getLeft();
+            // Unlink the maximum node of the left subtree and move its record up
+            path.add(node);
+            BSTNode parent = node;
+            BSTNode max = node.getLeft();
+            while (max.getRight() != null) {
+                path.add(max);
+                parent = max;
+                max = max.getRight();
+            }
+            node.setData(max.getData());
+            if (parent == node) {
+                node.setLeft(max.getLeft());
             } else {
-                BSTNode temp = getMaxNode(node.getLeft());
-                node.setData(temp.getData());
-                node.setLeft(removeByKey(node.getLeft(), temp.getData().getKey(), deletedValue));
+                parent.setRight(max.getLeft());
             }
+            replacement = retrace(base);
         }
 
-        return node;
+        if (base == 0) {
+            this.root = replacement;
+        } else {
+            relink(path.get(base - 1), node, replacement);
+        }
+        this.root = retrace(0);
     }
 
     /**
-     * Helper method to remove a node by key-value pair.
+     * Helper method to rebalance the recorded path bottom-up, from the deepest node
+     * up to {@code path[from]}, relinking any subtree whose root changed.
+     * The path is truncated to {@code from} entries.
      *
-     * @param node  The current node.
-     * @param key   The key to be removed.
-     * @param value The value to be removed.
-     * @return The updated node.
+     * @param from Index of the shallowest path entry to rebalance.
+     * @return The (possibly new) root of the subtree at {@code path[from]}.
      */
-    private BSTNode removeByKeyValue(BSTNode node, K key, V value) {
-        if (node == null) return null;
-
-        if (key.compareTo(node.getData().getKey()) < 0) {
-            node.setLeft(removeByKeyValue(node.getLeft(), key, value));
-        } else if (key.compareTo(node.getData().getKey()) > 0) {
-            node.setRight(removeByKeyValue(node.getRight(), key, value));
-        } else {
-            if (node.getData().getValue().equals(value)) {
-                if (node.getLeft() == null && node.getRight() == null) {
-                    return null;
-                } else if (node.getLeft() == null) {
-                    return node.getRight();
-                } else if (node.getRight() == null) {
-                    return node.getLeft();
-                } else {
-                    BSTNode temp = getMaxNode(node.getLeft());
-                    node.setData(temp.getData());
-                    node.setLeft(removeByKeyValue(node.getLeft(), temp.getData().getKey(), temp.getData().getValue()));
-                }
+    private BSTNode retrace(int from) {
+        BSTNode top = from == 0 ? this.root : path.get(from);
+        for (int i = path.size() - 1; i >= from; i--) {
+            BSTNode node = path.get(i);
+            BSTNode subtree = rebalance(node);
+            if (i == from) {
+                top = subtree;
+            } else if (subtree != node) {
+                relink(path.get(i - 1), node, subtree);
             }
+        }
+        while (path.size() > from) path.removeLast();
+        return top;
+    }
 
+    /**
+     * Replaces a child of a node.
+     *
+     * @param parent   The parent node.
+     * @param oldChild The child being replaced.
+     * @param newChild The new child.
+     */
+    private void relink(BSTNode parent, BSTNode oldChild, BSTNode newChild) {
+        if (parent.getLeft() == oldChild) {
+            parent.setLeft(newChild);
+        } else {
+            parent.setRight(newChild);
         }
-        return node;
     }
 
     /**
      * Helper method to print the tree.
+     * Traverses right subtree, node, left subtree with an explicit stack. Entries to
+     * print are stored with a negative level, entries to expand with a non-negative one.
      *
-     * @param node  The current node.
-     * @param level The current level in the tree.
+     * @param start The root node of the tree.
+     * @param out   The sink the tree is written to.
      */
-    private void dump(BSTNode node, int level) {
-        if (node == null) {
-            for (int i = 0; i < level; i++) {
-                System.out.print("  ");
+    private void dump(BSTNode start, OutputSink out) {
+        List<BSTNode> pending = new ArrayList<>();
+        int[] levels = new int[16];
+        pending.add(start);
+        while (!pending.isEmpty()) {
+            int level = levels[pending.size() - 1];
+            BSTNode node = pending.removeLast();
+
+            if (level < 0) {
+                printIndent(-level - 1, out);
+                out.println(String.valueOf(node.data.getKey()));
+                continue;
             }
-            System.out.println("null");
-            return;
+            if (node == null) {
+                printIndent(level, out);
+                out.println("null");
+                continue;
+            }
+
+            if (levels.length < pending.size() + 3) {
+                levels = Arrays.copyOf(levels, levels.length * 2);
+            }
+            // Pushed in reverse: the right subtree is printed first
+            levels[pending.size()] = level + 1;
+            pending.add(node.getLeft());
+            levels[pending.size()] = -level - 1;
+            pending.add(node);
+            levels[pending.size()] = level + 1;
+            pending.add(node.getRight());
         }
+    }
 
-        dump(node.getRight(), level + 1);
+    /**
+     * Prints the indentation for a tree level.
+     *
+     * @param level The level in the tree.
+     * @param out   The sink the indentation is written to.
+     */
+    private void printIndent(int level, OutputSink out) {
         for (int i = 0; i < level; i++) {
-            System.out.print("  ");
+            out.print("  ");
         }
-        System.out.println(node.data.getKey());
-
-        dump(node.getLeft(), level + 1);
-
     }
 
     /**
-     * Helper method to find the maximum value node in a subtree.
+     * Returns the height of a subtree.
      *
      * @param node The root node of the subtree.
-     * @return THe maximum value node.
+     * @return The height, or 0 for an empty subtree.
+     */
+    private int height(BSTNode node) {
+        return node == null ? 0 : node.getHeight();
+    }
+
+    /**
+     * Helper method to refresh a node's height and, in balanced mode,
+     * restore the AVL property with single or double rotations.
+     *
+     * @param node The node to rebalance.
+     * @return The root of the rebalanced subtree.
      */
-    private BSTNode getMaxNode(BSTNode node) {
-        while (node.getRight() != null) {
-            node = node.getRight();
+    private BSTNode rebalance(BSTNode node) {
+        updateHeight(node);
+        if (!balanced) return node;
+
+        int balance = height(node.getLeft()) - height(node.getRight());
+        if (balance > 1) {
+            // Left-heavy: a left-right case first becomes a left-left case
+            if (height(node.getLeft().getLeft()) < height(node.getLeft().getRight())) {
+                node.setLeft(rotateLeft(node.getLeft()));
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            // Right-heavy: a right-left case first becomes a right-right case
+            if (height(node.getRight().getRight()) < height(node.getRight().getLeft())) {
+                node.setRight(rotateRight(node.getRight()));
+            }
+            return rotateLeft(node);
         }
         return node;
     }
+
+    /**
+     * Rotates a subtree to the right.
+     *
+     * @param node The root of the subtree.
+     * @return The new root of the subtree.
+     */
+    private BSTNode rotateRight(BSTNode node) {
+        BSTNode pivot = node.getLeft();
+        node.setLeft(pivot.getRight());
+        pivot.setRight(node);
+        updateHeight(node);
+        updateHeight(pivot);
+        return pivot;
+    }
+
+    /**
+     * Rotates a subtree to the left.
+     *
+     * @param node The root of the subtree.
+     * @return The new root of the subtree.
+     */
+    private BSTNode rotateLeft(BSTNode node) {
+        BSTNode pivot = node.getRight();
+        node.setRight(pivot.getLeft());
+        pivot.setLeft(node);
+        updateHeight(node);
+        updateHeight(pivot);
+        return pivot;
+    }
+
+    /**
+     * Recomputes the height of a node from its children.
+     *
+     * @param node The node to update.
+     */
+    private void updateHeight(BSTNode node) {
+        node.setHeight(1 + Math.max(height(node.getLeft()), height(node.getRight())));
+    }
 }
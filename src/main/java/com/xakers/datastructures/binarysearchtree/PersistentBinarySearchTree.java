@@ -0,0 +1,627 @@
+package main.java.com.xakers.datastructures.binarysearchtree;
+
+import main.java.com.xakers.io.OutputSink;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A persistent (immutable) variant of {@link BinarySearchTree}, kept height-balanced (AVL).
+ * <p>
+ * Nodes are never modified once built. An update copies only the nodes on the path it
+ * touches, O(log n) of them, and shares every other subtree with the previous version.
+ * The new version is published by a compare-and-set on a single atomic reference, so
+ * concurrent writers retry instead of locking, and a reader holding a {@link Snapshot}
+ * keeps a consistent tree for as long as it likes with no locking at all. Old versions
+ * cost memory only while a snapshot still refers to them.
+ * <p>
+ * Duplicate keys are allowed and go left. The same updates build the same shape as a
+ * balanced {@link BinarySearchTree}, so searches, visited-node counts and dumps agree
+ * with it. Updates recurse along the path, which the balancing keeps O(log n) deep;
+ * reads are iterative.
+ *
+ * @param <K> Type of keys in the tree (must be Comparable)
+ * @param <V> Type of values associated with the keys
+ * @author Xavier Akers
+ * @version 2026-10-16
+ * @since 2026-10-16
+ */
+public class PersistentBinarySearchTree<K extends Comparable<K>, V> {
+    private static final class Node<K, V> {
+        private final K key;        // Key held in the node
+        private final V value;      // Value held in the node
+        private final Node<K, V> left;  // Left child node
+        private final Node<K, V> right; // Right child node
+        private final int height;   // Height of the subtree rooted at this node
+
+        /**
+         * Constructor to create a new node over two existing subtrees.
+         *
+         * @param key   The key for the new node
+         * @param value The value for the new node
+         * @param left  The left subtree, shared with other versions
+         * @param right The right subtree, shared with other versions
+         */
+        private Node(K key, V value, Node<K, V> left, Node<K, V> right) {
+            this.key = key;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.height = 1 + Math.max(height(left), height(right));
+        }
+    }
+
+    /**
+     * One immutable version of the tree. A snapshot never changes, whatever updates the
+     * tree receives afterwards, and may be read from any number of threads.
+     *
+     * @param <K> Type of keys in the tree
+     * @param <V> Type of values associated with the keys
+     */
+    public static final class Snapshot<K extends Comparable<K>, V> {
+        private final Node<K, V> root;  // Root of this version
+        private final int numNodes;     // Number of nodes in this version
+
+        /**
+         * Constructs a snapshot.
+         *
+         * @param root     The root of the version.
+         * @param numNodes The number of nodes in the version.
+         */
+        private Snapshot(Node<K, V> root, int numNodes) {
+            this.root = root;
+            this.numNodes = numNodes;
+        }
+
+        /**
+         * Searches for a value associated with the given key.
+         *
+         * @param key The key to search for
+         * @return The value associated with the key, or null if the key is not found.
+         */
+        public V search(K key) {
+            Node<K, V> node = this.root;
+            while (node != null) {
+                int cmp = key.compareTo(node.key);
+                if (cmp == 0) return node.value;
+                node = cmp < 0 ? node.left : node.right;
+            }
+            return null;
+        }
+
+        /**
+         * Searches for all values within the specified range of keys, in key order.
+         * Each subtree the search descends into (including empty ones) counts as one
+         * visited node.
+         *
+         * @param low   The lower bound of the range (inclusive).
+         * @param high  The upper bound of the range (inclusive).
+         * @param count An array used to count the number of nodes visited during the search.
+         * @return A list of values within the specified range.
+         */
+        public List<V> search(K low, K high, int[] count) {
+            List<V> results = new ArrayList<>();
+            List<Node<K, V>> path = new ArrayList<>();
+            count[0] = 0;
+            Node<K, V> node = this.root;
+            boolean descending = true;
+            while (true) {
+                if (descending) {
+                    count[0]++;
+                    if (node == null) {
+                        if (path.isEmpty()) return results;
+                        node = path.removeLast();
+                    } else if (node.key.compareTo(low) >= 0) {
+                        // Traverse left if left subtree may have keys >= low
+                        path.add(node);
+                        node = node.left;
+                        continue;
+                    }
+                }
+
+                // If current key is within range
+                if (node.key.compareTo(low) >= 0 && node.key.compareTo(high) <= 0) {
+                    results.add(node.value);
+                }
+
+                // Traverse right if right subtree may have keys <= high
+                if (node.key.compareTo(high) <= 0) {
+                    node = node.right;
+                    descending = true;
+                } else {
+                    if (path.isEmpty()) return results;
+                    node = path.removeLast();
+                    descending = false;
+                }
+            }
+        }
+
+        /**
+         * Searches for all values associated with the given key, returning duplicates if any.
+         *
+         * @param key The key to search for.
+         * @return A list of values associated with the key.
+         */
+        public List<V> multiSearch(K key) {
+            List<V> results = new ArrayList<>();
+            List<Node<K, V>> path = new ArrayList<>();
+            Node<K, V> node = this.root;
+            while (node != null || !path.isEmpty()) {
+                while (node != null) {
+                    if (key.compareTo(node.key) > 0) {
+                        // Node and its left subtree are smaller than the key
+                        node = node.right;
+                        continue;
+                    }
+                    path.add(node);
+                    node = node.left;
+                }
+                if (path.isEmpty()) break;
+                node = path.removeLast();
+
+                int cmp = key.compareTo(node.key);
+                if (cmp == 0) {
+                    results.add(node.value);
+                }
+
+                // Right subtree can only hold the key if it is not smaller than this node's key
+                node = cmp == 0 ? node.right : null;
+            }
+            return results;
+        }
+
+        /**
+         * Appends every key and value of the snapshot to two lists, in key order.
+         *
+         * @param keys   The list the keys are appended to.
+         * @param values The list the values are appended to, parallel to {@code keys}.
+         */
+        public void entries(List<K> keys, List<V> values) {
+            List<Node<K, V>> path = new ArrayList<>();
+            Node<K, V> node = this.root;
+            while (node != null || !path.isEmpty()) {
+                while (node != null) {
+                    path.add(node);
+                    node = node.left;
+                }
+                node = path.removeLast();
+                keys.add(node.key);
+                values.add(node.value);
+                node = node.right;
+            }
+        }
+
+        /**
+         * Returns the number of records in the snapshot.
+         *
+         * @return The number of records.
+         */
+        public int size() {
+            return numNodes;
+        }
+
+        /**
+         * Returns the height of the snapshot (0 for an empty tree).
+         *
+         * @return The height of the tree.
+         */
+        public int height() {
+            return PersistentBinarySearchTree.height(root);
+        }
+
+        /**
+         * Prints the entire tree structure in the format of {@link BinarySearchTree#dump}.
+         *
+         * @param out The sink the tree is written to.
+         */
+        public void dump(OutputSink out) {
+            if (root == null) {
+                out.println("This tree is empty");
+                return;
+            }
+
+            // Right subtree, node, left subtree; entries to print carry a negative level
+            List<Node<K, V>> stack = new ArrayList<>();
+            int[] levels = new int[16];
+            stack.add(root);
+            while (!stack.isEmpty()) {
+                int level = levels[stack.size() - 1];
+                Node<K, V> node = stack.removeLast();
+
+                if (level < 0) {
+                    printIndent(-level - 1, out);
+                    out.println(String.valueOf(node.key));
+                    continue;
+                }
+                if (node == null) {
+                    printIndent(level, out);
+                    out.println("null");
+                    continue;
+                }
+
+                if (levels.length < stack.size() + 3) {
+                    levels = Arrays.copyOf(levels, levels.length * 2);
+                }
+                levels[stack.size()] = level + 1;
+                stack.add(node.left);
+                levels[stack.size()] = -level - 1;
+                stack.add(node);
+                levels[stack.size()] = level + 1;
+                stack.add(node.right);
+            }
+            out.print("Number of records: ");
+            out.print(numNodes);
+            out.print("\n");
+        }
+
+        /**
+         * Prints the indentation for a tree level.
+         *
+         * @param level The level in the tree.
+         * @param out   The sink the indentation is written to.
+         */
+        private static void printIndent(int level, OutputSink out) {
+            for (int i = 0; i < level; i++) {
+                out.print("  ");
+            }
+        }
+    }
+
+    private final AtomicReference<Snapshot<K, V>> current; // Latest published version
+
+    /**
+     * Constructs an empty tree.
+     */
+    public PersistentBinarySearchTree() {
+        this.current = new AtomicReference<>(new Snapshot<>(null, 0));
+    }
+
+    /**
+     * Builds a perfectly balanced tree, bottom-up, from key-value pairs already in key order.
+     *
+     * @param keys   The keys in ascending order.
+     * @param values The values, parallel to {@code keys}.
+     * @param <K>    Type of keys in the tree
+     * @param <V>    Type of values associated with the keys
+     * @return The new tree.
+     */
+    public static <K extends Comparable<K>, V> PersistentBinarySearchTree<K, V> fromSorted(List<K> keys,
+                                                                                         List<V> values) {
+        if (keys.size() != values.size()) {
+            throw new IllegalArgumentException("error: keys and values must have the same length.");
+        }
+
+        PersistentBinarySearchTree<K, V> tree = new PersistentBinarySearchTree<>();
+        tree.current.set(new Snapshot<>(build(keys, values, 0, keys.size() - 1), keys.size()));
+        return tree;
+    }
+
+    /**
+     * Returns the current version of the tree. The snapshot is unaffected by later updates.
+     *
+     * @return The current snapshot.
+     */
+    public Snapshot<K, V> snapshot() {
+        return current.get();
+    }
+
+    /**
+     * Inserts a new key-value pair into the tree.
+     * This method does not ensure uniqueness; duplicate keys are allowed.
+     *
+     * @param key   The key to be inserted.
+     * @param value The value associated with the key.
+     */
+    public void insert(K key, V value) {
+        update(key, value, false);
+    }
+
+    /**
+     * Inserts a new key-value pair into the tree, ensuring uniqueness.
+     * If the key already exists, it will not be inserted again.
+     *
+     * @param key   The key to be inserted.
+     * @param value The value associated with the key.
+     * @return True if the node was successfully inserted, false if the key already exists.
+     */
+    public boolean insertUnique(K key, V value) {
+        return update(key, value, true);
+    }
+
+    /**
+     * Removes a node with the specified key from the tree.
+     *
+     * @param key The key of the node to be removed.
+     * @return The value of the removed node, or null if the key is not found.
+     */
+    public V remove(K key) {
+        while (true) {
+            Snapshot<K, V> version = current.get();
+            V removed = version.search(key);
+            if (removed == null) return null;
+
+            Node<K, V> root = removeKey(version.root, key);
+            if (current.compareAndSet(version, new Snapshot<>(root, version.numNodes - 1))) {
+                return removed;
+            }
+        }
+    }
+
+    /**
+     * Removes a specific key-value pair from the tree.
+     * Used for when there are duplicate keys in the tree.
+     *
+     * @param key   The key to be removed.
+     * @param value The value to be removed.
+     */
+    public void remove(K key, V value) {
+        while (true) {
+            Snapshot<K, V> version = current.get();
+            Node<K, V> root = removeKeyValue(version.root, key, value);
+            if (root == version.root) return;
+
+            if (current.compareAndSet(version, new Snapshot<>(root, version.numNodes - 1))) return;
+        }
+    }
+
+    /**
+     * Searches the current version for a value associated with the given key.
+     *
+     * @param key The key to search for
+     * @return The value associated with the key, or null if the key is not found.
+     */
+    public V search(K key) {
+        return snapshot().search(key);
+    }
+
+    /**
+     * Searches the current version for all values within the specified range of keys.
+     *
+     * @param low   The lower bound of the range (inclusive).
+     * @param high  The upper bound of the range (inclusive).
+     * @param count An array used to count the number of nodes visited during the search.
+     * @return A list of values within the specified range.
+     */
+    public List<V> search(K low, K high, int[] count) {
+        return snapshot().search(low, high, count);
+    }
+
+    /**
+     * Searches the current version for all values associated with the given key.
+     *
+     * @param key The key to search for.
+     * @return A list of values associated with the key.
+     */
+    public List<V> multiSearch(K key) {
+        return snapshot().multiSearch(key);
+    }
+
+    /**
+     * Returns the number of records in the current version.
+     *
+     * @return The number of records.
+     */
+    public int size() {
+        return snapshot().size();
+    }
+
+    /**
+     * Returns the height of the current version (0 for an empty tree).
+     *
+     * @return The height of the tree.
+     */
+    public int height() {
+        return snapshot().height();
+    }
+
+    /**
+     * Prints the current version of the tree.
+     *
+     * @param out The sink the tree is written to.
+     */
+    public void dump(OutputSink out) {
+        snapshot().dump(out);
+    }
+
+    // ----------------------------------------------------------
+    // Private Helper Methods
+    // ----------------------------------------------------------
+
+    /**
+     * Helper method to insert a key-value pair and publish the new version,
+     * retrying if another writer published first.
+     *
+     * @param key    The key to be inserted.
+     * @param value  The value to be inserted.
+     * @param unique Whether an existing equal key prevents the insert.
+     * @return True if the node was inserted.
+     */
+    private boolean update(K key, V value, boolean unique) {
+        while (true) {
+            Snapshot<K, V> version = current.get();
+            Node<K, V> root = insert(version.root, key, value, unique);
+            if (root == null) return false;
+
+            if (current.compareAndSet(version, new Snapshot<>(root, version.numNodes + 1))) return true;
+        }
+    }
+
+    /**
+     * Helper method to insert into a subtree by copying the path to the new leaf.
+     * Duplicates go left unless {@code unique} is set.
+     *
+     * @param node   The root of the subtree.
+     * @param key    The key to be inserted.
+     * @param value  The value to be inserted.
+     * @param unique Whether an existing equal key aborts the insert.
+     * @return The root of the new subtree, or null if the insert was aborted.
+     */
+    private static <K extends Comparable<K>, V> Node<K, V> insert(Node<K, V> node, K key, V value,
+                                                                  boolean unique) {
+        if (node == null) return new Node<>(key, value, null, null);
+
+        int cmp = key.compareTo(node.key);
+        if (unique && cmp == 0) return null;
+
+        if (cmp <= 0) {
+            Node<K, V> left = insert(node.left, key, value, unique);
+            return left == null ? null : balance(node.key, node.value, left, node.right);
+        }
+        Node<K, V> right = insert(node.right, key, value, unique);
+        return right == null ? null : balance(node.key, node.value, node.left, right);
+    }
+
+    /**
+     * Helper method to remove the first node holding a key met on the way down.
+     * The key must be present.
+     *
+     * @param node The root of the subtree.
+     * @param key  The key to be removed.
+     * @return The root of the new subtree.
+     */
+    private static <K extends Comparable<K>, V> Node<K, V> removeKey(Node<K, V> node, K key) {
+        int cmp = key.compareTo(node.key);
+        if (cmp == 0) return removeNode(node);
+        if (cmp < 0) return balance(node.key, node.value, removeKey(node.left, key), node.right);
+        return balance(node.key, node.value, node.left, removeKey(node.right, key));
+    }
+
+    /**
+     * Helper method to remove a node holding a key-value pair. Rotations can move
+     * duplicate keys to the right, so both sides of an equal key are explored.
+     *
+     * @param node  The root of the subtree.
+     * @param key   The key to be removed.
+     * @param value The value to be removed.
+     * @return The root of the new subtree, or {@code node} itself if there is no such pair.
+     */
+    private static <K extends Comparable<K>, V> Node<K, V> removeKeyValue(Node<K, V> node, K key, V value) {
+        if (node == null) return null;
+
+        int cmp = key.compareTo(node.key);
+        if (cmp == 0 && node.value.equals(value)) return removeNode(node);
+
+        if (cmp <= 0) {
+            Node<K, V> left = removeKeyValue(node.left, key, value);
+            if (left != node.left) return balance(node.key, node.value, left, node.right);
+        }
+        if (cmp >= 0) {
+            Node<K, V> right = removeKeyValue(node.right, key, value);
+            if (right != node.right) return balance(node.key, node.value, node.left, right);
+        }
+        return node;
+    }
+
+    /**
+     * Helper method to remove the root of a subtree. A node with two children is
+     * replaced by a copy of its in-order predecessor.
+     *
+     * @param node The node being removed.
+     * @return The root of the new subtree.
+     */
+    private static <K extends Comparable<K>, V> Node<K, V> removeNode(Node<K, V> node) {
+        if (node.left == null) return node.right;
+        if (node.right == null) return node.left;
+
+        Node<K, V> max = node.left;
+        while (max.right != null) {
+            max = max.right;
+        }
+        return balance(max.key, max.value, removeMax(node.left), node.right);
+    }
+
+    /**
+     * Helper method to remove the maximum node of a subtree.
+     *
+     * @param node The root of the subtree.
+     * @return The root of the new subtree.
+     */
+    private static <K extends Comparable<K>, V> Node<K, V> removeMax(Node<K, V> node) {
+        if (node.right == null) return node.left;
+        return balance(node.key, node.value, node.left, removeMax(node.right));
+    }
+
+    /**
+     * Helper method to build a balanced subtree from a sorted range, taking the middle as root.
+     *
+     * @param keys   The keys in ascending order.
+     * @param values The values, parallel to {@code keys}.
+     * @param from   The first index of the range (inclusive).
+     * @param to     The last index of the range (inclusive).
+     * @return The root of the subtree, or null for an empty range.
+     */
+    private static <K extends Comparable<K>, V> Node<K, V> build(List<K> keys, List<V> values, int from, int to) {
+        if (from > to) return null;
+
+        int mid = (from + to) >>> 1;
+        return new Node<>(keys.get(mid), values.get(mid),
+                build(keys, values, from, mid - 1), build(keys, values, mid + 1, to));
+    }
+
+    /**
+     * Helper method to build a node over two subtrees whose heights differ by at most
+     * two, restoring the AVL property with single or double rotations.
+     *
+     * @param key   The key of the node.
+     * @param value The value of the node.
+     * @param left  The left subtree.
+     * @param right The right subtree.
+     * @return The root of the balanced subtree.
+     */
+    private static <K, V> Node<K, V> balance(K key, V value, Node<K, V> left, Node<K, V> right) {
+        int balance = height(left) - height(right);
+        if (balance > 1) {
+            // Left-heavy: a left-right case first becomes a left-left case
+            if (height(left.left) < height(left.right)) {
+                left = rotateLeft(left.key, left.value, left.left, left.right);
+            }
+            return rotateRight(key, value, left, right);
+        }
+        if (balance < -1) {
+            // Right-heavy: a right-left case first becomes a right-right case
+            if (height(right.right) < height(right.left)) {
+                right = rotateRight(right.key, right.value, right.left, right.right);
+            }
+            return rotateLeft(key, value, left, right);
+        }
+        return new Node<>(key, value, left, right);
+    }
+
+    /**
+     * Builds a node and rotates it to the right.
+     *
+     * @param key   The key of the node.
+     * @param value The value of the node.
+     * @param left  The left subtree, whose root becomes the new root.
+     * @param right The right subtree.
+     * @return The new root of the subtree.
+     */
+    private static <K, V> Node<K, V> rotateRight(K key, V value, Node<K, V> left, Node<K, V> right) {
+        return new Node<>(left.key, left.value, left.left, new Node<>(key, value, left.right, right));
+    }
+
+    /**
+     * Builds a node and rotates it to the left.
+     *
+     * @param key   The key of the node.
+     * @param value The value of the node.
+     * @param left  The left subtree.
+     * @param right The right subtree, whose root becomes the new root.
+     * @return The new root of the subtree.
+     */
+    private static <K, V> Node<K, V> rotateLeft(K key, V value, Node<K, V> left, Node<K, V> right) {
+        return new Node<>(right.key, right.value, new Node<>(key, value, left, right.left), right.right);
+    }
+
+    /**
+     * Returns the height of a subtree.
+     *
+     * @param node The root node of the subtree.
+     * @return The height, or 0 for an empty subtree.
+     */
+    private static int height(Node<?, ?> node) {
+        return node == null ? 0 : node.height;
+    }
+}
@@ -1,11 +1,13 @@
 package main.java.com.xakers.datastructures.bintree;
 
+import main.java.com.xakers.io.OutputSink;
+
 /**
  * Represents an empty node in a BinTree using the Flyweight design pattern.
  * This class is a singleton, ensuring only one instance exists
  *
  * @author Xavier Akers
- * @version 2025-01-07
+ * @version 2026-10-16
  * @since 2025-01-07
  */
 public class BTEmptyNode implements BTNode {
@@ -41,9 +43,11 @@ public class BTEmptyNode implements BTNode {
 
     /**
      * Prints a representation of the empty node
+     *
+     * @param out The sink the representation is written to
      */
     @Override
-    public void print() {
-        System.out.println("E");
+    public void print(OutputSink out) {
+        out.println("E");
     }
 }
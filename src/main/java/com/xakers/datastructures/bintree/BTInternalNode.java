@@ -1,12 +1,14 @@
 package main.java.com.xakers.datastructures.bintree;
 
+import main.java.com.xakers.io.OutputSink;
+
 /**
  * Represents an internal node in composite BinTree
  * This class implements the {@code BTNode} interface and provides
  * methods to manage left and right child nodes
  *
  * @author Xavier Akers
- * @version 2025-01-07
+ * @version 2026-10-16
  * @since 2025-01-07
  */
 public class BTInternalNode implements BTNode {
@@ -73,9 +75,11 @@ public class BTInternalNode implements BTNode {
 
     /**
      * Prints a representation of the internal node
+     *
+     * @param out The sink the representation is written to
      */
     @Override
-    public void print() {
-        System.out.println("I");
+    public void print(OutputSink out) {
+        out.println("I");
     }
 }
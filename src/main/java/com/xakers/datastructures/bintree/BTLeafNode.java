@@ -1,89 +1,175 @@
 package main.java.com.xakers.datastructures.bintree;
 
+import main.java.com.xakers.io.OutputSink;
+
+import java.util.Arrays;
+
 /**
  * Represents a leaf node in a spatial binary tree.
- * THis node maintains a linked list of seminar objects,
- * where each seminar is stored as a {@link SeminarNode}.
+ * This node stores its seminars in arrays sorted by seminar ID: the IDs and
+ * coordinates as primitives. IDs are located by binary search, and coordinate
+ * scans run over contiguous memory. The arrays grow by doubling. The node holds
+ * no references to the seminars themselves; callers resolve IDs to records.
  * <p>
  * This class supported adding, removing, and printing seminars,
  * as well as checking if the node is empty.
+ * <p>
+ * The seminars of a leaf may sit at several distinct coordinates (points); the
+ * leaf keeps a sorted table of its points with the number of seminars at each, so
+ * the tree can decide when a bucket is full, and inserts and removals find a point
+ * by binary search instead of rescanning the seminars.
  *
  * @author Xavier Akers
- * @version 2025-01-08
+ * @version 2026-10-16
  * @since 2025-01-05
  */
 public class BTLeafNode implements BTNode {
+    private static final int INITIAL_CAPACITY = 2;
 
-    private SeminarNode head;
+    private int[] ids;          // Seminar IDs in ascending order
+    private short[] xs;         // X-coordinates, parallel to ids
+    private short[] ys;         // Y-coordinates, parallel to ids
+    private int size;           // Number of seminars stored
+    private int[] pointKeys;    // Distinct coordinates in ascending order, as packed x/y pairs
+    private int[] pointCounts;  // Number of seminars at each point, parallel to pointKeys
+    private int points;         // Number of distinct coordinates stored
 
     /**
-     * Constructs a new leaf node with an initial SeminarNode.
+     * Constructs a new leaf node with an initial seminar.
      *
-     * @param seminarNode The SeminarNode to initialize the leaf node with.
+     * @param id The ID of the seminar to initialize the leaf node with.
+     * @param x  The x-coordinate of the seminar.
+     * @param y  The y-coordinate of the seminar.
      */
-    public BTLeafNode(SeminarNode seminarNode) {
-        this.head = seminarNode;
+    public BTLeafNode(int id, int x, int y) {
+        this.ids = new int[INITIAL_CAPACITY];
+        this.xs = new short[INITIAL_CAPACITY];
+        this.ys = new short[INITIAL_CAPACITY];
+        set(0, id, x, y);
+        this.size = 1;
+        this.pointKeys = new int[]{pointKey(x, y), 0};
+        this.pointCounts = new int[]{1, 0};
+        this.points = 1;
     }
 
     /**
-     * Add seminar to the linked list as this leaf node.
-     * The SeminarNodes are inserted in ascending order of their IDs.
+     * Constructs a new leaf node from a range of packed entries sorted by ID.
      *
-     * @param seminarNode The SeminarNode to add.
+     * @param sorted The entries, as packed by {@link Regions#pack}, sorted within the range.
+     * @param from   The first index of the range (inclusive).
+     * @param to     The last index of the range (exclusive); the range must not be empty.
      */
-    public void add(SeminarNode seminarNode) {
-        SeminarNode curr = this.head;
-        SeminarNode prev = null;
-
-        // Traverse the linked list to find the appropriate position
-        while (curr != null && seminarNode.getSeminar().id() > curr.getSeminar().id()) {
-            prev = curr;
-            curr = curr.getNext();
+    BTLeafNode(long[] sorted, int from, int to) {
+        int capacity = Math.max(INITIAL_CAPACITY, to - from);
+        this.ids = new int[capacity];
+        this.xs = new short[capacity];
+        this.ys = new short[capacity];
+        for (int i = from; i < to; i++) {
+            set(i - from, Regions.id(sorted[i]), Regions.x(sorted[i]), Regions.y(sorted[i]));
         }
+        this.size = to - from;
+        countPoints();
+    }
 
-        // Insert the node in the correct position
-        if (prev == null) {
-            seminarNode.setNext(head);
-            head = seminarNode;
-        } else {
-            prev.setNext(seminarNode);
-            seminarNode.setNext(curr);
+    /**
+     * Adds a seminar to this leaf node.
+     * The seminars are kept in ascending order of their IDs.
+     *
+     * @param id The ID of the seminar to add.
+     * @param x  The x-coordinate of the seminar.
+     * @param y  The y-coordinate of the seminar.
+     */
+    public void add(int id, int x, int y) {
+        addPoint(pointKey(x, y));
+
+        // Insert before the first seminar whose ID is not smaller
+        int pos = lowerBound(id);
+        if (size == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
         }
+        shift(pos, pos + 1, size - pos);
+        set(pos, id, x, y);
+        size++;
     }
 
     /**
-     * Removes a SeminarNode with the specified key (ID) from the linked list.
+     * Removes a seminar with the specified key (ID) from this leaf node.
      *
      * @param key The ID of the seminar to remove.
      * @return {@code true} if the seminar was found and removed, {@code false} otherwise.
      */
     public boolean remove(int key) {
-        SeminarNode curr = this.head;
-        SeminarNode prev = null;
-
-        // Traverse the list to find the node with the matching key
-        while (curr != null) {
-            if (curr.getSeminar().id() == key) {
-                if (prev == null) {
-                    this.head = curr.getNext(); // Remove head node;
-                } else {
-                    prev.setNext(curr.getNext());
-                }
-                return true;
-            }
-            prev = curr;
-            curr = curr.getNext();
-        }
-        return false;
+        int pos = lowerBound(key);
+        if (pos == size || ids[pos] != key) return false;
+
+        int x = xs[pos];
+        int y = ys[pos];
+        shift(pos + 1, pos, size - pos - 1);
+        size--;
+        removePoint(pointKey(x, y));
+        return true;
+    }
+
+    /**
+     * Returns the number of seminars in this leaf node.
+     *
+     * @return The number of seminars.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the ID of a seminar of this leaf node by position; positions follow ID order.
+     *
+     * @param index The position, in [0, size()).
+     * @return The seminar ID.
+     */
+    public int getId(int index) {
+        return this.ids[index];
     }
 
     /**
-     * Returns the head of the linked list in this leaf node.
+     * Returns the x-coordinate of a seminar of this leaf node by position.
      *
-     * @return The head SeminarNode.
+     * @param index The position, in [0, size()).
+     * @return The x-coordinate.
      */
-    public SeminarNode getHead() {
-        return this.head;
+    public int getX(int index) {
+        return this.xs[index];
+    }
+
+    /**
+     * Returns the y-coordinate of a seminar of this leaf node by position.
+     *
+     * @param index The position, in [0, size()).
+     * @return The y-coordinate.
+     */
+    public int getY(int index) {
+        return this.ys[index];
+    }
+
+    /**
+     * Returns the number of distinct coordinates held by this leaf node.
+     *
+     * @return The number of points.
+     */
+    public int getPoints() {
+        return this.points;
+    }
+
+    /**
+     * Checks whether a seminar in this leaf node lies at the given coordinate.
+     *
+     * @param x The x-coordinate.
+     * @param y The y-coordinate.
+     * @return {@code true} if the coordinate is held by this leaf.
+     */
+    public boolean containsPoint(int x, int y) {
+        return Arrays.binarySearch(pointKeys, 0, points, pointKey(x, y)) >= 0;
     }
 
     /**
@@ -92,7 +178,7 @@ public class BTLeafNode implements BTNode {
      * @return {@code true} if the node is empty, {@code false} otherwise.
      */
     public boolean isEmpty() {
-        return this.head == null;
+        return this.size == 0;
     }
 
     /**
@@ -108,18 +194,145 @@ public class BTLeafNode implements BTNode {
     /**
      * Prints the details of all seminars stored in this leaf node.
      * The output includes the number of seminars and their IDs.
+     *
+     * @param out The sink the details are written to.
      */
     @Override
-    public void print() {
-        SeminarNode curr = this.head;
-
-        StringBuilder str = new StringBuilder();
-        int count = 0;
-        while (curr != null) {
-            str.append(" ").append(curr.getSeminar().id());
-            curr = curr.getNext();
-            count++;
+    public void print(OutputSink out) {
+        out.print("Leaf with ");
+        out.print(size);
+        out.print(" objects: ");
+        for (int i = 0; i < size; i++) {
+            out.print(" ");
+            out.print(ids[i]);
+        }
+        out.print("\n");
+    }
+
+    // ----------------------------------------------------------
+    // Private Helper Methods
+    // ----------------------------------------------------------
+
+    /**
+     * Finds the first position whose ID is not smaller than a key.
+     *
+     * @param key The ID to look for.
+     * @return The position, in [0, size].
+     */
+    private int lowerBound(int key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ids[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Stores a seminar at a position of the parallel arrays.
+     *
+     * @param index The position.
+     * @param id    The seminar ID.
+     * @param x     The x-coordinate.
+     * @param y     The y-coordinate.
+     */
+    private void set(int index, int id, int x, int y) {
+        ids[index] = id;
+        xs[index] = (short) x;
+        ys[index] = (short) y;
+    }
+
+    /**
+     * Moves a run of entries within the parallel arrays.
+     *
+     * @param from   The first position of the run.
+     * @param to     The position the run moves to.
+     * @param length The length of the run.
+     */
+    private void shift(int from, int to, int length) {
+        System.arraycopy(ids, from, ids, to, length);
+        System.arraycopy(xs, from, xs, to, length);
+        System.arraycopy(ys, from, ys, to, length);
+    }
+
+    /**
+     * Packs a coordinate into the key of its point.
+     *
+     * @param x The x-coordinate.
+     * @param y The y-coordinate.
+     * @return The packed point.
+     */
+    private static int pointKey(int x, int y) {
+        return (x << 16) | (y & 0xFFFF);
+    }
+
+    /**
+     * Helper method to count one more seminar at a point, adding the point if it is new.
+     *
+     * @param key The packed point.
+     */
+    private void addPoint(int key) {
+        int pos = Arrays.binarySearch(pointKeys, 0, points, key);
+        if (pos >= 0) {
+            pointCounts[pos]++;
+            return;
+        }
+
+        pos = -(pos + 1);
+        if (points == pointKeys.length) {
+            pointKeys = Arrays.copyOf(pointKeys, points * 2);
+            pointCounts = Arrays.copyOf(pointCounts, points * 2);
+        }
+        System.arraycopy(pointKeys, pos, pointKeys, pos + 1, points - pos);
+        System.arraycopy(pointCounts, pos, pointCounts, pos + 1, points - pos);
+        pointKeys[pos] = key;
+        pointCounts[pos] = 1;
+        points++;
+    }
+
+    /**
+     * Helper method to count one seminar fewer at a point, dropping the point once no
+     * seminar is left at it.
+     *
+     * @param key The packed point, which must be held by this leaf.
+     */
+    private void removePoint(int key) {
+        int pos = Arrays.binarySearch(pointKeys, 0, points, key);
+        if (--pointCounts[pos] > 0) return;
+
+        System.arraycopy(pointKeys, pos + 1, pointKeys, pos, points - pos - 1);
+        System.arraycopy(pointCounts, pos + 1, pointCounts, pos, points - pos - 1);
+        points--;
+    }
+
+    /**
+     * Builds the point table of this leaf node from its seminars: sorts their packed
+     * coordinates and counts the runs of equal ones.
+     */
+    private void countPoints() {
+        int[] keys = new int[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = pointKey(xs[i], ys[i]);
+        }
+        Arrays.sort(keys);
+
+        int[] counts = new int[Math.max(INITIAL_CAPACITY, size)];
+        int numPoints = 0;
+        for (int i = 0; i < size; i++) {
+            if (numPoints > 0 && keys[numPoints - 1] == keys[i]) {
+                counts[numPoints - 1]++;
+            } else {
+                keys[numPoints] = keys[i];
+                counts[numPoints++] = 1;
+            }
         }
-        System.out.printf("Leaf with %d objects: %s\n", count, str);
+        this.pointKeys = keys.length < INITIAL_CAPACITY ? Arrays.copyOf(keys, INITIAL_CAPACITY) : keys;
+        this.pointCounts = counts;
+        this.points = numPoints;
     }
 }
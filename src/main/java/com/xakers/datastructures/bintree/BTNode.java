@@ -1,5 +1,7 @@
 package main.java.com.xakers.datastructures.bintree;
 
+import main.java.com.xakers.io.OutputSink;
+
 /**
  * Represents a generic node in a binary tree structure.
  * This interface define the basic behavior for both internal nodes
@@ -9,7 +11,7 @@ package main.java.com.xakers.datastructures.bintree;
  * and provide a method to print or format the node's details.
  *
  * @author Xavier Akers
- * @version 2025-01-06
+ * @version 2026-10-16
  * @since 2025-01-06
  */
 public interface BTNode {
@@ -25,6 +27,8 @@ public interface BTNode {
      * Prints or formats the current node's details.
      * Implementing classes should define the specific of how
      * the node's information is presented.
+     *
+     * @param out The sink the details are written to.
      */
-    void print();
+    void print(OutputSink out);
 }
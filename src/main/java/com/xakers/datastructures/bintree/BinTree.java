@@ -1,29 +1,56 @@
 package main.java.com.xakers.datastructures.bintree;
 
-import main.java.com.xakers.model.Seminar;
+import main.java.com.xakers.io.OutputSink;
+import main.java.com.xakers.io.SnapshotReader;
+import main.java.com.xakers.io.SnapshotWriter;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
 
 /**
- * Represents a spatial binary tree for organizing two-dimensional data (assumes Seminar object)
+ * Represents a spatial binary tree for organizing two-dimensional data (seminar IDs)
  * based on coordinates (x, y). The tree alternates splitting by x and y
  * coordinates at each level to partition the space effectively.
  * <p>
  * This implementation supports operations such as insertion, deletion,
- * and searching within the defined spatial boundaries.
+ * radius, rectangle and k-nearest-neighbour queries within the defined spatial boundaries.
+ * <p>
+ * Each node covers a region rectangle. The root covers the whole world
+ * {@code [0, xMax) x [0, yMax)}; an internal node splits its region at the midpoint
+ * {@code x0 + width / 2} (or {@code y0 + height / 2}) into a lower and an upper half.
+ * Because the halves are computed from the region itself, world sizes that are not
+ * powers of two split down to single cells like any other.
+ * <p>
+ * Leaves are buckets: a leaf holds the seminars of up to {@code leafCapacity}
+ * distinct coordinates and only splits when a seminar at a further coordinate
+ * arrives. With the default capacity of 1 each leaf holds a single coordinate.
+ * A larger capacity trades a few more distance checks per leaf for far fewer
+ * internal nodes on dense data.
+ * <p>
+ * Every operation walks the tree iteratively, on a stack of its own instead of
+ * the call stack. Read operations share no state, so searches, dumps and counts
+ * may run concurrently with each other, though not with inserts or removes.
  *
  * @author Xavier Akers
- * @version 2025-01-08
+ * @version 2026-10-16
  * @since 2025-01-06
  */
-public class BinTree {
+public class BinTree implements SpatialIndex {
 
     private BTNode root;    // Root node of the binary tree
     // Shared singleton instance representing an empty node in the tree
     private static final BTNode EMPTY_NODE = BTEmptyNode.getInstance();
     private final int xMax; // Maximum x-coordinate boundary
     private final int yMax; // Maximum y-coordinate boundary
+    private final int leafCapacity; // Maximum number of distinct coordinates per leaf
+
+    private static final int FRAME = 5; // Ints per traversal frame: x0, y0, width, height, level
 
     /**
      * Constructs an empty spatial binary tree with defined boundaries.
@@ -33,371 +60,917 @@ public class BinTree {
      * @param yMax The maximum y-coordinate boundary for the spatial region.
      */
     public BinTree(int xMax, int yMax) {
+        this(xMax, yMax, 1);
+    }
+
+    /**
+     * Constructs an empty spatial binary tree with defined boundaries and leaf capacity.
+     *
+     * @param xMax         The maximum x-coordinate boundary for the spatial region.
+     * @param yMax         The maximum y-coordinate boundary for the spatial region.
+     * @param leafCapacity The maximum number of distinct coordinates a leaf holds before it splits.
+     */
+    public BinTree(int xMax, int yMax, int leafCapacity) {
         if (xMax <= 0 || yMax <= 0) {
             throw new IllegalArgumentException("error: worldSize must be greater than 0.");
         }
+        if (leafCapacity <= 0) {
+            throw new IllegalArgumentException("error: leafCapacity must be greater than 0.");
+        }
         this.root = EMPTY_NODE;
         this.xMax = xMax;
         this.yMax = yMax;
+        this.leafCapacity = leafCapacity;
     }
 
     /**
      * Inserts a seminar into the tree
      *
-     * @param seminar the seminar to insert
+     * @param id the ID of the seminar to insert
+     * @param x  the x-coordinate of the seminar
+     * @param y  the y-coordinate of the seminar
+     * @throws IllegalArgumentException if the seminar lies outside the world
+     */
+    @Override
+    public void insert(int id, int x, int y) {
+        if (!inWorld(x, y)) {
+            throw new IllegalArgumentException("error: seminar outside of world {" + x + ", " + y + "}");
+        }
+        int x0 = 0;
+        int y0 = 0;
+        int width = this.xMax;
+        int height = this.yMax;
+        int level = 0;
+
+        BTInternalNode parent = null;   // Parent of the current node, null at the root
+        boolean left = false;           // Which side of the parent the current node hangs from
+        BTNode node = this.root;
+        while (true) {
+            if (node == EMPTY_NODE) {
+                // If node is empty, make new LeafNode
+                link(parent, left, new BTLeafNode(id, x, y));
+                return;
+            }
+
+            if (node.isLeaf()) {
+                BTLeafNode leafNode = (BTLeafNode) node;
+                // Add to the bucket if it already holds the coordinate or has room for another
+                if (leafNode.getPoints() < this.leafCapacity || leafNode.containsPoint(x, y)) {
+                    leafNode.add(id, x, y);
+                    return;
+                }
+
+                // Convert the full leaf to an internal node, split its seminars one level down
+                // and keep descending with the new seminar from the internal node
+                BTInternalNode internalNode = level % 2 == 0
+                        ? splitLeaf(leafNode, true, x0 + width / 2)
+                        : splitLeaf(leafNode, false, y0 + height / 2);
+                link(parent, left, internalNode);
+                node = internalNode;
+            }
+
+            BTInternalNode internalNode = (BTInternalNode) node;
+            if (level % 2 == 0) { // Vertical split
+                int mid = x0 + width / 2;
+                left = x < mid;
+                width = left ? mid - x0 : x0 + width - mid;
+                x0 = left ? x0 : mid;
+            } else { // Horizontal split
+                int mid = y0 + height / 2;
+                left = y < mid;
+                height = left ? mid - y0 : y0 + height - mid;
+                y0 = left ? y0 : mid;
+            }
+            parent = internalNode;
+            node = left ? internalNode.getLeft() : internalNode.getRight();
+            level++;
+        }
+    }
+
+    /**
+     * Inserts a batch of seminars.
+     * An empty tree is built directly by recursively partitioning the batch around
+     * each region's discriminator, instead of splitting leaves one insert at a time.
+     * The resulting tree is the same as inserting the seminars one by one.
+     * A non-empty tree falls back to individual inserts.
+     * <p>
+     * In parallel mode, large regions are split into fork-join subtasks at each
+     * x/y discriminator; the subtasks run in the current fork-join pool (or the
+     * common pool when called from outside one).
+     *
+     * @param ids      the IDs of the seminars to insert
+     * @param xs       the x-coordinates of the seminars, parallel to ids
+     * @param ys       the y-coordinates of the seminars, parallel to ids
+     * @param parallel whether to build subtrees concurrently
+     * @throws IllegalArgumentException if a seminar lies outside the world
      */
-    public void insertSeminar(Seminar seminar) {
-        SeminarNode seminarNode = new SeminarNode(seminar);
-        root = insert(this.root, seminarNode,
-                this.xMax / 2, this.yMax / 2,
-                this.xMax / 2, this.yMax / 2, 0);
+    @Override
+    public void insertAll(int[] ids, int[] xs, int[] ys, boolean parallel) {
+        if (this.root != EMPTY_NODE) {
+            for (int i = 0; i < ids.length; i++) {
+                insert(ids[i], xs[i], ys[i]);
+            }
+            return;
+        }
+
+        long[] sorted = new long[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            if (!inWorld(xs[i], ys[i])) {
+                throw new IllegalArgumentException("error: seminar outside of world {" + xs[i] + ", " + ys[i] + "}");
+            }
+            sorted[i] = Regions.pack(ids[i], xs[i], ys[i]);
+        }
+        // Leaves keep their seminars in ID order
+        Arrays.sort(sorted);
+
+        BuildTask task = new BuildTask(sorted, 0, sorted.length, 0, 0, this.xMax, this.yMax, 0,
+                this.leafCapacity, parallel);
+        this.root = parallel ? task.invoke() : task.compute();
     }
 
     /**
      * Searches for seminars within a given radius from a point (x, y)
+     * <p>
+     * Each visited node carries its region rectangle. A child whose region does not
+     * intersect the query circle is skipped without being visited; a node whose region
+     * lies entirely inside the circle has all of its seminars accepted without distance
+     * checks. Every node reached, including empty ones, counts as visited.
      *
      * @param x      X-coordinate of query point
      * @param y      Y-coordinate of query point
      * @param radius Search radius
      * @param count  Array to track number of nodes visited
-     * @return List of seminars within the search radius
+     * @return IDs of the seminars within the search radius
      */
-    public List<Seminar> search(int x, int y, int radius, int[] count) {
-        List<Seminar> results = new ArrayList<>();
+    @Override
+    public int[] search(int x, int y, int radius, int[] count) {
+        IdList results = new IdList();
+        long radiusSq = (long) radius * radius;
         count[0] = 0;
-        search(this.root, x, y, radius,
-                xMax / 2, yMax / 2, 0,
-                results, count);
-        return results;
+
+        Traversal stack = new Traversal();
+        stack.push(this.root, 0, 0, this.xMax, this.yMax, 0);
+        while (!stack.isEmpty()) {
+            BTNode node = stack.pop();
+            int frame = FRAME * stack.size;
+            int x0 = stack.frames[frame];
+            int y0 = stack.frames[frame + 1];
+            int width = stack.frames[frame + 2];
+            int height = stack.frames[frame + 3];
+            int level = stack.frames[frame + 4];
+
+            count[0]++; // Increment visited node count
+
+            // Stop if node is empty
+            if (node == EMPTY_NODE) continue;
+
+            // Accept the whole subtree if its region lies inside the circle
+            if (Regions.maxDistanceSq(x, y, x0, y0, width, height) <= radiusSq) {
+                collectSubtree(stack, node, results, count);
+                continue;
+            }
+
+            if (node.isLeaf()) {
+                // Process leaf nodes directly
+                searchLeafNode((BTLeafNode) node, x, y, radiusSq, results);
+                continue;
+            }
+
+            // Children are pushed right first so the left child is visited first
+            BTInternalNode internalNode = (BTInternalNode) node;
+            if (level % 2 == 0) { // Vertical split
+                int mid = x0 + width / 2;
+                if (Regions.minDistanceSq(x, y, mid, y0, x0 + width - mid, height) <= radiusSq)
+                    stack.push(internalNode.getRight(), mid, y0, x0 + width - mid, height, level + 1);
+                if (Regions.minDistanceSq(x, y, x0, y0, mid - x0, height) <= radiusSq)
+                    stack.push(internalNode.getLeft(), x0, y0, mid - x0, height, level + 1);
+            } else { // Horizontal split
+                int mid = y0 + height / 2;
+                if (Regions.minDistanceSq(x, y, x0, mid, width, y0 + height - mid) <= radiusSq)
+                    stack.push(internalNode.getRight(), x0, mid, width, y0 + height - mid, level + 1);
+                if (Regions.minDistanceSq(x, y, x0, y0, width, mid - y0) <= radiusSq)
+                    stack.push(internalNode.getLeft(), x0, y0, width, mid - y0, level + 1);
+            }
+        }
+        return results.toArray();
+    }
+
+    /**
+     * Searches for seminars inside an axis-aligned rectangle. The corners are inclusive
+     * and may be given in either order.
+     * <p>
+     * Like the radius search, a child whose region does not overlap the rectangle is
+     * skipped without being visited, and a node whose region lies entirely inside the
+     * rectangle has all of its seminars accepted without checks. Every node reached,
+     * including empty ones, counts as visited.
+     *
+     * @param x1    X-coordinate of one corner
+     * @param y1    Y-coordinate of one corner
+     * @param x2    X-coordinate of the opposite corner
+     * @param y2    Y-coordinate of the opposite corner
+     * @param count Array to track number of nodes visited
+     * @return IDs of the seminars inside the rectangle
+     */
+    @Override
+    public int[] searchRegion(int x1, int y1, int x2, int y2, int[] count) {
+        IdList results = new IdList();
+        int minX = Math.min(x1, x2);
+        int maxX = Math.max(x1, x2);
+        int minY = Math.min(y1, y2);
+        int maxY = Math.max(y1, y2);
+        count[0] = 0;
+
+        Traversal stack = new Traversal();
+        stack.push(this.root, 0, 0, this.xMax, this.yMax, 0);
+        while (!stack.isEmpty()) {
+            BTNode node = stack.pop();
+            int frame = FRAME * stack.size;
+            int x0 = stack.frames[frame];
+            int y0 = stack.frames[frame + 1];
+            int width = stack.frames[frame + 2];
+            int height = stack.frames[frame + 3];
+            int level = stack.frames[frame + 4];
+
+            count[0]++; // Increment visited node count
+
+            // Stop if node is empty
+            if (node == EMPTY_NODE) continue;
+
+            // Accept the whole subtree if its region lies inside the rectangle
+            if (x0 >= minX && x0 + width - 1 <= maxX && y0 >= minY && y0 + height - 1 <= maxY) {
+                collectSubtree(stack, node, results, count);
+                continue;
+            }
+
+            if (node.isLeaf()) {
+                BTLeafNode leafNode = (BTLeafNode) node;
+                for (int i = 0; i < leafNode.size(); i++) {
+                    int seminarX = leafNode.getX(i);
+                    int seminarY = leafNode.getY(i);
+                    if (seminarX >= minX && seminarX <= maxX && seminarY >= minY && seminarY <= maxY) {
+                        results.add(leafNode.getId(i));
+                    }
+                }
+                continue;
+            }
+
+            // Children are pushed right first so the left child is visited first
+            BTInternalNode internalNode = (BTInternalNode) node;
+            if (level % 2 == 0) { // Vertical split
+                int mid = x0 + width / 2;
+                if (maxX >= mid && minX < x0 + width)
+                    stack.push(internalNode.getRight(), mid, y0, x0 + width - mid, height, level + 1);
+                if (mid > x0 && minX < mid && maxX >= x0)
+                    stack.push(internalNode.getLeft(), x0, y0, mid - x0, height, level + 1);
+            } else { // Horizontal split
+                int mid = y0 + height / 2;
+                if (maxY >= mid && minY < y0 + height)
+                    stack.push(internalNode.getRight(), x0, mid, width, y0 + height - mid, level + 1);
+                if (mid > y0 && minY < mid && maxY >= y0)
+                    stack.push(internalNode.getLeft(), x0, y0, width, mid - y0, level + 1);
+            }
+        }
+        return results.toArray();
+    }
+
+    /**
+     * Finds the k seminars closest to a point (x, y), nearest first. Seminars at
+     * the same distance are ordered by ID.
+     * <p>
+     * The search is best-first: a priority queue holds regions keyed by the distance
+     * from the point to their nearest grid point, and seminars keyed by their exact
+     * distance. Whichever entry is closest is taken next, so a seminar is reported only
+     * once every region that could hold a closer one has been opened. A bounded heap of
+     * the k smallest seminar distances seen so far caps the queue: regions and seminars
+     * farther than the current k-th candidate are never enqueued. Each region opened
+     * counts as visited.
+     *
+     * @param x     X-coordinate of query point
+     * @param y     Y-coordinate of query point
+     * @param k     The number of seminars to find
+     * @param count Array to track number of nodes visited
+     * @return IDs of up to k seminars, nearest first
+     */
+    @Override
+    public int[] nearest(int x, int y, int k, int[] count) {
+        IdList results = new IdList();
+        count[0] = 0;
+        if (k <= 0 || this.root == EMPTY_NODE) return results.toArray();
+
+        PriorityQueue<Candidate> queue = new PriorityQueue<>();
+        // Max-heap of the k smallest seminar distances seen so far
+        PriorityQueue<Long> best = new PriorityQueue<>(Math.min(k, 64), Comparator.reverseOrder());
+        queue.add(new Candidate(this.root, 0, 0, this.xMax, this.yMax, 0,
+                Regions.minDistanceSq(x, y, 0, 0, this.xMax, this.yMax)));
+        while (!queue.isEmpty() && results.size() < k) {
+            Candidate candidate = queue.poll();
+            if (candidate.node == null) {
+                results.add(candidate.id);
+                continue;
+            }
+
+            count[0]++; // Increment visited node count
+            BTNode node = candidate.node;
+            if (node.isLeaf()) {
+                BTLeafNode leafNode = (BTLeafNode) node;
+                for (int i = 0; i < leafNode.size(); i++) {
+                    long distanceSq = Regions.distanceSq(x, y, leafNode.getX(i), leafNode.getY(i));
+                    if (Regions.admit(best, k, distanceSq)) {
+                        queue.add(new Candidate(leafNode.getId(i), distanceSq));
+                    }
+                }
+                continue;
+            }
+
+            BTInternalNode internalNode = (BTInternalNode) node;
+            int x0 = candidate.x0;
+            int y0 = candidate.y0;
+            int width = candidate.width;
+            int height = candidate.height;
+            if (candidate.level % 2 == 0) { // Vertical split
+                int mid = x0 + width / 2;
+                offerRegion(queue, best, k, internalNode.getLeft(), x, y,
+                        x0, y0, mid - x0, height, candidate.level + 1);
+                offerRegion(queue, best, k, internalNode.getRight(), x, y,
+                        mid, y0, x0 + width - mid, height, candidate.level + 1);
+            } else { // Horizontal split
+                int mid = y0 + height / 2;
+                offerRegion(queue, best, k, internalNode.getLeft(), x, y,
+                        x0, y0, width, mid - y0, candidate.level + 1);
+                offerRegion(queue, best, k, internalNode.getRight(), x, y,
+                        x0, mid, width, y0 + height - mid, candidate.level + 1);
+            }
+        }
+        return results.toArray();
     }
 
     /**
      * Removes a key from the tree.
+     * Internal nodes left with two empty children collapse into the {@code EMPTY_NODE}.
      *
      * @param key The key to be removed.
      * @param x   X-coordinate of the key to be removed.
      * @param y   Y-coordinate of the key to be removed.
      */
+    @Override
     public void remove(int key, int x, int y) {
-        this.root = remove(this.root, key, x, y, xMax / 2, yMax / 2, xMax / 2, yMax / 2, 0);
-    }
+        if (!inWorld(x, y)) return;
+
+        int x0 = 0;
+        int y0 = 0;
+        int width = this.xMax;
+        int height = this.yMax;
+        int level = 0;
+
+        // Record the internal nodes on the way down
+        List<BTInternalNode> path = new ArrayList<>();
+        BTNode node = this.root;
+        while (node != EMPTY_NODE && !node.isLeaf()) {
+            BTInternalNode internalNode = (BTInternalNode) node;
+            path.add(internalNode);
+            boolean left;
+            if (level % 2 == 0) {
+                int mid = x0 + width / 2;
+                left = x < mid;
+                width = left ? mid - x0 : x0 + width - mid;
+                x0 = left ? x0 : mid;
+            } else {
+                int mid = y0 + height / 2;
+                left = y < mid;
+                height = left ? mid - y0 : y0 + height - mid;
+                y0 = left ? y0 : mid;
+            }
+            node = left ? internalNode.getLeft() : internalNode.getRight();
+            level++;
+        }
 
+        BTNode replacement = node == EMPTY_NODE ? node : removeLeafNode((BTLeafNode) node, key);
+
+        // Walk back up, replacing the changed child and collapsing emptied internal nodes
+        while (!path.isEmpty()) {
+            BTInternalNode parent = path.removeLast();
+            if (parent.getLeft() == node) {
+                parent.setLeft(replacement);
+            } else {
+                parent.setRight(replacement);
+            }
+
+            node = parent;
+            if (parent.getLeft() == EMPTY_NODE && parent.getRight() == EMPTY_NODE) {
+                replacement = EMPTY_NODE;
+            } else {
+                replacement = parent;
+            }
+        }
+        this.root = replacement;
+    }
 
     /**
-     * Dumps the entire binary tree structure to the console, starting from the root.
+     * Dumps the entire binary tree structure to a sink, starting from the root.
      * Each level of the tree is indented to visually represent the hierarchy.
+     *
+     * @param out The sink the tree is written to.
      */
-    public void dump() {
-        dump(root, 0);
+    @Override
+    public void dump(OutputSink out) {
+        Traversal stack = new Traversal();
+        stack.push(this.root, 0, 0, 0, 0, 0);
+        while (!stack.isEmpty()) {
+            BTNode node = stack.pop();
+            int level = stack.frames[FRAME * stack.size + 4];
+
+            // Print indentation for current level
+            for (int i = 0; i < level; i++) {
+                out.print("  ");
+            }
+            // Print the current node's information
+            node.print(out);
+            // If the current node is an internal node, dump left and right children
+            if (!node.isLeaf()) {
+                stack.push(((BTInternalNode) node).getRight(), 0, 0, 0, 0, level + 1);
+                stack.push(((BTInternalNode) node).getLeft(), 0, 0, 0, 0, level + 1);
+            }
+        }
     }
 
-    // ----------------------------------------------------------
-    // Private Helper Methods
-    // ----------------------------------------------------------
-
     /**
-     * Helper method to handle insertion logic for both leaf and internal nodes
+     * Counts the nodes of the tree, including internal, leaf and empty nodes.
      *
-     * @param node        the current node
-     * @param seminarNode the seminar node to insert
-     * @param xDiscrim    the x-coordinate discriminator
-     * @param yDiscrim    the y-coordinate discriminator
-     * @param width       the width of the region
-     * @param height      the height of the region
-     * @param level       the current tree level
-     * @return the updated tree node
+     * @return The number of nodes; an empty tree consists of one empty node.
      */
-    private BTNode insert(BTNode node, SeminarNode seminarNode, int xDiscrim, int yDiscrim,
-                          int width, int height, int level) {
-
-        // If node is empty, make new LeafNode
-        if (node == EMPTY_NODE) {
-            return new BTLeafNode(seminarNode);
+    @Override
+    public int nodeCount() {
+        int nodes = 0;
+        Traversal stack = new Traversal();
+        stack.push(this.root);
+        while (!stack.isEmpty()) {
+            BTNode node = stack.pop();
+            nodes++;
+            if (!node.isLeaf()) {
+                stack.push(((BTInternalNode) node).getRight());
+                stack.push(((BTInternalNode) node).getLeft());
+            }
         }
-
-        if (node.isLeaf())
-            // If node is internalNode -> insert accordingly
-            return handleLeafNodeInsertion((BTLeafNode) node, seminarNode, xDiscrim, yDiscrim, width, height, level);
-        else
-            // If node is leafNode -> insert accordingly
-            return handleInternalNodeInsertion((BTInternalNode) node, seminarNode, xDiscrim, yDiscrim, width, height, level);
-
-
+        return nodes;
     }
 
-
     /**
-     * Helper method to handle insertion when the current node is a leaf
-     * If the new seminar has the same coordinates as the existing seminar in the leaf,
-     * it is added to the list of seminars at that coordinate
-     * Otherwise, the leaf is converted into an internal node, and both the existing and new seminar are re-insterted
+     * Returns the height of the tree, the number of levels from the root to the deepest node.
      *
-     * @param leafNode    the current leaf node
-     * @param seminarNode the seminar node to insert
-     * @param xDiscrim    the x-coordinate discriminator
-     * @param yDiscrim    the y-coordinate discriminator
-     * @param width       the width of the region
-     * @param height      the height of the region
-     * @param level       the current tree level
-     * @return the updated tree node
+     * @return The height; a tree that is a single (leaf or empty) node has height 1.
      */
-    private BTNode handleLeafNodeInsertion(BTLeafNode leafNode, SeminarNode seminarNode,
-                                           int xDiscrim, int yDiscrim,
-                                           int width, int height, int level) {
-
-        // Check if new seminar has same coordinates as current leafNode -> we can add to the LList at that coordinate
-        if (leafNode.getHead().getSeminar().x() == seminarNode.getSeminar().x()
-                && leafNode.getHead().getSeminar().y() == seminarNode.getSeminar().y()) {
-            leafNode.add(seminarNode);
-            return leafNode;
+    @Override
+    public int height() {
+        int height = 0;
+        Traversal stack = new Traversal();
+        stack.push(this.root, 0, 0, 0, 0, 1);
+        while (!stack.isEmpty()) {
+            BTNode node = stack.pop();
+            int level = stack.frames[FRAME * stack.size + 4];
+            height = Math.max(height, level);
+            if (!node.isLeaf()) {
+                stack.push(((BTInternalNode) node).getRight(), 0, 0, 0, 0, level + 1);
+                stack.push(((BTInternalNode) node).getLeft(), 0, 0, 0, 0, level + 1);
+            }
         }
-
-        // Convert leaf to internal node and reinsert both seminars
-        BTInternalNode internalNode = new BTInternalNode(EMPTY_NODE, EMPTY_NODE);
-
-        handleInternalNodeInsertion(internalNode, leafNode.getHead(), xDiscrim, yDiscrim, width, height, level);
-        handleInternalNodeInsertion(internalNode, seminarNode, xDiscrim, yDiscrim, width, height, level);
-
-        return internalNode;
+        return height;
     }
 
     /**
-     * Helper method to handle insertion when the current node is an internal node.
-     * Determines whether to continue in the left or right subtree based on the coordinate discriminator.
+     * Writes the shape of the tree, with the seminars of every leaf, to a snapshot.
      *
-     * @param internalNode the current internal node
-     * @param seminarNode  the seminar node to insert
-     * @param xDiscrim     the x-coordinate discriminator
-     * @param yDiscrim     the y-coordinate discriminator
-     * @param width        the width of the region
-     * @param height       the height of the region
-     * @param level        the current tree level
-     * @return the updated tree node
+     * @param out The snapshot being written.
+     * @throws IOException if the snapshot cannot be written.
      */
-    private BTNode handleInternalNodeInsertion(BTInternalNode internalNode, SeminarNode seminarNode,
-                                               int xDiscrim, int yDiscrim,
-                                               int width, int height, int level) {
-        if (level % 2 == 0) { // Vertical split
-            if (seminarNode.getSeminar().x() < xDiscrim) { // Left subtree might overlap
-                internalNode.setLeft(insert(internalNode.getLeft(), seminarNode,
-                        xDiscrim - (width / 2), yDiscrim, width / 2, height, level + 1));
-            } else { // Right subtree might overlap
-                internalNode.setRight(insert(internalNode.getRight(), seminarNode,
-                        xDiscrim + (width / 2), yDiscrim, width / 2, height, level + 1));
-            }
-        } else { // Horizontal split
-            if (seminarNode.getSeminar().y() < yDiscrim) { // Bottom subtree might overlap
-                internalNode.setLeft(insert(internalNode.getLeft(), seminarNode,
-                        xDiscrim, yDiscrim - (height / 2), width, height / 2, level + 1));
-            } else { // Top subtree might overlap
-                internalNode.setRight(insert(internalNode.getRight(), seminarNode,
-                        xDiscrim, yDiscrim + (height / 2), width, height / 2, level + 1));
+    @Override
+    public void writeTo(SnapshotWriter out) throws IOException {
+        out.putInt(this.xMax);
+        out.putInt(this.yMax);
+        out.putInt(this.leafCapacity);
+        Traversal stack = new Traversal();
+        stack.push(this.root);
+        while (!stack.isEmpty()) {
+            BTNode node = stack.pop();
+            if (node == EMPTY_NODE) {
+                out.putInt(Regions.EMPTY_TAG);
+            } else if (node.isLeaf()) {
+                BTLeafNode leafNode = (BTLeafNode) node;
+                out.putInt(Regions.LEAF_TAG);
+                out.putInt(leafNode.size());
+                for (int i = 0; i < leafNode.size(); i++) {
+                    Regions.writeEntry(out, leafNode.getId(i), leafNode.getX(i), leafNode.getY(i));
+                }
+            } else {
+                out.putInt(Regions.INTERNAL_TAG);
+                stack.push(((BTInternalNode) node).getRight());
+                stack.push(((BTInternalNode) node).getLeft());
             }
         }
+    }
 
-        return internalNode;
-
+    /**
+     * Reads a tree saved by {@link SpatialIndex#writeTo}, rebuilding its nodes from the
+     * saved shape without re-inserting or re-splitting any seminar.
+     *
+     * @param in The snapshot being read.
+     * @return The tree.
+     * @throws IOException if the snapshot is truncated or the shape is invalid.
+     */
+    public static BinTree readFrom(SnapshotReader in) throws IOException {
+        BinTree tree;
+        try {
+            tree = new BinTree(in.getInt(), in.getInt(), in.getInt());
+        } catch (IllegalArgumentException e) {
+            throw new IOException("error: corrupt snapshot, " + e.getMessage());
+        }
+        tree.root = readNode(in, 0);
+        return tree;
     }
 
+    // ----------------------------------------------------------
+    // Private Helper Methods
+    // ----------------------------------------------------------
     /**
-     * Helper method to recursively search the tree for seminars within a given radius
+     * Helper method to read a subtree saved in pre-order.
      *
-     * @param node     Current node in the tree
-     * @param x        X-coordinate of query point
-     * @param y        Y-coordinate of query point
-     * @param radius   Search radius
-     * @param xDiscrim X-coordinate of the current discriminator
-     * @param yDiscrim Y-coordinate of the current discriminator
-     * @param level    Current depth in the tree
-     * @param results  List to store seminars found within the radius
-     * @param count    Array to track the number of nodes visited
+     * @param in    the snapshot being read
+     * @param level the level of the subtree's root
+     * @return the root of the subtree
+     * @throws IOException if the snapshot is truncated or the shape is invalid
      */
-    private void search(BTNode node, int x, int y, int radius,
-                        int xDiscrim, int yDiscrim, int level,
-                        List<Seminar> results, int[] count) {
-        count[0]++; // Increment visited node count
+    private static BTNode readNode(SnapshotReader in, int level) throws IOException {
+        int tag = in.getInt();
+        if (tag == Regions.EMPTY_TAG) return EMPTY_NODE;
+        if (tag == Regions.LEAF_TAG) {
+            long[] entries = Regions.readLeaf(in);
+            return new BTLeafNode(entries, 0, entries.length);
+        }
+        if (tag != Regions.INTERNAL_TAG || level >= Regions.MAX_DEPTH) {
+            throw new IOException("error: corrupt snapshot, node tag {" + tag + "} at level {" + level + "}");
+        }
+        BTNode left = readNode(in, level + 1);
+        BTNode right = readNode(in, level + 1);
+        return new BTInternalNode(left, right);
+    }
 
-        // Stop if node is empty
-        if (node == EMPTY_NODE) return;
+    /**
+     * Task that builds the subtree for a range of seminars. The range is
+     * partitioned in place around the midpoint of the region on the current level's axis,
+     * until it holds no more than the leaf capacity of distinct coordinates; both halves
+     * keep their ID order because the partition is stable. Ranges of at least
+     * {@value #FORK_THRESHOLD} seminars build their two halves as parallel subtasks.
+     * The recursion depth is bounded by the depth of the tree, not the batch size.
+     */
+    private static class BuildTask extends RecursiveTask<BTNode> {
+        private static final long serialVersionUID = 1L;
+        private static final int FORK_THRESHOLD = 1 << 13;
+
+        private final long[] seminars;      // The packed seminar entries, sorted by ID within the range
+        private final int from;             // The first index of the range (inclusive)
+        private final int to;               // The last index of the range (exclusive)
+        private final int x0;               // The lower x-coordinate of the region
+        private final int y0;               // The lower y-coordinate of the region
+        private final int width;            // The width of the region
+        private final int height;           // The height of the region
+        private final int level;            // The current tree level
+        private final int leafCapacity;     // Maximum number of distinct coordinates per leaf
+        private final boolean parallel;     // Whether large ranges fork subtasks
+
+        /**
+         * Constructs a task for a range of seminars and its region.
+         *
+         * @param seminars the packed seminar entries, sorted by ID within the range
+         * @param from     the first index of the range (inclusive)
+         * @param to       the last index of the range (exclusive)
+         * @param x0       the lower x-coordinate of the region
+         * @param y0       the lower y-coordinate of the region
+         * @param width    the width of the region
+         * @param height   the height of the region
+         * @param level        the current tree level
+         * @param leafCapacity the maximum number of distinct coordinates per leaf
+         * @param parallel     whether large ranges fork subtasks
+         */
+        BuildTask(long[] seminars, int from, int to,
+                  int x0, int y0, int width, int height, int level, int leafCapacity, boolean parallel) {
+            this.seminars = seminars;
+            this.from = from;
+            this.to = to;
+            this.x0 = x0;
+            this.y0 = y0;
+            this.width = width;
+            this.height = height;
+            this.level = level;
+            this.leafCapacity = leafCapacity;
+            this.parallel = parallel;
+        }
+
+        /**
+         * Builds the subtree.
+         *
+         * @return the root of the subtree
+         */
+        @Override
+        protected BTNode compute() {
+            if (from == to) return EMPTY_NODE;
+
+            // Seminars at no more than leafCapacity coordinates form a single leaf
+            if (Regions.fitsInLeaf(seminars, from, to, leafCapacity)) {
+                return new BTLeafNode(seminars, from, to);
+            }
 
-        if (node.isLeaf())
-            // Process leaf nodes directly
-            searchLeafNode((BTLeafNode) node, x, y, radius, results);
-        else
-            // Process internal nodes recursively
-            searchInternalNode((BTInternalNode) node, x, y, radius,
-                    xDiscrim, yDiscrim, level,
-                    results, count);
+            BuildTask left;
+            BuildTask right;
+            if (level % 2 == 0) { // Vertical split
+                int discrim = x0 + width / 2;
+                int mid = Regions.partition(seminars, from, to, discrim, true);
+                left = new BuildTask(seminars, from, mid,
+                        x0, y0, discrim - x0, height, level + 1, leafCapacity, parallel);
+                right = new BuildTask(seminars, mid, to,
+                        discrim, y0, x0 + width - discrim, height, level + 1, leafCapacity, parallel);
+            } else { // Horizontal split
+                int discrim = y0 + height / 2;
+                int mid = Regions.partition(seminars, from, to, discrim, false);
+                left = new BuildTask(seminars, from, mid,
+                        x0, y0, width, discrim - y0, level + 1, leafCapacity, parallel);
+                right = new BuildTask(seminars, mid, to,
+                        x0, discrim, width, y0 + height - discrim, level + 1, leafCapacity, parallel);
+            }
 
+            if (parallel && to - from >= FORK_THRESHOLD) {
+                ForkJoinTask.invokeAll(left, right);
+                return new BTInternalNode(left.join(), right.join());
+            }
+            return new BTInternalNode(left.compute(), right.compute());
+        }
     }
 
     /**
-     * Helper method to search a leaf node for seminars within a given radius
-     *
-     * @param leafNode Leaf node to search
-     * @param x        X-coordinate of query point
-     * @param y        Y-coordinate of query point
-     * @param radius   Search radius
-     * @param results  List to store seminars found within the radius
+     * Stack of traversal frames, each a node with its region and level. Every
+     * traversal allocates its own, so concurrent reads of the tree share no state.
      */
-    private void searchLeafNode(BTLeafNode leafNode, int x, int y, int radius, List<Seminar> results) {
-        int radiusSq = radius * radius;
-        SeminarNode curr = leafNode.getHead();
+    private static final class Traversal {
+        private BTNode[] nodes = new BTNode[16];        // Nodes still to visit
+        private int[] frames = new int[16 * FRAME];     // Per-node traversal state
+        private int size;                               // Number of frames on the stack
+
+        /**
+         * Checks whether the stack is empty.
+         *
+         * @return {@code true} if no frames are left
+         */
+        boolean isEmpty() {
+            return size == 0;
+        }
 
-        // Traverse all seminars in the leaf node
-        while (curr != null) {
-            double distanceSq = distanceSq(x, y, curr.getSeminar().x(), curr.getSeminar().y());
-            // Add seminar to reults if it lies within the radius
-            if (distanceSq <= radiusSq) {
-                results.add(curr.getSeminar());
+        /**
+         * Pushes a node whose region and level are not needed.
+         *
+         * @param node the node to visit
+         */
+        void push(BTNode node) {
+            push(node, 0, 0, 0, 0, 0);
+        }
+
+        /**
+         * Pushes a traversal frame.
+         *
+         * @param node   the node to visit
+         * @param x0     the lower x-coordinate of the node's region
+         * @param y0     the lower y-coordinate of the node's region
+         * @param width  the width of the node's region
+         * @param height the height of the node's region
+         * @param level  the tree level of the node
+         */
+        void push(BTNode node, int x0, int y0, int width, int height, int level) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                frames = Arrays.copyOf(frames, size * 2 * FRAME);
             }
-            curr = curr.getNext();
+            int frame = FRAME * size;
+            frames[frame] = x0;
+            frames[frame + 1] = y0;
+            frames[frame + 2] = width;
+            frames[frame + 3] = height;
+            frames[frame + 4] = level;
+            nodes[size++] = node;
+        }
+
+        /**
+         * Pops the top frame. Its state stays readable at {@code frames[FRAME * size]}
+         * until the next push.
+         *
+         * @return the node of the frame
+         */
+        BTNode pop() {
+            return nodes[--size];
         }
     }
 
     /**
-     * Helper method to recursively search an internal node's children based on the query point
-     *
-     * @param internalNode Internal Node to search
-     * @param x            X-coordinate of query point
-     * @param y            Y-coordinate of query point
-     * @param radius       Search radius
-     * @param xDiscrim     X-coordinate of current discriminator
-     * @param yDiscrim     Y-coordinate of current discriminator
-     * @param level        Current depth in the tree
-     * @param results      List to store seminars found within the radius
-     * @param count        Array to track the number of nodes visited
+     * Entry of the nearest-neighbour queue: either a region of the tree or a single
+     * seminar. Entries are ordered by squared distance; at equal distance regions come
+     * before seminars, so a region that could still hold a seminar with a smaller ID is
+     * opened first, and seminars are ordered by ID.
      */
-    private void searchInternalNode(BTInternalNode internalNode, int x, int y, int radius,
-                                    int xDiscrim, int yDiscrim, int level,
-                                    List<Seminar> results, int[] count) {
-        if (level % 2 == 0) { // X-axis
-            if (x - radius <= xDiscrim) // Search left if it overlaps query radius
-                search(internalNode.getLeft(), x, y, radius, xDiscrim - (xMax / (1 << (level + 1))), yDiscrim, level, results, count);
-            if (x + radius > xDiscrim)// Search right if it overlaps query radius
-                search(internalNode.getRight(), x, y, radius, xDiscrim + (xMax / (1 << (level + 1))), yDiscrim, level, results, count);
-        } else { // Y-axis
-            if (y - radius <= yDiscrim) // Search left if it overlaps query radius
-                search(internalNode.getLeft(), x, y, radius, xDiscrim, yDiscrim - (yMax / (1 << (level + 1))), level, results, count);
-            if (y + radius > yDiscrim) // Search right if it overlaps query radius
-                search(internalNode.getRight(), x, y, radius, xDiscrim, yDiscrim + (yMax / (1 << (level + 1))), level, results, count);
+    private static final class Candidate implements Comparable<Candidate> {
+        private final BTNode node;          // The region's node, or null for a seminar
+        private final int id;               // The seminar ID, unused for a region
+        private final int x0;               // The lower x-coordinate of the region
+        private final int y0;               // The lower y-coordinate of the region
+        private final int width;            // The width of the region
+        private final int height;           // The height of the region
+        private final int level;            // The tree level of the region
+        private final long distanceSq;      // Squared distance from the query point
+
+        /**
+         * Constructs a region entry.
+         *
+         * @param node       the region's node
+         * @param x0         the lower x-coordinate of the region
+         * @param y0         the lower y-coordinate of the region
+         * @param width      the width of the region
+         * @param height     the height of the region
+         * @param level      the tree level of the region
+         * @param distanceSq squared distance from the query point to the region
+         */
+        Candidate(BTNode node, int x0, int y0, int width, int height, int level, long distanceSq) {
+            this.node = node;
+            this.id = 0;
+            this.x0 = x0;
+            this.y0 = y0;
+            this.width = width;
+            this.height = height;
+            this.level = level;
+            this.distanceSq = distanceSq;
+        }
 
+        /**
+         * Constructs a seminar entry.
+         *
+         * @param id         the seminar ID
+         * @param distanceSq squared distance from the query point to the seminar
+         */
+        Candidate(int id, long distanceSq) {
+            this.node = null;
+            this.id = id;
+            this.x0 = 0;
+            this.y0 = 0;
+            this.width = 0;
+            this.height = 0;
+            this.level = 0;
+            this.distanceSq = distanceSq;
+        }
+
+        /**
+         * Compares by distance, then regions before seminars, then seminar ID.
+         *
+         * @param other the entry to compare with
+         * @return a negative, zero or positive value
+         */
+        @Override
+        public int compareTo(Candidate other) {
+            int cmp = Long.compare(this.distanceSq, other.distanceSq);
+            if (cmp != 0) return cmp;
+            if (this.node != null || other.node != null) {
+                return Boolean.compare(this.node == null, other.node == null);
+            }
+            return Integer.compare(this.id, other.id);
         }
     }
 
     /**
-     * Helper method to remove a node with the specified key from the binary tree.
+     * Helper method to enqueue a child region for the nearest-neighbour search,
+     * unless it is empty or farther than the current k-th candidate.
      *
-     * @param node     The current node.
-     * @param key      The key to be removed.
-     * @param x        X-coordinate of the key's location.
-     * @param y        Y-coordinate of the key's location.
-     * @param xDiscrim X-coordinate of current discriminator.
-     * @param yDiscrim Y-coordinate of current discriminator.
-     * @param width    The width of the region.
-     * @param height   The height of the region.
-     * @param level    The current tree level.
-     * @return The updated tree node.
+     * @param queue  the nearest-neighbour queue
+     * @param best   max-heap of the k smallest seminar distances seen so far
+     * @param k      the number of seminars to find
+     * @param node   the child node
+     * @param x      X-coordinate of query point
+     * @param y      Y-coordinate of query point
+     * @param x0     the lower x-coordinate of the child's region
+     * @param y0     the lower y-coordinate of the child's region
+     * @param width  the width of the child's region
+     * @param height the height of the child's region
+     * @param level  the tree level of the child
      */
-    private BTNode remove(BTNode node, int key, int x, int y,
-                          int xDiscrim, int yDiscrim,
-                          int width, int height, int level) {
-        if (node == EMPTY_NODE) return node;
-
-        if (node.isLeaf())
-            return removeLeafNode((BTLeafNode) node, key);
-        else
-            return removeInternalNode((BTInternalNode) node, key, x, y, xDiscrim, yDiscrim, width, height, level);
-
+    private static void offerRegion(PriorityQueue<Candidate> queue, PriorityQueue<Long> best, int k,
+                                    BTNode node, int x, int y, int x0, int y0, int width, int height, int level) {
+        if (node == EMPTY_NODE) return;
+        long distanceSq = Regions.minDistanceSq(x, y, x0, y0, width, height);
+        if (best.size() < k || distanceSq <= best.peek()) {
+            queue.add(new Candidate(node, x0, y0, width, height, level, distanceSq));
+        }
     }
 
     /**
-     * Helper method to remove a key from a leaf node. If the leaf becomes empty after removal,
-     * it is replaced with the EMPTY_NODE.
+     * Helper method to split a full leaf into an internal node whose children hold the
+     * leaf's seminars below and above the discriminator. Both halves keep their ID order.
      *
-     * @param leafNode The leaf node from which to remove the key.
-     * @param key      The key to remove.
-     * @return The updated tree node.
+     * @param leafNode the leaf to split
+     * @param vertical {@code true} to compare x-coordinates, {@code false} for y-coordinates
+     * @param discrim  the discriminator value
+     * @return the new internal node
      */
-    private BTNode removeLeafNode(BTLeafNode leafNode, int key) {
-        if (leafNode.remove(key) && !leafNode.isEmpty()) return leafNode;
-        return EMPTY_NODE;
+    private static BTInternalNode splitLeaf(BTLeafNode leafNode, boolean vertical, int discrim) {
+        long[] sorted = new long[leafNode.size()];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = Regions.pack(leafNode.getId(i), leafNode.getX(i), leafNode.getY(i));
+        }
+        int mid = Regions.partition(sorted, 0, sorted.length, discrim, vertical);
+        return new BTInternalNode(
+                mid == 0 ? EMPTY_NODE : new BTLeafNode(sorted, 0, mid),
+                mid == sorted.length ? EMPTY_NODE : new BTLeafNode(sorted, mid, sorted.length));
     }
 
-
     /**
-     * Helper method to remove a key from an internal node and adjusts the tree structure as needed.
-     * Decides whether ot traverse left or right based on the current level and coordinates.
+     * Helper method to hang a node from its parent, or make it the root.
      *
-     * @param internalNode The internal node from which to remove the key.
-     * @param key          The key to remove.
-     * @param x            X-coordinate of the key's location.
-     * @param y            Y-coordinate of the key's location.
-     * @param xDiscrim     X-coordinate of current discriminator.
-     * @param yDiscrim     Y-coordinate of current discriminator.
-     * @param width        The width of the region.
-     * @param height       The height of the region.
-     * @param level        The current tree level.
-     * @return The updated tree node.
+     * @param parent the parent internal node, or null for the root
+     * @param left   whether the node is the parent's left child
+     * @param node   the node to link
      */
-    private BTNode removeInternalNode(BTInternalNode internalNode, int key, int x, int y,
-                                      int xDiscrim, int yDiscrim,
-                                      int width, int height, int level) {
-        if (level % 2 == 0) {
-            if (x < xDiscrim) {
-                internalNode.setLeft(remove(internalNode.getLeft(), key, x, y,
-                        xDiscrim - (width / 2), yDiscrim, width / 2, height, level + 1));
-            } else {
-                internalNode.setRight(remove(internalNode.getRight(), key, x, y,
-                        xDiscrim + (width / 2), yDiscrim, width / 2, height, level + 1));
-            }
+    private void link(BTInternalNode parent, boolean left, BTNode node) {
+        if (parent == null) {
+            this.root = node;
+        } else if (left) {
+            parent.setLeft(node);
         } else {
-            if (y < yDiscrim) {
-                internalNode.setLeft(remove(internalNode.getLeft(), key, x, y,
-                        xDiscrim, yDiscrim - (height / 2), width, height / 2, level + 1));
-            } else {
-                internalNode.setRight(remove(internalNode.getRight(), key, x, y,
-                        xDiscrim, yDiscrim + (height / 2), width, height / 2, level + 1));
-            }
+            parent.setRight(node);
         }
+    }
 
-        if (internalNode.getLeft() == EMPTY_NODE && internalNode.getRight() == EMPTY_NODE) {
-            return EMPTY_NODE;
+    /**
+     * Helper method to add every seminar below a node to the results, without
+     * distance checks. The walk runs on top of the search's stack and leaves the
+     * frames beneath it untouched. Each node below the starting node counts as visited.
+     *
+     * @param stack   the stack of the search
+     * @param start   the root of the subtree, already counted as visited
+     * @param results list to store the seminar IDs
+     * @param count   array to track number of nodes visited
+     */
+    private static void collectSubtree(Traversal stack, BTNode start, IdList results, int[] count) {
+        int base = stack.size;
+        stack.push(start);
+        while (stack.size > base) {
+            BTNode node = stack.pop();
+            if (node != start) count[0]++;
+
+            if (node == EMPTY_NODE) continue;
+            if (node.isLeaf()) {
+                BTLeafNode leafNode = (BTLeafNode) node;
+                for (int i = 0; i < leafNode.size(); i++) {
+                    results.add(leafNode.getId(i));
+                }
+                continue;
+            }
+            stack.push(((BTInternalNode) node).getRight());
+            stack.push(((BTInternalNode) node).getLeft());
         }
-        return internalNode;
     }
 
     /**
-     * Recursively dumps the structure of a binary tree node and its children to the console.
-     * Indents the output based on the level of the node in the tree for readability.
+     * Helper method to search a leaf node for seminars within a given radius
      *
-     * @param node  the current node to dump
-     * @param level the depth level of the current node in the tree (used for indentation)
+     * @param leafNode Leaf node to search
+     * @param x        X-coordinate of query point
+     * @param y        Y-coordinate of query point
+     * @param radiusSq Squared search radius
+     * @param results  List to store the IDs of seminars found within the radius
      */
-    private void dump(BTNode node, int level) {
-        // Print indentation for current level
-        for (int i = 0; i < level; i++) {
-            System.out.print("  ");
-        }
-        // Print the current node's information
-        node.print();
-        // If the current node is an internal node, recursively dump left and right children
-        if (!node.isLeaf()) {
-            dump(((BTInternalNode) node).getLeft(), level + 1);
-            dump(((BTInternalNode) node).getRight(), level + 1);
+    private void searchLeafNode(BTLeafNode leafNode, int x, int y, long radiusSq, IdList results) {
+        // Scan the coordinates of all seminars in the leaf node
+        for (int i = 0; i < leafNode.size(); i++) {
+            long distanceSq = Regions.distanceSq(x, y, leafNode.getX(i), leafNode.getY(i));
+            // Add seminar to reults if it lies within the radius
+            if (distanceSq <= radiusSq) {
+                results.add(leafNode.getId(i));
+            }
         }
     }
 
     /**
-     * Calculates the squared Euclidean distance between two points
+     * Helper method to remove a key from a leaf node. If the leaf becomes empty after removal,
+     * it is replaced with the EMPTY_NODE. A leaf without the key is left unchanged.
+     *
+     * @param leafNode The leaf node from which to remove the key.
+     * @param key      The key to remove.
+     * @return The updated tree node.
+     */
+    private BTNode removeLeafNode(BTLeafNode leafNode, int key) {
+        leafNode.remove(key);
+        return leafNode.isEmpty() ? EMPTY_NODE : leafNode;
+    }
+
+    /**
+     * Checks whether a point lies inside the world.
      *
-     * @param x1 X-coordinate of the first point
-     * @param y1 Y-coordinate of the first point
-     * @param x2 X-coordinate of the second point
-     * @param y2 Y-coordinate of the second point
-     * @return The squared Euclidean distance between two points.
+     * @param x X-coordinate of the point
+     * @param y Y-coordinate of the point
+     * @return {@code true} if the point is within [0, xMax) x [0, yMax)
      */
-    private double distanceSq(int x1, int y1, int x2, int y2) {
-        return (x2 - x1) * (x2 - x1) + (y2 - y1) * (y2 - y1);
+    private boolean inWorld(int x, int y) {
+        return x >= 0 && x < this.xMax && y >= 0 && y < this.yMax;
     }
 }
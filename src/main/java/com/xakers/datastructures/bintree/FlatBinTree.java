@@ -0,0 +1,1206 @@
+package main.java.com.xakers.datastructures.bintree;
+
+import main.java.com.xakers.io.OutputSink;
+import main.java.com.xakers.io.SnapshotReader;
+import main.java.com.xakers.io.SnapshotWriter;
+
+import java.io.IOException;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * A spatial binary tree with the same shape and behaviour as {@link BinTree}, stored
+ * in primitive arrays instead of node objects.
+ * <p>
+ * A node is referenced by a single {@code int}:
+ * <ul>
+ *     <li>{@link #EMPTY} ({@code -1}) for the empty node,</li>
+ *     <li>{@code i >= 0} for internal node {@code i}, whose children are
+ *     {@code lowChild[i]} and {@code highChild[i]},</li>
+ *     <li>{@code -(j + 2)} for leaf {@code j}, whose seminars occupy the segment
+ *     {@code [leafStart[j], leafStart[j] + leafSize[j])} of the entry pool.</li>
+ * </ul>
+ * The entry pool holds, per seminar, its ID and coordinates as primitives; each
+ * leaf's segment is sorted by ID. Segments have
+ * power-of-two capacities, and a full segment moves to one twice the size.
+ * Freed internal nodes, leaves and segments (by size class) go onto free-lists and
+ * are reused before the arrays grow.
+ * <p>
+ * There are no per-node objects and no virtual dispatch; each traversal keeps its
+ * state in an {@code int[]} stack of its own, so searches, dumps and counts may run
+ * concurrently with each other, though not with inserts or removes. Mutations are
+ * single-threaded, so {@link #insertAll} builds serially even when asked to run in
+ * parallel.
+ *
+ * @author Xavier Akers
+ * @version 2026-10-16
+ * @since 2026-10-16
+ */
+public class FlatBinTree implements SpatialIndex {
+    /** Reference to the empty node. */
+    public static final int EMPTY = -1;
+
+    private static final int NONE = -1;             // End of a free-list
+    private static final int FRAME = 6;             // Ints per traversal frame: node, x0, y0, width, height, level
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int xMax;             // Maximum x-coordinate boundary
+    private final int yMax;             // Maximum y-coordinate boundary
+    private final int leafCapacity;     // Maximum number of distinct coordinates per leaf
+    private int root;                   // Reference to the root node
+
+    // Internal nodes
+    private int[] lowChild;             // Child below the discriminator, per internal node
+    private int[] highChild;            // Child at or above the discriminator, per internal node
+    private int numInternalSlots;       // Internal node slots handed out so far
+    private int internalCount;          // Internal nodes in use
+    private int freeInternal;           // Head of the internal node free-list, chained through lowChild
+
+    // Leaves
+    private int[] leafStart;            // First pool entry of each leaf's segment
+    private int[] leafSize;             // Number of seminars in each leaf
+    private int[] leafPoints;           // Number of distinct coordinates in each leaf
+    private byte[] leafSizeClass;       // Each leaf's segment holds 1 << sizeClass entries
+    private int numLeafSlots;           // Leaf slots handed out so far
+    private int freeLeaf;               // Head of the leaf free-list, chained through leafStart
+
+    // Entry pool
+    private int[] ids;                  // Seminar IDs
+    private short[] xs;                 // Seminar x-coordinates
+    private short[] ys;                 // Seminar y-coordinates
+    private int poolTop;                // First pool entry never handed out
+    private final int[] freeSegments;   // Free-list head per size class, chained through ids
+
+    /**
+     * Constructs an empty flat spatial binary tree with defined boundaries.
+     *
+     * @param xMax The maximum x-coordinate boundary for the spatial region.
+     * @param yMax The maximum y-coordinate boundary for the spatial region.
+     */
+    public FlatBinTree(int xMax, int yMax) {
+        this(xMax, yMax, 1);
+    }
+
+    /**
+     * Constructs an empty flat spatial binary tree with defined boundaries and leaf capacity.
+     *
+     * @param xMax         The maximum x-coordinate boundary for the spatial region.
+     * @param yMax         The maximum y-coordinate boundary for the spatial region.
+     * @param leafCapacity The maximum number of distinct coordinates a leaf holds before it splits.
+     */
+    public FlatBinTree(int xMax, int yMax, int leafCapacity) {
+        if (xMax <= 0 || yMax <= 0) {
+            throw new IllegalArgumentException("error: worldSize must be greater than 0.");
+        }
+        if (leafCapacity <= 0) {
+            throw new IllegalArgumentException("error: leafCapacity must be greater than 0.");
+        }
+        this.xMax = xMax;
+        this.yMax = yMax;
+        this.leafCapacity = leafCapacity;
+        this.root = EMPTY;
+
+        this.lowChild = new int[INITIAL_CAPACITY];
+        this.highChild = new int[INITIAL_CAPACITY];
+        this.freeInternal = NONE;
+
+        this.leafStart = new int[INITIAL_CAPACITY];
+        this.leafSize = new int[INITIAL_CAPACITY];
+        this.leafPoints = new int[INITIAL_CAPACITY];
+        this.leafSizeClass = new byte[INITIAL_CAPACITY];
+        this.freeLeaf = NONE;
+
+        this.ids = new int[INITIAL_CAPACITY];
+        this.xs = new short[INITIAL_CAPACITY];
+        this.ys = new short[INITIAL_CAPACITY];
+        this.freeSegments = new int[Integer.SIZE];
+        Arrays.fill(this.freeSegments, NONE);
+    }
+
+    /**
+     * Inserts a seminar into the tree
+     *
+     * @param id the ID of the seminar to insert
+     * @param x  the x-coordinate of the seminar
+     * @param y  the y-coordinate of the seminar
+     * @throws IllegalArgumentException if the seminar lies outside the world
+     */
+    @Override
+    public void insert(int id, int x, int y) {
+        if (!inWorld(x, y)) {
+            throw new IllegalArgumentException("error: seminar outside of world {" + x + ", " + y + "}");
+        }
+        int x0 = 0;
+        int y0 = 0;
+        int width = this.xMax;
+        int height = this.yMax;
+        int level = 0;
+
+        int parent = NONE;      // Internal node the current node hangs from, NONE at the root
+        boolean low = false;    // Which side of the parent the current node hangs from
+        int node = this.root;
+        while (true) {
+            if (node == EMPTY) {
+                link(parent, low, newLeaf(id, x, y));
+                return;
+            }
+
+            if (node < EMPTY) {
+                int leaf = -node - 2;
+                // Add to the bucket if it already holds the coordinate or has room for another
+                if (leafPoints[leaf] < this.leafCapacity || leafContainsPoint(leaf, x, y)) {
+                    leafAdd(leaf, id, x, y);
+                    return;
+                }
+
+                // Replace the full leaf by an internal node over its two halves
+                node = level % 2 == 0
+                        ? splitLeaf(leaf, true, x0 + width / 2)
+                        : splitLeaf(leaf, false, y0 + height / 2);
+                link(parent, low, node);
+            }
+
+            if (level % 2 == 0) { // Vertical split
+                int mid = x0 + width / 2;
+                low = x < mid;
+                width = low ? mid - x0 : x0 + width - mid;
+                x0 = low ? x0 : mid;
+            } else { // Horizontal split
+                int mid = y0 + height / 2;
+                low = y < mid;
+                height = low ? mid - y0 : y0 + height - mid;
+                y0 = low ? y0 : mid;
+            }
+            parent = node;
+            node = low ? lowChild[node] : highChild[node];
+            level++;
+        }
+    }
+
+    /**
+     * Inserts a batch of seminars.
+     * An empty tree is built directly by recursively partitioning the batch around
+     * each region's midpoint; the result is the same as inserting the seminars one
+     * by one. A non-empty tree falls back to individual inserts. The build is serial.
+     *
+     * @param ids      the IDs of the seminars to insert
+     * @param xs       the x-coordinates of the seminars, parallel to ids
+     * @param ys       the y-coordinates of the seminars, parallel to ids
+     * @param parallel ignored; the flat tree always builds serially
+     * @throws IllegalArgumentException if a seminar lies outside the world
+     */
+    @Override
+    public void insertAll(int[] ids, int[] xs, int[] ys, boolean parallel) {
+        if (this.root != EMPTY) {
+            for (int i = 0; i < ids.length; i++) {
+                insert(ids[i], xs[i], ys[i]);
+            }
+            return;
+        }
+
+        long[] sorted = new long[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            if (!inWorld(xs[i], ys[i])) {
+                throw new IllegalArgumentException("error: seminar outside of world {" + xs[i] + ", " + ys[i] + "}");
+            }
+            sorted[i] = Regions.pack(ids[i], xs[i], ys[i]);
+        }
+        // Leaves keep their seminars in ID order
+        Arrays.sort(sorted);
+        this.root = build(sorted, 0, sorted.length, 0, 0, this.xMax, this.yMax, 0);
+    }
+
+    /**
+     * Searches for seminars within a given radius from a point (x, y).
+     * Children whose region misses the circle are skipped, and regions inside the
+     * circle are collected without distance checks, exactly as in {@link BinTree}.
+     *
+     * @param x      X-coordinate of query point
+     * @param y      Y-coordinate of query point
+     * @param radius Search radius
+     * @param count  Array to track number of nodes visited
+     * @return IDs of the seminars within the search radius
+     */
+    @Override
+    public int[] search(int x, int y, int radius, int[] count) {
+        IdList results = new IdList();
+        long radiusSq = (long) radius * radius;
+        count[0] = 0;
+
+        IntStack stack = new IntStack();
+        int top = stack.push(0, this.root, 0, 0, this.xMax, this.yMax, 0);
+        while (top > 0) {
+            top -= FRAME;
+            int node = stack.values[top];
+            int x0 = stack.values[top + 1];
+            int y0 = stack.values[top + 2];
+            int width = stack.values[top + 3];
+            int height = stack.values[top + 4];
+            int level = stack.values[top + 5];
+
+            count[0]++; // Increment visited node count
+
+            if (node == EMPTY) continue;
+
+            // Accept the whole subtree if its region lies inside the circle
+            if (Regions.maxDistanceSq(x, y, x0, y0, width, height) <= radiusSq) {
+                collectSubtree(stack, top, node, results, count);
+                continue;
+            }
+
+            if (node < EMPTY) {
+                int leaf = -node - 2;
+                int end = leafStart[leaf] + leafSize[leaf];
+                for (int i = leafStart[leaf]; i < end; i++) {
+                    if (Regions.distanceSq(x, y, xs[i], ys[i]) <= radiusSq) {
+                        results.add(ids[i]);
+                    }
+                }
+                continue;
+            }
+
+            // Children are pushed high first so the low child is visited first
+            if (level % 2 == 0) { // Vertical split
+                int mid = x0 + width / 2;
+                if (Regions.minDistanceSq(x, y, mid, y0, x0 + width - mid, height) <= radiusSq)
+                    top = stack.push(top, highChild[node], mid, y0, x0 + width - mid, height, level + 1);
+                if (Regions.minDistanceSq(x, y, x0, y0, mid - x0, height) <= radiusSq)
+                    top = stack.push(top, lowChild[node], x0, y0, mid - x0, height, level + 1);
+            } else { // Horizontal split
+                int mid = y0 + height / 2;
+                if (Regions.minDistanceSq(x, y, x0, mid, width, y0 + height - mid) <= radiusSq)
+                    top = stack.push(top, highChild[node], x0, mid, width, y0 + height - mid, level + 1);
+                if (Regions.minDistanceSq(x, y, x0, y0, width, mid - y0) <= radiusSq)
+                    top = stack.push(top, lowChild[node], x0, y0, width, mid - y0, level + 1);
+            }
+        }
+        return results.toArray();
+    }
+
+    /**
+     * Searches for seminars inside an axis-aligned rectangle. The corners are inclusive
+     * and may be given in either order.
+     *
+     * @param x1    X-coordinate of one corner
+     * @param y1    Y-coordinate of one corner
+     * @param x2    X-coordinate of the opposite corner
+     * @param y2    Y-coordinate of the opposite corner
+     * @param count Array to track number of nodes visited
+     * @return IDs of the seminars inside the rectangle
+     */
+    @Override
+    public int[] searchRegion(int x1, int y1, int x2, int y2, int[] count) {
+        IdList results = new IdList();
+        int minX = Math.min(x1, x2);
+        int maxX = Math.max(x1, x2);
+        int minY = Math.min(y1, y2);
+        int maxY = Math.max(y1, y2);
+        count[0] = 0;
+
+        IntStack stack = new IntStack();
+        int top = stack.push(0, this.root, 0, 0, this.xMax, this.yMax, 0);
+        while (top > 0) {
+            top -= FRAME;
+            int node = stack.values[top];
+            int x0 = stack.values[top + 1];
+            int y0 = stack.values[top + 2];
+            int width = stack.values[top + 3];
+            int height = stack.values[top + 4];
+            int level = stack.values[top + 5];
+
+            count[0]++; // Increment visited node count
+
+            if (node == EMPTY) continue;
+
+            // Accept the whole subtree if its region lies inside the rectangle
+            if (x0 >= minX && x0 + width - 1 <= maxX && y0 >= minY && y0 + height - 1 <= maxY) {
+                collectSubtree(stack, top, node, results, count);
+                continue;
+            }
+
+            if (node < EMPTY) {
+                int leaf = -node - 2;
+                int end = leafStart[leaf] + leafSize[leaf];
+                for (int i = leafStart[leaf]; i < end; i++) {
+                    if (xs[i] >= minX && xs[i] <= maxX && ys[i] >= minY && ys[i] <= maxY) {
+                        results.add(ids[i]);
+                    }
+                }
+                continue;
+            }
+
+            // Children are pushed high first so the low child is visited first
+            if (level % 2 == 0) { // Vertical split
+                int mid = x0 + width / 2;
+                if (maxX >= mid && minX < x0 + width)
+                    top = stack.push(top, highChild[node], mid, y0, x0 + width - mid, height, level + 1);
+                if (mid > x0 && minX < mid && maxX >= x0)
+                    top = stack.push(top, lowChild[node], x0, y0, mid - x0, height, level + 1);
+            } else { // Horizontal split
+                int mid = y0 + height / 2;
+                if (maxY >= mid && minY < y0 + height)
+                    top = stack.push(top, highChild[node], x0, mid, width, y0 + height - mid, level + 1);
+                if (mid > y0 && minY < mid && maxY >= y0)
+                    top = stack.push(top, lowChild[node], x0, y0, width, mid - y0, level + 1);
+            }
+        }
+        return results.toArray();
+    }
+
+    /**
+     * Finds the k seminars closest to a point (x, y), nearest first, with the same
+     * best-first search and tie-breaking as {@link BinTree#nearest}.
+     *
+     * @param x     X-coordinate of query point
+     * @param y     Y-coordinate of query point
+     * @param k     The number of seminars to find
+     * @param count Array to track number of nodes visited
+     * @return IDs of up to k seminars, nearest first
+     */
+    @Override
+    public int[] nearest(int x, int y, int k, int[] count) {
+        IdList results = new IdList();
+        count[0] = 0;
+        if (k <= 0 || this.root == EMPTY) return results.toArray();
+
+        PriorityQueue<Candidate> queue = new PriorityQueue<>();
+        // Max-heap of the k smallest seminar distances seen so far
+        PriorityQueue<Long> best = new PriorityQueue<>(Math.min(k, 64), Comparator.reverseOrder());
+        queue.add(new Candidate(this.root, 0, 0, this.xMax, this.yMax, 0,
+                Regions.minDistanceSq(x, y, 0, 0, this.xMax, this.yMax)));
+        while (!queue.isEmpty() && results.size() < k) {
+            Candidate candidate = queue.poll();
+            if (candidate.node == EMPTY) {
+                results.add(candidate.id);
+                continue;
+            }
+
+            count[0]++; // Increment visited node count
+            int node = candidate.node;
+            if (node < EMPTY) {
+                int leaf = -node - 2;
+                int end = leafStart[leaf] + leafSize[leaf];
+                for (int i = leafStart[leaf]; i < end; i++) {
+                    long distanceSq = Regions.distanceSq(x, y, xs[i], ys[i]);
+                    if (Regions.admit(best, k, distanceSq)) {
+                        queue.add(new Candidate(ids[i], distanceSq));
+                    }
+                }
+                continue;
+            }
+
+            int x0 = candidate.x0;
+            int y0 = candidate.y0;
+            int width = candidate.width;
+            int height = candidate.height;
+            int level = candidate.level + 1;
+            if (candidate.level % 2 == 0) { // Vertical split
+                int mid = x0 + width / 2;
+                offerRegion(queue, best, k, lowChild[node], x, y, x0, y0, mid - x0, height, level);
+                offerRegion(queue, best, k, highChild[node], x, y, mid, y0, x0 + width - mid, height, level);
+            } else { // Horizontal split
+                int mid = y0 + height / 2;
+                offerRegion(queue, best, k, lowChild[node], x, y, x0, y0, width, mid - y0, level);
+                offerRegion(queue, best, k, highChild[node], x, y, x0, mid, width, y0 + height - mid, level);
+            }
+        }
+        return results.toArray();
+    }
+
+    /**
+     * Removes a key from the tree.
+     * Internal nodes left with two empty children collapse into the empty node.
+     *
+     * @param key The key to be removed.
+     * @param x   X-coordinate of the key to be removed.
+     * @param y   Y-coordinate of the key to be removed.
+     */
+    @Override
+    public void remove(int key, int x, int y) {
+        if (!inWorld(x, y)) return;
+
+        int x0 = 0;
+        int y0 = 0;
+        int width = this.xMax;
+        int height = this.yMax;
+        int level = 0;
+
+        // Record the internal nodes and the sides taken on the way down
+        IntStack stack = new IntStack();
+        int depth = 0;
+        int node = this.root;
+        while (node > EMPTY) {
+            boolean low;
+            if (level % 2 == 0) {
+                int mid = x0 + width / 2;
+                low = x < mid;
+                width = low ? mid - x0 : x0 + width - mid;
+                x0 = low ? x0 : mid;
+            } else {
+                int mid = y0 + height / 2;
+                low = y < mid;
+                height = low ? mid - y0 : y0 + height - mid;
+                y0 = low ? y0 : mid;
+            }
+            stack.pushNode(2 * depth, node, low ? 1 : 0);
+            depth++;
+            node = low ? lowChild[node] : highChild[node];
+            level++;
+        }
+
+        int replacement = node;
+        if (node < EMPTY) {
+            int leaf = -node - 2;
+            leafRemove(leaf, key);
+            if (leafSize[leaf] == 0) {
+                freeLeaf(leaf);
+                replacement = EMPTY;
+            }
+        }
+
+        // Walk back up, replacing the changed child and collapsing emptied internal nodes
+        while (depth > 0) {
+            depth--;
+            int parent = stack.values[2 * depth];
+            if (stack.values[2 * depth + 1] == 1) {
+                lowChild[parent] = replacement;
+            } else {
+                highChild[parent] = replacement;
+            }
+
+            if (lowChild[parent] == EMPTY && highChild[parent] == EMPTY) {
+                freeInternal(parent);
+                replacement = EMPTY;
+            } else {
+                replacement = parent;
+            }
+        }
+        this.root = replacement;
+    }
+
+    /**
+     * Dumps the entire binary tree structure to a sink, starting from the root,
+     * in the same format as {@link BinTree#dump}.
+     *
+     * @param out The sink the tree is written to.
+     */
+    @Override
+    public void dump(OutputSink out) {
+        IntStack stack = new IntStack();
+        int top = stack.pushNode(0, this.root, 0);
+        while (top > 0) {
+            top -= 2;
+            int node = stack.values[top];
+            int level = stack.values[top + 1];
+
+            // Print indentation for current level
+            for (int i = 0; i < level; i++) {
+                out.print("  ");
+            }
+
+            if (node == EMPTY) {
+                out.println("E");
+            } else if (node < EMPTY) {
+                int leaf = -node - 2;
+                out.print("Leaf with ");
+                out.print(leafSize[leaf]);
+                out.print(" objects: ");
+                int end = leafStart[leaf] + leafSize[leaf];
+                for (int i = leafStart[leaf]; i < end; i++) {
+                    out.print(" ");
+                    out.print(ids[i]);
+                }
+                out.print("\n");
+            } else {
+                out.println("I");
+                top = stack.pushNode(top, highChild[node], level + 1);
+                top = stack.pushNode(top, lowChild[node], level + 1);
+            }
+        }
+    }
+
+    /**
+     * Counts the nodes of the tree, including internal, leaf and empty nodes.
+     * Every internal node has two children, so this is one more than twice the
+     * number of internal nodes.
+     *
+     * @return The number of nodes; an empty tree consists of one empty node.
+     */
+    @Override
+    public int nodeCount() {
+        return 2 * internalCount + 1;
+    }
+
+    /**
+     * Returns the height of the tree, the number of levels from the root to the deepest node.
+     *
+     * @return The height; a tree that is a single (leaf or empty) node has height 1.
+     */
+    @Override
+    public int height() {
+        int height = 0;
+        IntStack stack = new IntStack();
+        int top = stack.pushNode(0, this.root, 1);
+        while (top > 0) {
+            top -= 2;
+            int node = stack.values[top];
+            int level = stack.values[top + 1];
+            height = Math.max(height, level);
+            if (node > EMPTY) {
+                top = stack.pushNode(top, highChild[node], level + 1);
+                top = stack.pushNode(top, lowChild[node], level + 1);
+            }
+        }
+        return height;
+    }
+
+    /**
+     * Writes the shape of the tree, with the seminars of every leaf, to a snapshot,
+     * in the same format as {@link BinTree#writeTo}.
+     *
+     * @param out The snapshot being written.
+     * @throws IOException if the snapshot cannot be written.
+     */
+    @Override
+    public void writeTo(SnapshotWriter out) throws IOException {
+        out.putInt(this.xMax);
+        out.putInt(this.yMax);
+        out.putInt(this.leafCapacity);
+        IntStack stack = new IntStack();
+        int top = stack.pushNode(0, this.root, 0);
+        while (top > 0) {
+            top -= 2;
+            int node = stack.values[top];
+            if (node == EMPTY) {
+                out.putInt(Regions.EMPTY_TAG);
+            } else if (node < EMPTY) {
+                int leaf = -node - 2;
+                out.putInt(Regions.LEAF_TAG);
+                out.putInt(leafSize[leaf]);
+                int end = leafStart[leaf] + leafSize[leaf];
+                for (int i = leafStart[leaf]; i < end; i++) {
+                    Regions.writeEntry(out, ids[i], xs[i], ys[i]);
+                }
+            } else {
+                out.putInt(Regions.INTERNAL_TAG);
+                top = stack.pushNode(top, highChild[node], 0);
+                top = stack.pushNode(top, lowChild[node], 0);
+            }
+        }
+    }
+
+    /**
+     * Reads a tree saved by {@link SpatialIndex#writeTo}, rebuilding its arrays from the
+     * saved shape without re-inserting or re-splitting any seminar.
+     *
+     * @param in The snapshot being read.
+     * @return The tree.
+     * @throws IOException if the snapshot is truncated or the shape is invalid.
+     */
+    public static FlatBinTree readFrom(SnapshotReader in) throws IOException {
+        FlatBinTree tree;
+        try {
+            tree = new FlatBinTree(in.getInt(), in.getInt(), in.getInt());
+        } catch (IllegalArgumentException e) {
+            throw new IOException("error: corrupt snapshot, " + e.getMessage());
+        }
+        tree.root = tree.readNode(in, 0);
+        return tree;
+    }
+
+    // ----------------------------------------------------------
+    // Private Helper Methods
+    // ----------------------------------------------------------
+    /**
+     * Helper method to read a subtree saved in pre-order.
+     *
+     * @param in    the snapshot being read
+     * @param level the level of the subtree's root
+     * @return the reference to the root of the subtree
+     * @throws IOException if the snapshot is truncated or the shape is invalid
+     */
+    private int readNode(SnapshotReader in, int level) throws IOException {
+        int tag = in.getInt();
+        if (tag == Regions.EMPTY_TAG) return EMPTY;
+        if (tag == Regions.LEAF_TAG) {
+            long[] entries = Regions.readLeaf(in);
+            return newLeaf(entries, 0, entries.length);
+        }
+        if (tag != Regions.INTERNAL_TAG || level >= Regions.MAX_DEPTH) {
+            throw new IOException("error: corrupt snapshot, node tag {" + tag + "} at level {" + level + "}");
+        }
+        int low = readNode(in, level + 1);
+        int high = readNode(in, level + 1);
+        return newInternal(low, high);
+    }
+
+
+    /**
+     * Entry of the nearest-neighbour queue: either a region of the tree or a single
+     * seminar, ordered like the entries of {@link BinTree#nearest}.
+     */
+    private static final class Candidate implements Comparable<Candidate> {
+        private final int node;             // The region's node reference, EMPTY for a seminar
+        private final int id;               // The seminar ID, unused for a region
+        private final int x0;               // The lower x-coordinate of the region
+        private final int y0;               // The lower y-coordinate of the region
+        private final int width;            // The width of the region
+        private final int height;           // The height of the region
+        private final int level;            // The tree level of the region
+        private final long distanceSq;      // Squared distance from the query point
+
+        /**
+         * Constructs a region entry.
+         *
+         * @param node       the region's node reference
+         * @param x0         the lower x-coordinate of the region
+         * @param y0         the lower y-coordinate of the region
+         * @param width      the width of the region
+         * @param height     the height of the region
+         * @param level      the tree level of the region
+         * @param distanceSq squared distance from the query point to the region
+         */
+        Candidate(int node, int x0, int y0, int width, int height, int level, long distanceSq) {
+            this.node = node;
+            this.id = 0;
+            this.x0 = x0;
+            this.y0 = y0;
+            this.width = width;
+            this.height = height;
+            this.level = level;
+            this.distanceSq = distanceSq;
+        }
+
+        /**
+         * Constructs a seminar entry.
+         *
+         * @param id         the seminar ID
+         * @param distanceSq squared distance from the query point to the seminar
+         */
+        Candidate(int id, long distanceSq) {
+            this.node = EMPTY;
+            this.id = id;
+            this.x0 = 0;
+            this.y0 = 0;
+            this.width = 0;
+            this.height = 0;
+            this.level = 0;
+            this.distanceSq = distanceSq;
+        }
+
+        /**
+         * Compares by distance, then regions before seminars, then seminar ID.
+         *
+         * @param other the entry to compare with
+         * @return a negative, zero or positive value
+         */
+        @Override
+        public int compareTo(Candidate other) {
+            int cmp = Long.compare(this.distanceSq, other.distanceSq);
+            if (cmp != 0) return cmp;
+            if (this.node != EMPTY || other.node != EMPTY) {
+                return Boolean.compare(this.node == EMPTY, other.node == EMPTY);
+            }
+            return Integer.compare(this.id, other.id);
+        }
+    }
+
+    /**
+     * Helper method to enqueue a child region for the nearest-neighbour search,
+     * unless it is empty or farther than the current k-th candidate.
+     *
+     * @param queue  the nearest-neighbour queue
+     * @param best   max-heap of the k smallest seminar distances seen so far
+     * @param k      the number of seminars to find
+     * @param node   the child node reference
+     * @param x      X-coordinate of query point
+     * @param y      Y-coordinate of query point
+     * @param x0     the lower x-coordinate of the child's region
+     * @param y0     the lower y-coordinate of the child's region
+     * @param width  the width of the child's region
+     * @param height the height of the child's region
+     * @param level  the tree level of the child
+     */
+    private static void offerRegion(PriorityQueue<Candidate> queue, PriorityQueue<Long> best, int k,
+                                    int node, int x, int y, int x0, int y0, int width, int height, int level) {
+        if (node == EMPTY) return;
+        long distanceSq = Regions.minDistanceSq(x, y, x0, y0, width, height);
+        if (best.size() < k || distanceSq <= best.peek()) {
+            queue.add(new Candidate(node, x0, y0, width, height, level, distanceSq));
+        }
+    }
+
+    /**
+     * Helper method to build the subtree for a range of packed entries sorted by ID.
+     *
+     * @param sorted the packed entries, sorted by ID within the range
+     * @param from   the first index of the range (inclusive)
+     * @param to     the last index of the range (exclusive)
+     * @param x0     the lower x-coordinate of the region
+     * @param y0     the lower y-coordinate of the region
+     * @param width  the width of the region
+     * @param height the height of the region
+     * @param level  the current tree level
+     * @return the reference to the root of the subtree
+     */
+    private int build(long[] sorted, int from, int to, int x0, int y0, int width, int height, int level) {
+        if (from == to) return EMPTY;
+        if (Regions.fitsInLeaf(sorted, from, to, leafCapacity)) {
+            return newLeaf(sorted, from, to);
+        }
+
+        int low;
+        int high;
+        if (level % 2 == 0) { // Vertical split
+            int discrim = x0 + width / 2;
+            int mid = Regions.partition(sorted, from, to, discrim, true);
+            low = build(sorted, from, mid, x0, y0, discrim - x0, height, level + 1);
+            high = build(sorted, mid, to, discrim, y0, x0 + width - discrim, height, level + 1);
+        } else { // Horizontal split
+            int discrim = y0 + height / 2;
+            int mid = Regions.partition(sorted, from, to, discrim, false);
+            low = build(sorted, from, mid, x0, y0, width, discrim - y0, level + 1);
+            high = build(sorted, mid, to, x0, discrim, width, y0 + height - discrim, level + 1);
+        }
+        return newInternal(low, high);
+    }
+
+    /**
+     * Helper method to replace a full leaf by an internal node whose children hold the
+     * leaf's seminars below and above the discriminator, in ID order.
+     *
+     * @param leaf     the leaf to split
+     * @param vertical {@code true} to compare x-coordinates, {@code false} for y-coordinates
+     * @param discrim  the discriminator value
+     * @return the reference to the new internal node
+     */
+    private int splitLeaf(int leaf, boolean vertical, int discrim) {
+        long[] sorted = new long[leafSize[leaf]];
+        for (int i = 0; i < sorted.length; i++) {
+            int entry = leafStart[leaf] + i;
+            sorted[i] = Regions.pack(ids[entry], xs[entry], ys[entry]);
+        }
+        freeLeaf(leaf);
+        int mid = Regions.partition(sorted, 0, sorted.length, discrim, vertical);
+        return newInternal(
+                mid == 0 ? EMPTY : newLeaf(sorted, 0, mid),
+                mid == sorted.length ? EMPTY : newLeaf(sorted, mid, sorted.length));
+    }
+
+    /**
+     * Helper method to hang a node from its parent, or make it the root.
+     *
+     * @param parent the parent internal node, or NONE for the root
+     * @param low    whether the node is the parent's low child
+     * @param node   the reference to the node to link
+     */
+    private void link(int parent, boolean low, int node) {
+        if (parent == NONE) {
+            this.root = node;
+        } else if (low) {
+            lowChild[parent] = node;
+        } else {
+            highChild[parent] = node;
+        }
+    }
+
+    /**
+     * Helper method to add every seminar below a node to the results, without
+     * distance checks. The walk runs on the search's stack above {@code base}.
+     * Each node below the starting node counts as visited.
+     *
+     * @param stack   the stack of the search
+     * @param base    the top of the stack beneath which frames are left untouched
+     * @param start   the root of the subtree, already counted as visited
+     * @param results list to store the seminar IDs
+     * @param count   array to track number of nodes visited
+     */
+    private void collectSubtree(IntStack stack, int base, int start, IdList results, int[] count) {
+        int top = stack.pushNode(base, start, 0);
+        while (top > base) {
+            top -= 2;
+            int node = stack.values[top];
+            if (node != start) count[0]++;
+
+            if (node == EMPTY) continue;
+            if (node < EMPTY) {
+                int leaf = -node - 2;
+                int end = leafStart[leaf] + leafSize[leaf];
+                for (int i = leafStart[leaf]; i < end; i++) {
+                    results.add(ids[i]);
+                }
+                continue;
+            }
+            top = stack.pushNode(top, highChild[node], 0);
+            top = stack.pushNode(top, lowChild[node], 0);
+        }
+    }
+
+    /**
+     * Helper method to allocate an internal node.
+     *
+     * @param low  the reference to the low child
+     * @param high the reference to the high child
+     * @return the index of the internal node
+     */
+    private int newInternal(int low, int high) {
+        int node;
+        if (freeInternal != NONE) {
+            node = freeInternal;
+            freeInternal = lowChild[node];
+        } else {
+            if (numInternalSlots == lowChild.length) {
+                lowChild = Arrays.copyOf(lowChild, numInternalSlots * 2);
+                highChild = Arrays.copyOf(highChild, numInternalSlots * 2);
+            }
+            node = numInternalSlots++;
+        }
+        lowChild[node] = low;
+        highChild[node] = high;
+        internalCount++;
+        return node;
+    }
+
+    /**
+     * Helper method to return an internal node to the free-list.
+     *
+     * @param node the index of the internal node
+     */
+    private void freeInternal(int node) {
+        lowChild[node] = freeInternal;
+        freeInternal = node;
+        internalCount--;
+    }
+
+    /**
+     * Helper method to allocate a leaf holding a single seminar.
+     *
+     * @param id the seminar ID
+     * @param x  the x-coordinate of the seminar
+     * @param y  the y-coordinate of the seminar
+     * @return the reference to the leaf
+     */
+    private int newLeaf(int id, int x, int y) {
+        int leaf = allocLeaf(0);
+        setEntry(leafStart[leaf], id, x, y);
+        leafSize[leaf] = 1;
+        leafPoints[leaf] = 1;
+        return -leaf - 2;
+    }
+
+    /**
+     * Helper method to allocate a leaf holding a range of packed entries sorted by ID.
+     *
+     * @param sorted the packed entries, sorted by ID within the range
+     * @param from   the first index of the range (inclusive)
+     * @param to     the last index of the range (exclusive); the range must not be empty
+     * @return the reference to the leaf
+     */
+    private int newLeaf(long[] sorted, int from, int to) {
+        int size = to - from;
+        int leaf = allocLeaf(sizeClass(size));
+        int start = leafStart[leaf];
+        for (int i = 0; i < size; i++) {
+            setEntry(start + i, Regions.id(sorted[from + i]), Regions.x(sorted[from + i]), Regions.y(sorted[from + i]));
+        }
+        leafSize[leaf] = size;
+        leafPoints[leaf] = countPoints(start, size);
+        return -leaf - 2;
+    }
+
+    /**
+     * Helper method to allocate a leaf slot with an empty segment.
+     *
+     * @param sizeClass the size class of the segment
+     * @return the index of the leaf
+     */
+    private int allocLeaf(int sizeClass) {
+        int leaf;
+        if (freeLeaf != NONE) {
+            leaf = freeLeaf;
+            freeLeaf = leafStart[leaf];
+        } else {
+            if (numLeafSlots == leafStart.length) {
+                int capacity = numLeafSlots * 2;
+                leafStart = Arrays.copyOf(leafStart, capacity);
+                leafSize = Arrays.copyOf(leafSize, capacity);
+                leafPoints = Arrays.copyOf(leafPoints, capacity);
+                leafSizeClass = Arrays.copyOf(leafSizeClass, capacity);
+            }
+            leaf = numLeafSlots++;
+        }
+        leafStart[leaf] = allocSegment(sizeClass);
+        leafSizeClass[leaf] = (byte) sizeClass;
+        leafSize[leaf] = 0;
+        leafPoints[leaf] = 0;
+        return leaf;
+    }
+
+    /**
+     * Helper method to return a leaf and its segment to the free-lists.
+     *
+     * @param leaf the index of the leaf
+     */
+    private void freeLeaf(int leaf) {
+        freeSegment(leafStart[leaf], leafSizeClass[leaf]);
+        leafStart[leaf] = freeLeaf;
+        freeLeaf = leaf;
+    }
+
+    /**
+     * Helper method to allocate a segment of the entry pool.
+     *
+     * @param sizeClass the size class; the segment holds {@code 1 << sizeClass} entries
+     * @return the first entry of the segment
+     */
+    private int allocSegment(int sizeClass) {
+        int start = freeSegments[sizeClass];
+        if (start != NONE) {
+            freeSegments[sizeClass] = ids[start];
+            return start;
+        }
+
+        int capacity = 1 << sizeClass;
+        if (poolTop + capacity > ids.length) {
+            int poolCapacity = Math.max(ids.length * 2, poolTop + capacity);
+            ids = Arrays.copyOf(ids, poolCapacity);
+            xs = Arrays.copyOf(xs, poolCapacity);
+            ys = Arrays.copyOf(ys, poolCapacity);
+        }
+        start = poolTop;
+        poolTop += capacity;
+        return start;
+    }
+
+    /**
+     * Helper method to return a segment to the free-list of its size class.
+     *
+     * @param start     the first entry of the segment
+     * @param sizeClass the size class of the segment
+     */
+    private void freeSegment(int start, int sizeClass) {
+        ids[start] = freeSegments[sizeClass];
+        freeSegments[sizeClass] = start;
+    }
+
+    /**
+     * Helper method to add a seminar to a leaf, keeping ID order. A full segment is
+     * moved to a segment of the next size class.
+     *
+     * @param leaf the index of the leaf
+     * @param id   the ID of the seminar to add
+     * @param x    the x-coordinate of the seminar
+     * @param y    the y-coordinate of the seminar
+     */
+    private void leafAdd(int leaf, int id, int x, int y) {
+        if (!leafContainsPoint(leaf, x, y)) {
+            leafPoints[leaf]++;
+        }
+
+        int start = leafStart[leaf];
+        int size = leafSize[leaf];
+        // Insert before the first seminar whose ID is not smaller
+        int pos = lowerBound(start, size, id);
+        if (size == 1 << leafSizeClass[leaf]) {
+            int sizeClass = leafSizeClass[leaf] + 1;
+            int moved = allocSegment(sizeClass);
+            // The pool arrays may have been reallocated
+            copyEntries(start, moved, pos);
+            copyEntries(start + pos, moved + pos + 1, size - pos);
+            freeSegment(start, leafSizeClass[leaf]);
+            leafStart[leaf] = moved;
+            leafSizeClass[leaf] = (byte) sizeClass;
+            start = moved;
+        } else {
+            copyEntries(start + pos, start + pos + 1, size - pos);
+        }
+        setEntry(start + pos, id, x, y);
+        leafSize[leaf] = size + 1;
+    }
+
+    /**
+     * Helper method to remove a seminar from a leaf by ID.
+     *
+     * @param leaf the index of the leaf
+     * @param key  the ID of the seminar to remove
+     * @return {@code true} if the seminar was found and removed
+     */
+    private boolean leafRemove(int leaf, int key) {
+        int start = leafStart[leaf];
+        int size = leafSize[leaf];
+        int pos = lowerBound(start, size, key);
+        if (pos == size || ids[start + pos] != key) return false;
+
+        int x = xs[start + pos];
+        int y = ys[start + pos];
+        copyEntries(start + pos + 1, start + pos, size - pos - 1);
+        leafSize[leaf] = size - 1;
+        if (!leafContainsPoint(leaf, x, y)) {
+            leafPoints[leaf]--;
+        }
+        return true;
+    }
+
+    /**
+     * Helper method to check whether a leaf holds a seminar at the given coordinate.
+     *
+     * @param leaf the index of the leaf
+     * @param x    the x-coordinate
+     * @param y    the y-coordinate
+     * @return {@code true} if the coordinate is held by the leaf
+     */
+    private boolean leafContainsPoint(int leaf, int x, int y) {
+        int end = leafStart[leaf] + leafSize[leaf];
+        for (int i = leafStart[leaf]; i < end; i++) {
+            if (xs[i] == x && ys[i] == y) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Helper method to count the distinct coordinates of a run of entries.
+     *
+     * @param start the first entry
+     * @param size  the number of entries
+     * @return the number of distinct coordinates
+     */
+    private int countPoints(int start, int size) {
+        int[] seen = new int[Math.min(size, 8)];    // Distinct coordinates so far, as packed x/y pairs
+        int numSeen = 0;
+        for (int i = start; i < start + size; i++) {
+            int point = (xs[i] << 16) | (ys[i] & 0xFFFF);
+            boolean found = false;
+            for (int j = 0; j < numSeen && !found; j++) {
+                found = seen[j] == point;
+            }
+            if (!found) {
+                if (numSeen == seen.length) {
+                    seen = Arrays.copyOf(seen, numSeen * 2);
+                }
+                seen[numSeen++] = point;
+            }
+        }
+        return numSeen;
+    }
+
+    /**
+     * Helper method to find the first entry of a run whose ID is not smaller than a key.
+     *
+     * @param start the first entry of the run
+     * @param size  the number of entries
+     * @param key   the ID to look for
+     * @return the offset from {@code start}, in [0, size]
+     */
+    private int lowerBound(int start, int size, int key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ids[start + mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Helper method to store a seminar in an entry of the pool.
+     *
+     * @param entry the entry
+     * @param id    the seminar ID
+     * @param x     the x-coordinate of the seminar
+     * @param y     the y-coordinate of the seminar
+     */
+    private void setEntry(int entry, int id, int x, int y) {
+        ids[entry] = id;
+        xs[entry] = (short) x;
+        ys[entry] = (short) y;
+    }
+
+    /**
+     * Helper method to move a run of entries within the pool.
+     *
+     * @param from   the first entry of the run
+     * @param to     the entry the run moves to
+     * @param length the length of the run
+     */
+    private void copyEntries(int from, int to, int length) {
+        System.arraycopy(ids, from, ids, to, length);
+        System.arraycopy(xs, from, xs, to, length);
+        System.arraycopy(ys, from, ys, to, length);
+    }
+
+    /**
+     * Helper method to find the smallest size class that holds a number of entries.
+     *
+     * @param size the number of entries, at least 1
+     * @return the size class
+     */
+    private static int sizeClass(int size) {
+        return size <= 1 ? 0 : Integer.SIZE - Integer.numberOfLeadingZeros(size - 1);
+    }
+
+    /**
+     * Checks whether a point lies inside the world.
+     *
+     * @param x X-coordinate of the point
+     * @param y Y-coordinate of the point
+     * @return {@code true} if the point is within [0, xMax) x [0, yMax)
+     */
+    private boolean inWorld(int x, int y) {
+        return x >= 0 && x < this.xMax && y >= 0 && y < this.yMax;
+    }
+    /**
+     * Growable {@code int[]} stack of traversal frames. Every traversal allocates its
+     * own, so concurrent reads of the tree share no state.
+     */
+    private static final class IntStack {
+        private int[] values = new int[16 * FRAME]; // The frames, the top one last
+
+        /**
+         * Pushes a search frame.
+         *
+         * @param top    the current top of the stack
+         * @param node   the reference to the node to visit
+         * @param x0     the lower x-coordinate of the node's region
+         * @param y0     the lower y-coordinate of the node's region
+         * @param width  the width of the node's region
+         * @param height the height of the node's region
+         * @param level  the tree level of the node
+         * @return the new top of the stack
+         */
+        int push(int top, int node, int x0, int y0, int width, int height, int level) {
+            if (values.length < top + FRAME) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[top] = node;
+            values[top + 1] = x0;
+            values[top + 2] = y0;
+            values[top + 3] = width;
+            values[top + 4] = height;
+            values[top + 5] = level;
+            return top + FRAME;
+        }
+
+        /**
+         * Pushes a node and its level.
+         *
+         * @param top   the current top of the stack
+         * @param node  the reference to the node
+         * @param level the tree level of the node
+         * @return the new top of the stack
+         */
+        int pushNode(int top, int node, int level) {
+            if (values.length < top + 2) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[top] = node;
+            values[top + 1] = level;
+            return top + 2;
+        }
+    }
+}
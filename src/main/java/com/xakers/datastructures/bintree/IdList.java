@@ -0,0 +1,45 @@
+package main.java.com.xakers.datastructures.bintree;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of seminar IDs, used to collect search results without boxing.
+ *
+ * @author Xavier Akers
+ * @version 2026-10-16
+ * @since 2026-10-16
+ */
+final class IdList {
+    private int[] ids = new int[16];    // The IDs collected so far
+    private int size;                   // Number of IDs collected
+
+    /**
+     * Appends an ID.
+     *
+     * @param id the ID to append
+     */
+    void add(int id) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        ids[size++] = id;
+    }
+
+    /**
+     * Returns the number of IDs collected.
+     *
+     * @return the number of IDs
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the collected IDs, in the order they were added.
+     *
+     * @return a new array of the IDs
+     */
+    int[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+}
@@ -0,0 +1,247 @@
+package main.java.com.xakers.datastructures.bintree;
+
+import main.java.com.xakers.io.SnapshotReader;
+import main.java.com.xakers.io.SnapshotWriter;
+
+import java.io.IOException;
+import java.util.PriorityQueue;
+
+/**
+ * Geometry and partitioning helpers shared by the spatial binary trees.
+ * <p>
+ * A region is the half-open rectangle {@code [x0, x0 + width) x [y0, y0 + height)}.
+ * Seminar coordinates are integers, so distances to a region are measured to the
+ * grid points it holds.
+ * <p>
+ * Batches of seminars are handled as packed {@code long} entries holding the ID in
+ * the high half and the coordinates in the low half, so sorting entries sorts them by ID.
+ * <p>
+ * Both trees save their shape in the same snapshot format: the world size and leaf
+ * capacity, then the nodes in pre-order, each a tag followed, for a leaf, by its
+ * seminar count and an (ID, x, y) triple per seminar in ID order.
+ *
+ * @author Xavier Akers
+ * @version 2026-10-16
+ * @since 2026-10-16
+ */
+final class Regions {
+    static final int EMPTY_TAG = 0;     // Snapshot tag of an empty node
+    static final int INTERNAL_TAG = 1;  // Snapshot tag of an internal node, followed by its two subtrees
+    static final int LEAF_TAG = 2;      // Snapshot tag of a leaf, followed by its seminars
+    static final int MAX_DEPTH = 64;    // Deeper than any tree over a world of short coordinates
+
+    /**
+     * Not instantiable.
+     */
+    private Regions() {
+    }
+
+    /**
+     * Calculates the squared Euclidean distance between two points
+     *
+     * @param x1 X-coordinate of the first point
+     * @param y1 Y-coordinate of the first point
+     * @param x2 X-coordinate of the second point
+     * @param y2 Y-coordinate of the second point
+     * @return The squared Euclidean distance between two points.
+     */
+    static long distanceSq(int x1, int y1, int x2, int y2) {
+        long dx = (long) x2 - x1;
+        long dy = (long) y2 - y1;
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Calculates the squared distance from a point to the nearest grid point of a region.
+     * Seminar coordinates are integers, so the region {@code [x0, x0 + width)} holds
+     * the points {@code x0 .. x0 + width - 1}.
+     *
+     * @param x      X-coordinate of the point
+     * @param y      Y-coordinate of the point
+     * @param x0     the lower x-coordinate of the region
+     * @param y0     the lower y-coordinate of the region
+     * @param width  the width of the region
+     * @param height the height of the region
+     * @return The squared distance, or {@link Long#MAX_VALUE} for an empty region.
+     */
+    static long minDistanceSq(int x, int y, int x0, int y0, int width, int height) {
+        if (width <= 0 || height <= 0) return Long.MAX_VALUE;
+        int nearestX = Math.max(x0, Math.min(x, x0 + width - 1));
+        int nearestY = Math.max(y0, Math.min(y, y0 + height - 1));
+        return distanceSq(x, y, nearestX, nearestY);
+    }
+
+    /**
+     * Calculates the squared distance from a point to the farthest grid point of a region.
+     *
+     * @param x      X-coordinate of the point
+     * @param y      Y-coordinate of the point
+     * @param x0     the lower x-coordinate of the region
+     * @param y0     the lower y-coordinate of the region
+     * @param width  the width of the region
+     * @param height the height of the region
+     * @return The squared distance.
+     */
+    static long maxDistanceSq(int x, int y, int x0, int y0, int width, int height) {
+        int farthestX = x - x0 > x0 + width - 1 - x ? x0 : x0 + width - 1;
+        int farthestY = y - y0 > y0 + height - 1 - y ? y0 : y0 + height - 1;
+        return distanceSq(x, y, farthestX, farthestY);
+    }
+
+    /**
+     * Packs a seminar ID and location into an entry whose signed order is ID order.
+     *
+     * @param id the seminar ID
+     * @param x  the x-coordinate
+     * @param y  the y-coordinate
+     * @return the packed entry
+     */
+    static long pack(int id, int x, int y) {
+        return ((long) id << 32) | ((x & 0xFFFFL) << 16) | (y & 0xFFFFL);
+    }
+
+    /**
+     * Extracts the seminar ID of a packed entry.
+     *
+     * @param entry the packed entry
+     * @return the seminar ID
+     */
+    static int id(long entry) {
+        return (int) (entry >> 32);
+    }
+
+    /**
+     * Extracts the x-coordinate of a packed entry.
+     *
+     * @param entry the packed entry
+     * @return the x-coordinate
+     */
+    static int x(long entry) {
+        return (short) (entry >>> 16);
+    }
+
+    /**
+     * Extracts the y-coordinate of a packed entry.
+     *
+     * @param entry the packed entry
+     * @return the y-coordinate
+     */
+    static int y(long entry) {
+        return (short) entry;
+    }
+
+    /**
+     * Checks whether a range of entries covers no more than
+     * a given number of distinct coordinates. Stops as soon as the limit is exceeded.
+     *
+     * @param entries  the packed entries
+     * @param from     the first index of the range (inclusive)
+     * @param to       the last index of the range (exclusive)
+     * @param capacity the maximum number of distinct coordinates
+     * @return {@code true} if the range fits in one leaf
+     */
+    static boolean fitsInLeaf(long[] entries, int from, int to, int capacity) {
+        int[] seen = new int[Math.min(capacity, to - from)];   // Distinct coordinates so far, as packed x/y pairs
+        int numSeen = 0;
+        for (int i = from; i < to; i++) {
+            int point = (int) entries[i];
+            boolean found = false;
+            for (int j = 0; j < numSeen && !found; j++) {
+                found = seen[j] == point;
+            }
+            if (!found) {
+                if (numSeen == capacity) return false;
+                seen[numSeen++] = point;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stably partitions a range of entries so that the entries
+     * below the discriminator come first.
+     *
+     * @param entries  the packed entries
+     * @param from     the first index of the range (inclusive)
+     * @param to       the last index of the range (exclusive)
+     * @param discrim  the discriminator value
+     * @param vertical {@code true} to compare x-coordinates, {@code false} for y-coordinates
+     * @return the index of the first entry not below the discriminator
+     */
+    static int partition(long[] entries, int from, int to, int discrim, boolean vertical) {
+        long[] upper = new long[to - from];
+        int numUpper = 0;
+        int mid = from;
+        for (int i = from; i < to; i++) {
+            int coordinate = vertical ? x(entries[i]) : y(entries[i]);
+            if (coordinate < discrim) {
+                entries[mid++] = entries[i];
+            } else {
+                upper[numUpper++] = entries[i];
+            }
+        }
+        System.arraycopy(upper, 0, entries, mid, numUpper);
+        return mid;
+    }
+
+    /**
+     * Records a seminar distance in the bounded heap of the k smallest.
+     *
+     * @param best       max-heap of the k smallest seminar distances seen so far
+     * @param k          the number of seminars to find
+     * @param distanceSq squared distance of the seminar
+     * @return {@code true} if the seminar may be among the k nearest
+     */
+    static boolean admit(PriorityQueue<Long> best, int k, long distanceSq) {
+        if (best.size() < k) {
+            best.add(distanceSq);
+            return true;
+        }
+        long kth = best.peek();
+        if (distanceSq < kth) {
+            best.poll();
+            best.add(distanceSq);
+            return true;
+        }
+        // A tie with the k-th candidate may still win on ID
+        return distanceSq == kth;
+    }
+
+    /**
+     * Reads the seminars of a leaf saved in a snapshot.
+     *
+     * @param in the snapshot being read, positioned after the leaf tag
+     * @return the packed entries, sorted by ID
+     * @throws IOException if the snapshot is truncated or the leaf is invalid
+     */
+    static long[] readLeaf(SnapshotReader in) throws IOException {
+        int size = in.getCount();
+        if (size == 0 || size > Integer.MAX_VALUE / 3) {
+            throw new IOException("error: corrupt snapshot, leaf size {" + size + "}");
+        }
+        int[] values = in.getInts(3 * size);
+        long[] entries = new long[size];
+        for (int i = 0; i < size; i++) {
+            entries[i] = pack(values[3 * i], values[3 * i + 1], values[3 * i + 2]);
+            if (i > 0 && entries[i] <= entries[i - 1]) {
+                throw new IOException("error: corrupt snapshot, leaf IDs out of order");
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Writes one seminar of a leaf to a snapshot.
+     *
+     * @param out the snapshot being written
+     * @param id  the seminar ID
+     * @param x   the x-coordinate
+     * @param y   the y-coordinate
+     * @throws IOException if the snapshot cannot be written
+     */
+    static void writeEntry(SnapshotWriter out, int id, int x, int y) throws IOException {
+        out.putInt(id);
+        out.putInt(x);
+        out.putInt(y);
+    }
+}
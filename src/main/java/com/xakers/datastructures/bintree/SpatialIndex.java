@@ -0,0 +1,123 @@
+package main.java.com.xakers.datastructures.bintree;
+
+import main.java.com.xakers.io.OutputSink;
+import main.java.com.xakers.io.SnapshotWriter;
+
+import java.io.IOException;
+
+/**
+ * A spatial index of seminars by location, organised as a bintree over a
+ * rectangular world {@code [0, xMax) x [0, yMax)}.
+ * <p>
+ * The index holds seminar IDs with their coordinates, not the seminars themselves;
+ * searches return IDs, which callers resolve to records.
+ * <p>
+ * Implementations agree on the tree they build: the same seminars inserted in the
+ * same order give the same shape, the same dump and the same visited-node counts,
+ * whatever the in-memory representation. They also save the same snapshot format,
+ * so a tree saved by one implementation can be restored by the other's
+ * {@code readFrom}.
+ * <p>
+ * Reads (searches, dumps, counts and snapshot writes) keep their traversal state
+ * per call, so any number of them may run at once. Inserts and removes are not
+ * thread-safe: callers must keep them from overlapping each other or any read.
+ *
+ * @author Xavier Akers
+ * @version 2026-10-16
+ * @since 2026-10-16
+ */
+public interface SpatialIndex {
+
+    /**
+     * Inserts a seminar.
+     *
+     * @param id the ID of the seminar to insert
+     * @param x  the x-coordinate of the seminar
+     * @param y  the y-coordinate of the seminar
+     * @throws IllegalArgumentException if the seminar lies outside the world
+     */
+    void insert(int id, int x, int y);
+
+    /**
+     * Inserts a batch of seminars.
+     *
+     * @param ids      the IDs of the seminars to insert
+     * @param xs       the x-coordinates of the seminars, parallel to ids
+     * @param ys       the y-coordinates of the seminars, parallel to ids
+     * @param parallel whether the implementation may build subtrees concurrently
+     * @throws IllegalArgumentException if a seminar lies outside the world
+     */
+    void insertAll(int[] ids, int[] xs, int[] ys, boolean parallel);
+
+    /**
+     * Searches for seminars within a given radius from a point (x, y).
+     *
+     * @param x      X-coordinate of query point
+     * @param y      Y-coordinate of query point
+     * @param radius Search radius
+     * @param count  Array to track number of nodes visited
+     * @return IDs of the seminars within the search radius
+     */
+    int[] search(int x, int y, int radius, int[] count);
+
+    /**
+     * Searches for seminars inside an axis-aligned rectangle with inclusive corners.
+     *
+     * @param x1    X-coordinate of one corner
+     * @param y1    Y-coordinate of one corner
+     * @param x2    X-coordinate of the opposite corner
+     * @param y2    Y-coordinate of the opposite corner
+     * @param count Array to track number of nodes visited
+     * @return IDs of the seminars inside the rectangle
+     */
+    int[] searchRegion(int x1, int y1, int x2, int y2, int[] count);
+
+    /**
+     * Finds the k seminars closest to a point (x, y), nearest first, ties by ID.
+     *
+     * @param x     X-coordinate of query point
+     * @param y     Y-coordinate of query point
+     * @param k     The number of seminars to find
+     * @param count Array to track number of nodes visited
+     * @return IDs of up to k seminars, nearest first
+     */
+    int[] nearest(int x, int y, int k, int[] count);
+
+    /**
+     * Removes a seminar by ID from the given location.
+     *
+     * @param key The ID of the seminar to remove.
+     * @param x   X-coordinate of the seminar.
+     * @param y   Y-coordinate of the seminar.
+     */
+    void remove(int key, int x, int y);
+
+    /**
+     * Dumps the tree structure to a sink, one indented line per node.
+     *
+     * @param out The sink the tree is written to.
+     */
+    void dump(OutputSink out);
+
+    /**
+     * Counts the nodes of the tree, including internal, leaf and empty nodes.
+     *
+     * @return The number of nodes.
+     */
+    int nodeCount();
+
+    /**
+     * Returns the height of the tree.
+     *
+     * @return The number of levels from the root to the deepest node.
+     */
+    int height();
+
+    /**
+     * Writes the shape of the tree, with the seminars of every leaf, to a snapshot.
+     *
+     * @param out The snapshot being written.
+     * @throws IOException if the snapshot cannot be written.
+     */
+    void writeTo(SnapshotWriter out) throws IOException;
+}
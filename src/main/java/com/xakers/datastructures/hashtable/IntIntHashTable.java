@@ -0,0 +1,268 @@
+package main.java.com.xakers.datastructures.hashtable;
+
+import main.java.com.xakers.io.SnapshotReader;
+import main.java.com.xakers.io.SnapshotWriter;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash table mapping primitive {@code int} keys to
+ * non-negative {@code int} values, such as record offsets.
+ * Keys and values live in parallel {@code int} arrays, so the table holds no
+ * object references at all.
+ * <p>
+ * Collisions are resolved with linear probing. Removal shifts the following
+ * entries of the probe run back instead of leaving tombstones, which keeps
+ * probe sequences short under heavy insert/delete churn. The value {@link #NOT_FOUND}
+ * marks an empty slot, so values must not be negative.
+ *
+ * @author Xavier Akers
+ * @version 2026-10-16
+ * @since 2026-10-16
+ */
+public class IntIntHashTable {
+    /** Value returned for keys that are not in the table. */
+    public static final int NOT_FOUND = -1;
+
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] keys;     // Keys of the occupied slots
+    private int[] values;   // Values of the slots, NOT_FOUND for empty slots
+    private int mask;       // Capacity - 1, capacity is always a power of two
+    private int size;       // Number of entries in the table
+
+    /**
+     * Constructs an empty hash table.
+     */
+    public IntIntHashTable() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty hash table sized for an expected number of entries.
+     *
+     * @param expectedSize The number of entries the table should hold without resizing.
+     */
+    public IntIntHashTable(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Inserts a key-value pair, ensuring uniqueness.
+     * If the key already exists, the table is left unchanged.
+     *
+     * @param key   The key to be inserted.
+     * @param value The value associated with the key (must not be negative).
+     * @return True if the pair was inserted, false if the key already exists.
+     */
+    public boolean insertUnique(int key, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("error: value cannot be negative.");
+        }
+
+        int slot = slot(key);
+        while (values[slot] != NOT_FOUND) {
+            if (keys[slot] == key) return false;
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > (mask + 1) / 2) {
+            resize((mask + 1) * 2);
+        }
+        return true;
+    }
+
+    /**
+     * Searches for the value associated with the given key.
+     *
+     * @param key The key to search for.
+     * @return The value associated with the key, or {@link #NOT_FOUND} if the key is not found.
+     */
+    public int search(int key) {
+        int slot = slot(key);
+        while (values[slot] != NOT_FOUND) {
+            if (keys[slot] == key) return values[slot];
+            slot = (slot + 1) & mask;
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Removes the entry with the specified key.
+     *
+     * @param key The key of the entry to be removed.
+     * @return The value of the removed entry, or {@link #NOT_FOUND} if the key is not found.
+     */
+    public int remove(int key) {
+        int slot = slot(key);
+        while (values[slot] != NOT_FOUND) {
+            if (keys[slot] == key) {
+                int removed = values[slot];
+                shiftBack(slot);
+                size--;
+                return removed;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Grows the table, if needed, so it can hold an expected number of entries without resizing.
+     *
+     * @param expectedSize The number of entries the table should hold.
+     */
+    public void ensureCapacity(int expectedSize) {
+        int capacity = capacityFor(expectedSize);
+        if (capacity > mask + 1) {
+            resize(capacity);
+        }
+    }
+
+    /**
+     * Returns the number of entries in the table.
+     *
+     * @return The number of entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns all keys in the table in ascending order.
+     *
+     * @return A new sorted array of the keys.
+     */
+    public int[] keys() {
+        int[] sorted = new int[size];
+        int n = 0;
+        for (int slot = 0; slot <= mask; slot++) {
+            if (values[slot] != NOT_FOUND) sorted[n++] = keys[slot];
+        }
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * Writes the table to a snapshot: its capacity and size, then the key and value slots as they are.
+     *
+     * @param out The snapshot being written.
+     * @throws IOException if the snapshot cannot be written.
+     */
+    public void writeTo(SnapshotWriter out) throws IOException {
+        out.putInt(mask + 1);
+        out.putInt(size);
+        out.putInts(keys, 0, mask + 1);
+        out.putInts(values, 0, mask + 1);
+    }
+
+    /**
+     * Reads a table written by {@link #writeTo}. The slots are copied back unchanged,
+     * so nothing is rehashed.
+     *
+     * @param in The snapshot being read.
+     * @return The table.
+     * @throws IOException if the snapshot is truncated or the capacity is invalid.
+     */
+    public static IntIntHashTable readFrom(SnapshotReader in) throws IOException {
+        int capacity = in.getCount();
+        int size = in.getCount();
+        if (capacity < MIN_CAPACITY || Integer.bitCount(capacity) != 1 || size >= capacity) {
+            throw new IOException("error: corrupt snapshot, hash table capacity {" + capacity + "}");
+        }
+        IntIntHashTable table = new IntIntHashTable();
+        table.keys = in.getInts(capacity);
+        table.values = in.getInts(capacity);
+        table.mask = capacity - 1;
+        table.size = size;
+        return table;
+    }
+
+    // ----------------------------------------------------------
+    // Private Helper Methods
+    // ----------------------------------------------------------
+
+    /**
+     * Helper method to compute the home slot of a key (Fibonacci hashing).
+     *
+     * @param key The key to hash.
+     * @return The home slot of the key.
+     */
+    private int slot(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Helper method to close the gap left by a removed entry. Later entries of the
+     * probe run move back into the gap unless that would put them before their home slot.
+     *
+     * @param gap The slot that was emptied.
+     */
+    private void shiftBack(int gap) {
+        int slot = gap;
+        while (true) {
+            slot = (slot + 1) & mask;
+            if (values[slot] == NOT_FOUND) break;
+
+            int home = slot(keys[slot]);
+            // Move the entry if its home slot is not within (gap, slot] cyclically
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                values[gap] = values[slot];
+                gap = slot;
+            }
+        }
+        values[gap] = NOT_FOUND;
+    }
+
+    /**
+     * Helper method to rehash every entry into a table of a new capacity.
+     *
+     * @param capacity The new capacity (a power of two).
+     */
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] == NOT_FOUND) continue;
+
+            int slot = slot(oldKeys[i]);
+            while (values[slot] != NOT_FOUND) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+
+    /**
+     * Helper method to allocate empty slot arrays.
+     *
+     * @param capacity The capacity (a power of two).
+     */
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, NOT_FOUND);
+        mask = capacity - 1;
+    }
+
+    /**
+     * Returns the smallest power-of-two capacity that keeps the load factor at or below 1/2.
+     *
+     * @param expectedSize The expected number of entries.
+     * @return The capacity.
+     */
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity / 2 < expectedSize) {
+            capacity *= 2;
+        }
+        return capacity;
+    }
+}
@@ -0,0 +1,312 @@
+package main.java.com.xakers.datastructures.invertedindex;
+
+import main.java.com.xakers.datastructures.stringpool.StringPool;
+import main.java.com.xakers.io.SnapshotReader;
+import main.java.com.xakers.io.SnapshotWriter;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * An inverted index mapping each keyword to the sorted posting list of the
+ * record IDs that carry it.
+ * <p>
+ * Keywords are identified by their codes in a {@link StringPool}, and the posting
+ * lists sit in an array indexed by code, so inserts and removes cost an array access
+ * and no keyword comparisons. Queries arrive as strings and are translated with a
+ * single pool lookup; a keyword the pool has never seen matches nothing.
+ * Multi-keyword queries combine posting lists: AND intersects them starting from
+ * the shortest list, galloping through the longer ones; OR merges them.
+ * <p>
+ * Each posting list also remembers the order its IDs arrived in, so a single-keyword
+ * search lists the most recently inserted records first, the order in which the
+ * keyword tree it replaces listed records sharing a keyword.
+ *
+ * @author Xavier Akers
+ * @version 2026-10-16
+ * @since 2026-10-16
+ */
+public class KeywordIndex {
+    private static final int[] NO_IDS = new int[0];
+
+    private final StringPool pool;      // Pool assigning the keyword codes
+    private PostingList[] postings;     // Keyword code -> sorted IDs, null when empty
+    private int numPostings;            // Total number of (keyword, ID) pairs
+
+    /**
+     * Constructs an empty keyword index.
+     *
+     * @param pool The pool whose codes identify the keywords.
+     */
+    public KeywordIndex(StringPool pool) {
+        this.pool = pool;
+        this.postings = new PostingList[16];
+        this.numPostings = 0;
+    }
+
+    /**
+     * Adds an ID to the posting list of a keyword.
+     *
+     * @param code The code of the keyword in the pool.
+     * @param id   The ID of the record carrying the keyword.
+     */
+    public void insert(int code, int id) {
+        if (code >= postings.length) {
+            postings = Arrays.copyOf(postings, Math.max(code + 1, 2 * postings.length));
+        }
+        if (postings[code] == null) {
+            postings[code] = new PostingList();
+        }
+        if (postings[code].add(id)) {
+            numPostings++;
+        }
+    }
+
+    /**
+     * Removes an ID from the posting list of a keyword.
+     * A keyword whose posting list becomes empty is dropped from the index.
+     *
+     * @param code The code of the keyword in the pool.
+     * @param id   The ID of the record to remove.
+     */
+    public void remove(int code, int id) {
+        PostingList list = list(code);
+        if (list == null || !list.remove(id)) return;
+
+        numPostings--;
+        if (list.size() == 0) {
+            postings[code] = null;
+        }
+    }
+
+    /**
+     * Returns the IDs of all records carrying a keyword.
+     *
+     * @param keyword The keyword to search for.
+     * @return The matching IDs, most recently inserted first.
+     */
+    public int[] search(String keyword) {
+        PostingList list = list(pool.code(keyword));
+        return list == null ? NO_IDS : list.toArrayNewestFirst();
+    }
+
+    /**
+     * Returns the IDs of the records carrying every one of the keywords (AND).
+     *
+     * @param keywords The keywords to search for.
+     * @return The matching IDs in ascending order.
+     */
+    public int[] searchAll(String... keywords) {
+        if (keywords.length == 0) return NO_IDS;
+
+        PostingList[] lists = new PostingList[keywords.length];
+        for (int i = 0; i < keywords.length; i++) {
+            lists[i] = list(pool.code(keywords[i]));
+            if (lists[i] == null) return NO_IDS;
+        }
+        // Intersecting from the shortest list bounds the work by its length
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size(), b.size()));
+
+        int[] result = lists[0].toArray();
+        int n = result.length;
+        for (int i = 1; i < lists.length && n > 0; i++) {
+            n = intersect(result, n, lists[i]);
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    /**
+     * Returns the IDs of the records carrying at least one of the keywords (OR).
+     *
+     * @param keywords The keywords to search for.
+     * @return The matching IDs in ascending order.
+     */
+    public int[] searchAny(String... keywords) {
+        int[] result = NO_IDS;
+        for (String keyword : keywords) {
+            PostingList list = list(pool.code(keyword));
+            if (list != null) {
+                result = union(result, list);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of records carrying a keyword.
+     *
+     * @param keyword The keyword.
+     * @return The length of the keyword's posting list.
+     */
+    public int count(String keyword) {
+        PostingList list = list(pool.code(keyword));
+        return list == null ? 0 : list.size();
+    }
+
+    /**
+     * Returns every keyword in the index in ascending order.
+     *
+     * @return A new sorted array of the keywords.
+     */
+    public String[] keywords() {
+        String[] keywords = new String[postings.length];
+        int n = 0;
+        for (int code = 0; code < postings.length; code++) {
+            if (postings[code] != null) {
+                keywords[n++] = pool.string(code);
+            }
+        }
+        keywords = Arrays.copyOf(keywords, n);
+        Arrays.sort(keywords);
+        return keywords;
+    }
+
+    /**
+     * Returns the total number of (keyword, ID) pairs in the index.
+     *
+     * @return The number of postings.
+     */
+    public int size() {
+        return numPostings;
+    }
+
+    /**
+     * Writes the index to a snapshot: the number of postings and of keyword codes, then
+     * for each code the length of its posting list followed by the IDs in ascending
+     * order and in the order they were added. The keyword strings belong to the pool,
+     * which is saved separately.
+     *
+     * @param out The snapshot being written.
+     * @throws IOException if the snapshot cannot be written.
+     */
+    public void writeTo(SnapshotWriter out) throws IOException {
+        out.putInt(numPostings);
+        out.putInt(postings.length);
+        for (PostingList list : postings) {
+            if (list == null) {
+                out.putInt(0);
+            } else {
+                out.putInt(list.size());
+                out.putInts(list.ids(), 0, list.size());
+                out.putInts(list.order(), 0, list.size());
+            }
+        }
+    }
+
+    /**
+     * Reads an index written by {@link #writeTo}.
+     *
+     * @param in   The snapshot being read.
+     * @param pool The pool restored from the same snapshot.
+     * @return The index.
+     * @throws IOException if the snapshot is truncated or inconsistent.
+     */
+    public static KeywordIndex readFrom(SnapshotReader in, StringPool pool) throws IOException {
+        KeywordIndex index = new KeywordIndex(pool);
+        int numPostings = in.getCount();
+        int numCodes = in.getCount();
+        index.postings = new PostingList[Math.max(16, numCodes)];
+        int total = 0;
+        for (int code = 0; code < numCodes; code++) {
+            int length = in.getCount();
+            if (length == 0) continue;
+
+            if (code >= pool.size()) {
+                throw new IOException("error: corrupt snapshot, keyword code {" + code + "}");
+            }
+            int[] ids = in.getInts(length);
+            int[] order = in.getInts(length);
+            int[] sorted = order.clone();
+            Arrays.sort(sorted);
+            if (!Arrays.equals(sorted, ids)) {
+                throw new IOException("error: corrupt snapshot, posting order of keyword code {" + code + "}");
+            }
+            index.postings[code] = new PostingList(ids, order);
+            total += length;
+        }
+        if (total != numPostings) {
+            throw new IOException("error: corrupt snapshot, posting count {" + numPostings + "}");
+        }
+        index.numPostings = numPostings;
+        return index;
+    }
+
+    // ----------------------------------------------------------
+    // Private Helper Methods
+    // ----------------------------------------------------------
+
+    /**
+     * Helper method to find the posting list of a keyword code.
+     *
+     * @param code The keyword code, or {@link StringPool#NOT_FOUND}.
+     * @return The posting list, or {@code null} if no record carries the keyword.
+     */
+    private PostingList list(int code) {
+        return code >= 0 && code < postings.length ? postings[code] : null;
+    }
+
+    /**
+     * Helper method to intersect a sorted prefix of an array with a posting list in place.
+     * Each candidate gallops forward through the posting list, so a short candidate
+     * set against a long list costs O(n log(m / n)).
+     *
+     * @param candidates The sorted candidate IDs; the result overwrites the prefix.
+     * @param n          The number of valid candidates.
+     * @param list       The posting list to intersect with.
+     * @return The number of IDs left in the prefix.
+     */
+    private static int intersect(int[] candidates, int n, PostingList list) {
+        int[] ids = list.ids();
+        int size = list.size();
+        int kept = 0;
+        int lo = 0;
+        for (int i = 0; i < n && lo < size; i++) {
+            int id = candidates[i];
+            // Gallop to bracket the candidate, then binary search inside the bracket
+            int step = 1;
+            int hi = lo;
+            while (hi < size && ids[hi] < id) {
+                lo = hi + 1;
+                hi += step;
+                step *= 2;
+            }
+            int pos = Arrays.binarySearch(ids, lo, Math.min(hi + 1, size), id);
+            if (pos >= 0) {
+                candidates[kept++] = id;
+                lo = pos + 1;
+            } else {
+                lo = -(pos + 1);
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Helper method to merge a sorted array with a posting list, dropping duplicates.
+     *
+     * @param a    A sorted array of IDs.
+     * @param list The posting list to merge in.
+     * @return A new sorted array holding the union.
+     */
+    private static int[] union(int[] a, PostingList list) {
+        int[] b = list.ids();
+        int bSize = list.size();
+        int[] merged = new int[a.length + bSize];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < bSize) {
+            if (a[i] < b[j]) {
+                merged[n++] = a[i++];
+            } else if (a[i] > b[j]) {
+                merged[n++] = b[j++];
+            } else {
+                merged[n++] = a[i++];
+                j++;
+            }
+        }
+        while (i < a.length) merged[n++] = a[i++];
+        while (j < bSize) merged[n++] = b[j++];
+        return n == merged.length ? merged : Arrays.copyOf(merged, n);
+    }
+}
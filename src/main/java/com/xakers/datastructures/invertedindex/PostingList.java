@@ -0,0 +1,136 @@
+package main.java.com.xakers.datastructures.invertedindex;
+
+import java.util.Arrays;
+
+/**
+ * A compact posting list: a sorted, duplicate-free array of primitive record IDs
+ * that grows geometrically, with a second array holding the same IDs in the order
+ * they were added, so the list can also be read newest first without sorting.
+ * <p>
+ * IDs usually arrive in increasing order, in which case an insert is an append to
+ * both arrays. Other inserts binary-search the position in the sorted array and shift
+ * its tail. Removals binary-search the sorted array, scan the arrival order for the
+ * ID, and shift the tails of both.
+ *
+ * @author Xavier Akers
+ * @version 2026-10-16
+ * @since 2026-10-16
+ */
+class PostingList {
+    private int[] ids;      // Sorted IDs, only the first size entries are used
+    private int[] order;    // The same IDs in the order they were added
+    private int size;       // Number of IDs in the list
+
+    /**
+     * Constructs an empty posting list.
+     */
+    PostingList() {
+        this.ids = new int[4];
+        this.order = new int[4];
+        this.size = 0;
+    }
+
+    /**
+     * Constructs a posting list that takes over arrays of IDs.
+     *
+     * @param ids   The IDs in ascending order, without duplicates; the array must not be empty.
+     * @param order The same IDs in the order they were added.
+     */
+    PostingList(int[] ids, int[] order) {
+        this.ids = ids;
+        this.order = order;
+        this.size = ids.length;
+    }
+
+    /**
+     * Adds an ID to the list, keeping it sorted.
+     *
+     * @param id The ID to add.
+     * @return True if the ID was added, false if it was already present.
+     */
+    boolean add(int id) {
+        int pos = size == 0 || ids[size - 1] < id ? -(size + 1) : Arrays.binarySearch(ids, 0, size, id);
+        if (pos >= 0) return false;
+
+        pos = -(pos + 1);
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            order = Arrays.copyOf(order, size * 2);
+        }
+        System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+        ids[pos] = id;
+        order[size] = id;
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes an ID from the list.
+     *
+     * @param id The ID to remove.
+     * @return True if the ID was found and removed.
+     */
+    boolean remove(int id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos < 0) return false;
+
+        System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+        int arrival = size - 1;
+        while (order[arrival] != id) {
+            arrival--;
+        }
+        System.arraycopy(order, arrival + 1, order, arrival, size - arrival - 1);
+        size--;
+        return true;
+    }
+
+    /**
+     * Returns the number of IDs in the list.
+     *
+     * @return The size of the list.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the backing array; only the first {@link #size()} entries are valid.
+     *
+     * @return The sorted IDs.
+     */
+    int[] ids() {
+        return ids;
+    }
+
+    /**
+     * Returns the backing array of IDs in the order they were added; only the first
+     * {@link #size()} entries are valid.
+     *
+     * @return The IDs, oldest first.
+     */
+    int[] order() {
+        return order;
+    }
+
+    /**
+     * Returns a copy of the IDs in ascending order.
+     *
+     * @return A new array holding the IDs.
+     */
+    int[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * Returns a copy of the IDs, most recently added first.
+     *
+     * @return A new array holding the IDs.
+     */
+    int[] toArrayNewestFirst() {
+        int[] result = new int[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = order[size - 1 - i];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,687 @@
+package main.java.com.xakers.datastructures.recordstore;
+
+import main.java.com.xakers.datastructures.stringpool.StringPool;
+import main.java.com.xakers.io.SnapshotReader;
+import main.java.com.xakers.io.SnapshotWriter;
+import main.java.com.xakers.model.PackedDate;
+import main.java.com.xakers.model.Seminar;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Stores seminar records outside the Java heap.
+ * <p>
+ * Every record occupies {@value #RECORD_SIZE} bytes of a direct {@link ByteBuffer}
+ * with a fixed layout:
+ * <pre>
+ *   0  id           int
+ *   4  length       int
+ *   8  x            short
+ *  10  y            short
+ *  12  cost         int
+ *  16  packed date  int
+ *  20  title        int   offset of the string in the arena
+ *  24  description  int   offset of the string in the arena
+ *  28  keywords     int   offset of the keyword list in the arena
+ * </pre>
+ * A record is identified by its byte offset in that buffer. Offsets are plain
+ * {@code int}s, stay valid until the record is removed, and are reused afterwards.
+ * <p>
+ * Strings live in a second direct buffer, the arena. A string is a header holding
+ * its length and width, followed by one byte per character when every character
+ * fits in Latin-1, or two bytes per character otherwise. Keywords repeat across
+ * most records, so they are not copied into the arena: a keyword list is a count
+ * followed by the keywords' codes in a {@link StringPool}, which the keyword index
+ * can share. The date string is not kept either, since {@link PackedDate#format}
+ * reproduces any valid date exactly from the packed field. Removing a record leaves
+ * its strings behind as garbage; once garbage makes up half of the arena, the live
+ * strings are copied into a fresh arena and the records' offsets are rewritten.
+ * <p>
+ * Both buffers grow by doubling into a new buffer; the old one is released when it
+ * is garbage collected. Since the heap holds no per-record objects, the garbage
+ * collector never scans the records. Reads go through {@link SeminarView}s.
+ * <p>
+ * Writes are not thread-safe, but reads of a record may run alongside them for as
+ * long as the record is not removed. Readers reach both buffers through one volatile
+ * holder that is replaced whenever either buffer is, and compaction rewrites the
+ * offsets in a copy of the record buffer rather than in place, so a reader always
+ * decodes strings from the arena its offsets belong to.
+ *
+ * @author Xavier Akers
+ * @version 2026-10-16
+ * @since 2026-10-16
+ */
+public class SeminarStore {
+    /** Size of one record in bytes. */
+    public static final int RECORD_SIZE = 32;
+
+    // Field offsets within a record
+    private static final int ID = 0;
+    private static final int LENGTH = 4;
+    private static final int X = 8;
+    private static final int Y = 10;
+    private static final int COST = 12;
+    private static final int PACKED_DATE = 16;
+    private static final int TITLE = 20;
+    private static final int DESCRIPTION = 24;
+    private static final int KEYWORDS = 28;
+
+    private static final int FREE = -1;                 // Title offset of a removed record
+    private static final int NONE = -1;                 // End of the free-list
+    private static final int INITIAL_RECORDS = 64;      // Initial record capacity
+    private static final int INITIAL_ARENA = 1 << 12;   // Initial arena capacity in bytes
+
+    private final StringPool keywordPool;   // Pool holding the keyword codes
+
+    private ByteBuffer records;     // Fixed-layout records
+    private int recordTop;          // Bytes of the record buffer handed out so far
+    private int freeRecord;         // Head of the removed-record free-list, chained through the ID field
+    private int size;               // Number of live records
+
+    private ByteBuffer arena;       // Strings and keyword lists
+    private int arenaTop;           // Bytes of the arena handed out so far
+    private int liveBytes;          // Bytes of the arena referenced by live records
+
+    private volatile Buffers shared; // The buffers as readers see them
+
+    /**
+     * The record buffer and the arena, published together so that a reader never pairs
+     * a record's offsets with an arena they do not belong to.
+     */
+    private static final class Buffers {
+        private final ByteBuffer records;   // Fixed-layout records
+        private final ByteBuffer arena;     // Strings and keyword lists
+
+        /**
+         * Constructs a pair of buffers.
+         *
+         * @param records The record buffer.
+         * @param arena   The arena.
+         */
+        private Buffers(ByteBuffer records, ByteBuffer arena) {
+            this.records = records;
+            this.arena = arena;
+        }
+    }
+
+    /**
+     * Constructs an empty store with a pool of its own for the keywords.
+     */
+    public SeminarStore() {
+        this(new StringPool());
+    }
+
+    /**
+     * Constructs an empty store.
+     *
+     * @param keywordPool The pool keywords are interned into.
+     */
+    public SeminarStore(StringPool keywordPool) {
+        this.keywordPool = keywordPool;
+        this.records = allocate(INITIAL_RECORDS * RECORD_SIZE);
+        this.arena = allocate(INITIAL_ARENA);
+        this.freeRecord = NONE;
+        publish();
+    }
+
+    /**
+     * Copies a seminar into the store.
+     *
+     * @param seminar The seminar to store.
+     * @return The offset of the new record.
+     * @throws IllegalArgumentException if the seminar's date is not a valid date
+     */
+    public int add(Seminar seminar) {
+        if (seminar.packedDate() == PackedDate.INVALID) {
+            throw new IllegalArgumentException("error: invalid date {" + seminar.date() + "}");
+        }
+        String[] keywords = seminar.keywords();
+        ensureArena(stringBytes(seminar.title()) + stringBytes(seminar.description())
+                + keywordListBytes(keywords.length));
+        int title = putString(seminar.title());
+        int description = putString(seminar.description());
+        int keywordList = reserve(keywordListBytes(keywords.length));
+        arena.putInt(keywordList, keywords.length);
+        for (int i = 0; i < keywords.length; i++) {
+            arena.putInt(keywordList + 4 * (i + 1), keywordPool.intern(keywords[i]));
+        }
+
+        int record = allocRecord();
+        records.putInt(record + ID, seminar.id());
+        records.putInt(record + LENGTH, seminar.length());
+        records.putShort(record + X, (short) seminar.x());
+        records.putShort(record + Y, (short) seminar.y());
+        records.putInt(record + COST, seminar.cost());
+        records.putInt(record + PACKED_DATE, seminar.packedDate());
+        records.putInt(record + TITLE, title);
+        records.putInt(record + DESCRIPTION, description);
+        records.putInt(record + KEYWORDS, keywordList);
+        size++;
+        return record;
+    }
+
+    /**
+     * Removes a record. Its offset may be handed out again by a later {@link #add}.
+     *
+     * @param record The offset of the record.
+     * @throws IllegalArgumentException if there is no live record at the offset
+     */
+    public void remove(int record) {
+        checkRecord(record);
+        liveBytes -= recordStringBytes(record);
+        records.putInt(record + TITLE, FREE);
+        records.putInt(record + ID, freeRecord);
+        freeRecord = record;
+        size--;
+    }
+
+    /**
+     * Returns a view of a record.
+     *
+     * @param record The offset of the record.
+     * @return A view that reads the record's fields from the store.
+     * @throws IllegalArgumentException if there is no live record at the offset
+     */
+    public SeminarView view(int record) {
+        checkRecord(record);
+        return new SeminarView(this, record);
+    }
+
+    /**
+     * Returns the number of records in the store.
+     *
+     * @return The number of records.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of bytes the store has allocated outside the heap.
+     *
+     * @return The capacity of the record buffer plus that of the arena.
+     */
+    public long offHeapBytes() {
+        return (long) records.capacity() + arena.capacity();
+    }
+
+    /**
+     * Writes the store to a snapshot: its counters, then the used bytes of the record
+     * buffer and of the arena exactly as they are laid out in memory. The keyword
+     * pool is not included; it is saved separately.
+     *
+     * @param out The snapshot being written.
+     * @throws IOException if the snapshot cannot be written.
+     */
+    public void writeTo(SnapshotWriter out) throws IOException {
+        out.putInt(recordTop);
+        out.putInt(freeRecord);
+        out.putInt(size);
+        out.putInt(arenaTop);
+        out.putInt(liveBytes);
+        out.putBytes(records, 0, recordTop);
+        out.putBytes(arena, 0, arenaTop);
+    }
+
+    /**
+     * Reads a store written by {@link #writeTo}. The store adopts the record and arena
+     * bytes as slices of the snapshot's mapping instead of copying them, so it can
+     * answer reads at once; pages are loaded from the file as they are touched.
+     *
+     * @param in          The snapshot being read.
+     * @param keywordPool The keyword pool restored from the same snapshot.
+     * @return The store.
+     * @throws IOException if the snapshot is truncated or its counters are inconsistent.
+     */
+    public static SeminarStore readFrom(SnapshotReader in, StringPool keywordPool) throws IOException {
+        int recordTop = in.getCount();
+        int freeRecord = in.getInt();
+        int size = in.getCount();
+        int arenaTop = in.getCount();
+        int liveBytes = in.getCount();
+        if (recordTop % RECORD_SIZE != 0 || size > recordTop / RECORD_SIZE || liveBytes > arenaTop
+                || (freeRecord != NONE && (freeRecord < 0 || freeRecord >= recordTop))) {
+            throw new IOException("error: corrupt snapshot, inconsistent record store");
+        }
+
+        SeminarStore store = new SeminarStore(keywordPool);
+        if (recordTop > 0) {
+            store.records = in.slice(recordTop);
+        }
+        if (arenaTop > 0) {
+            store.arena = in.slice(arenaTop);
+        }
+        store.recordTop = recordTop;
+        store.freeRecord = freeRecord;
+        store.size = size;
+        store.arenaTop = arenaTop;
+        store.liveBytes = liveBytes;
+        store.publish();
+        return store;
+    }
+
+    // ----------------------------------------------------------
+    // Field access for views
+    // ----------------------------------------------------------
+
+    /**
+     * Reads the ID of a record.
+     *
+     * @param record The offset of the record.
+     * @return The seminar ID.
+     */
+    int id(int record) {
+        return shared.records.getInt(record + ID);
+    }
+
+    /**
+     * Reads the length of a record.
+     *
+     * @param record The offset of the record.
+     * @return The seminar length.
+     */
+    int length(int record) {
+        return shared.records.getInt(record + LENGTH);
+    }
+
+    /**
+     * Reads the x-coordinate of a record.
+     *
+     * @param record The offset of the record.
+     * @return The x-coordinate.
+     */
+    int x(int record) {
+        return shared.records.getShort(record + X);
+    }
+
+    /**
+     * Reads the y-coordinate of a record.
+     *
+     * @param record The offset of the record.
+     * @return The y-coordinate.
+     */
+    int y(int record) {
+        return shared.records.getShort(record + Y);
+    }
+
+    /**
+     * Reads the cost of a record.
+     *
+     * @param record The offset of the record.
+     * @return The seminar cost.
+     */
+    int cost(int record) {
+        return shared.records.getInt(record + COST);
+    }
+
+    /**
+     * Reads the packed date of a record.
+     *
+     * @param record The offset of the record.
+     * @return The packed date.
+     */
+    int packedDate(int record) {
+        return shared.records.getInt(record + PACKED_DATE);
+    }
+
+    /**
+     * Reads the title of a record.
+     *
+     * @param record The offset of the record.
+     * @return The title.
+     */
+    String title(int record) {
+        Buffers buffers = shared;
+        return string(buffers.arena, buffers.records.getInt(record + TITLE));
+    }
+
+    /**
+     * Reads the date string of a record.
+     *
+     * @param record The offset of the record.
+     * @return The date as it was inserted.
+     */
+    String date(int record) {
+        return PackedDate.format(packedDate(record));
+    }
+
+    /**
+     * Reads the description of a record.
+     *
+     * @param record The offset of the record.
+     * @return The description.
+     */
+    String description(int record) {
+        Buffers buffers = shared;
+        return string(buffers.arena, buffers.records.getInt(record + DESCRIPTION));
+    }
+
+    /**
+     * Reads the number of keywords of a record.
+     *
+     * @param record The offset of the record.
+     * @return The number of keywords.
+     */
+    int keywordCount(int record) {
+        Buffers buffers = shared;
+        return buffers.arena.getInt(buffers.records.getInt(record + KEYWORDS));
+    }
+
+    /**
+     * Reads a keyword of a record.
+     *
+     * @param record The offset of the record.
+     * @param index  The position of the keyword, in [0, keywordCount(record)).
+     * @return The keyword.
+     */
+    String keyword(int record, int index) {
+        return keywordPool.string(keywordCode(record, index));
+    }
+
+    /**
+     * Reads the pool code of a keyword of a record.
+     *
+     * @param record The offset of the record.
+     * @param index  The position of the keyword, in [0, keywordCount(record)).
+     * @return The keyword code.
+     */
+    int keywordCode(int record, int index) {
+        Buffers buffers = shared;
+        return buffers.arena.getInt(buffers.records.getInt(record + KEYWORDS) + 4 * (index + 1));
+    }
+
+    /**
+     * Appends the string representation of a record to a builder, in the format of
+     * {@link Seminar#appendTo}, decoding the strings straight from the arena.
+     *
+     * @param record The offset of the record.
+     * @param sb     The builder to append to.
+     * @return The builder.
+     */
+    StringBuilder appendTo(int record, StringBuilder sb) {
+        Buffers buffers = shared;
+        ByteBuffer records = buffers.records;
+        ByteBuffer arena = buffers.arena;
+        sb.append("ID: ").append(records.getInt(record + ID)).append(", Title: ");
+        appendString(arena, records.getInt(record + TITLE), sb);
+        sb.append("\nDate: ");
+        PackedDate.appendTo(records.getInt(record + PACKED_DATE), sb);
+        sb.append(", Length: ").append(records.getInt(record + LENGTH))
+                .append(", X: ").append(records.getShort(record + X))
+                .append(", Y: ").append(records.getShort(record + Y))
+                .append(", Cost: ").append(records.getInt(record + COST))
+                .append("\nDescription: ");
+        appendString(arena, records.getInt(record + DESCRIPTION), sb);
+        sb.append("\nKeywords: ");
+        int keywordList = records.getInt(record + KEYWORDS);
+        int count = arena.getInt(keywordList);
+        for (int i = 0; i < count; i++) {
+            sb.append(keywordPool.string(arena.getInt(keywordList + 4 * (i + 1))));
+            if (i != count - 1)
+                sb.append(", ");
+        }
+        return sb;
+    }
+
+    // ----------------------------------------------------------
+    // Private Helper Methods
+    // ----------------------------------------------------------
+
+    /**
+     * Allocates a direct buffer in the platform's byte order.
+     *
+     * @param capacity The capacity in bytes.
+     * @return The buffer.
+     */
+    private static ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Checks that an offset refers to a live record.
+     *
+     * @param record The offset to check.
+     * @throws IllegalArgumentException if there is no live record at the offset
+     */
+    private void checkRecord(int record) {
+        if (record < 0 || record >= recordTop || record % RECORD_SIZE != 0
+                || shared.records.getInt(record + TITLE) == FREE) {
+            throw new IllegalArgumentException("error: no record at offset {" + record + "}");
+        }
+    }
+
+    /**
+     * Takes a record slot from the free-list, or from the end of the record buffer.
+     *
+     * @return The offset of the slot.
+     */
+    private int allocRecord() {
+        if (freeRecord != NONE) {
+            int record = freeRecord;
+            freeRecord = records.getInt(record + ID);
+            return record;
+        }
+        if (recordTop + RECORD_SIZE > records.capacity()) {
+            ByteBuffer grown = allocate(records.capacity() * 2);
+            grown.put(0, records, 0, recordTop);
+            records = grown;
+            publish();
+        }
+        int record = recordTop;
+        recordTop += RECORD_SIZE;
+        return record;
+    }
+
+    /**
+     * Makes room in the arena for a number of bytes, compacting it if at least half
+     * of it is garbage and growing it if that is not enough.
+     *
+     * @param bytes The number of bytes about to be written.
+     */
+    private void ensureArena(int bytes) {
+        if (arenaTop + bytes <= arena.capacity()) return;
+
+        boolean compact = arenaTop - liveBytes >= arenaTop / 2;
+        int needed = (compact ? liveBytes : arenaTop) + bytes;
+        int capacity = arena.capacity();
+        while (capacity < needed) {
+            capacity *= 2;
+        }
+        ByteBuffer target = allocate(capacity);
+        if (compact) {
+            // Readers may still be decoding through the old offsets, so rewrite a copy
+            ByteBuffer copy = allocate(records.capacity());
+            copy.put(0, records, 0, recordTop);
+            records = copy;
+            compactInto(target);
+        } else {
+            target.put(0, arena, 0, arenaTop);
+        }
+        arena = target;
+        publish();
+    }
+
+    /**
+     * Makes the current record buffer and arena the ones readers go through.
+     */
+    private void publish() {
+        shared = new Buffers(records, arena);
+    }
+
+    /**
+     * Copies the strings and keyword lists of every live record into a new arena,
+     * packed from its start, and points the records at the copies.
+     *
+     * @param target The new arena.
+     */
+    private void compactInto(ByteBuffer target) {
+        int top = 0;
+        for (int record = 0; record < recordTop; record += RECORD_SIZE) {
+            if (records.getInt(record + TITLE) == FREE) continue;
+
+            for (int field : new int[]{TITLE, DESCRIPTION}) {
+                int from = records.getInt(record + field);
+                int bytes = stringBytesAt(from);
+                target.put(top, arena, from, bytes);
+                records.putInt(record + field, top);
+                top += bytes;
+            }
+
+            int keywordList = records.getInt(record + KEYWORDS);
+            int bytes = keywordListBytes(arena.getInt(keywordList));
+            target.put(top, arena, keywordList, bytes);
+            records.putInt(record + KEYWORDS, top);
+            top += bytes;
+        }
+        arenaTop = top;
+        liveBytes = top;
+    }
+
+    /**
+     * Hands out arena bytes. The caller must have made room with {@link #ensureArena}.
+     *
+     * @param bytes The number of bytes, a multiple of 4.
+     * @return The offset of the first byte.
+     */
+    private int reserve(int bytes) {
+        int offset = arenaTop;
+        arenaTop += bytes;
+        liveBytes += bytes;
+        return offset;
+    }
+
+    /**
+     * Writes a string to the arena. The caller must have made room with {@link #ensureArena}.
+     *
+     * @param text The string.
+     * @return The offset of the string.
+     */
+    private int putString(String text) {
+        int length = text.length();
+        boolean wide = isWide(text);
+        int offset = reserve(stringBytes(text));
+        arena.putInt(offset, length << 1 | (wide ? 1 : 0));
+        int data = offset + 4;
+        for (int i = 0; i < length; i++) {
+            if (wide) {
+                arena.putChar(data + 2 * i, text.charAt(i));
+            } else {
+                arena.put(data + i, (byte) text.charAt(i));
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * Reads a string from an arena.
+     *
+     * @param arena  The arena holding the string.
+     * @param offset The offset of the string.
+     * @return The string.
+     */
+    private static String string(ByteBuffer arena, int offset) {
+        int header = arena.getInt(offset);
+        int length = header >>> 1;
+        if ((header & 1) == 0) {
+            byte[] bytes = new byte[length];
+            arena.get(offset + 4, bytes);
+            return new String(bytes, StandardCharsets.ISO_8859_1);
+        }
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = arena.getChar(offset + 4 + 2 * i);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Appends a string from an arena to a builder without creating a {@link String}.
+     *
+     * @param arena  The arena holding the string.
+     * @param offset The offset of the string.
+     * @param sb     The builder to append to.
+     */
+    private static void appendString(ByteBuffer arena, int offset, StringBuilder sb) {
+        int header = arena.getInt(offset);
+        int length = header >>> 1;
+        int data = offset + 4;
+        if ((header & 1) == 0) {
+            for (int i = 0; i < length; i++) {
+                sb.append((char) (arena.get(data + i) & 0xFF));
+            }
+        } else {
+            for (int i = 0; i < length; i++) {
+                sb.append(arena.getChar(data + 2 * i));
+            }
+        }
+    }
+
+    /**
+     * Counts the arena bytes a record's strings and keyword list occupy.
+     *
+     * @param record The offset of the record.
+     * @return The number of bytes.
+     */
+    private int recordStringBytes(int record) {
+        return stringBytesAt(records.getInt(record + TITLE))
+                + stringBytesAt(records.getInt(record + DESCRIPTION))
+                + keywordListBytes(arena.getInt(records.getInt(record + KEYWORDS)));
+    }
+
+    /**
+     * Returns the arena bytes a stored string occupies.
+     *
+     * @param offset The offset of the string.
+     * @return The number of bytes, header and padding included.
+     */
+    private int stringBytesAt(int offset) {
+        int header = arena.getInt(offset);
+        return align(4 + ((header >>> 1) << (header & 1)));
+    }
+
+    /**
+     * Returns the arena bytes a string will occupy.
+     *
+     * @param text The string.
+     * @return The number of bytes, header and padding included.
+     */
+    private static int stringBytes(String text) {
+        return align(4 + (isWide(text) ? 2 * text.length() : text.length()));
+    }
+
+    /**
+     * Returns the arena bytes a keyword list occupies.
+     *
+     * @param count The number of keywords.
+     * @return The number of bytes.
+     */
+    private static int keywordListBytes(int count) {
+        return 4 * (count + 1);
+    }
+
+    /**
+     * Checks whether a string needs two bytes per character.
+     *
+     * @param text The string.
+     * @return {@code true} if a character lies outside Latin-1.
+     */
+    private static boolean isWide(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0xFF) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Rounds a byte count up to a multiple of 4, keeping arena headers aligned.
+     *
+     * @param bytes The byte count.
+     * @return The rounded count.
+     */
+    private static int align(int bytes) {
+        return (bytes + 3) & ~3;
+    }
+}
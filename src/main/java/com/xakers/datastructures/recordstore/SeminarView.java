@@ -0,0 +1,176 @@
+package main.java.com.xakers.datastructures.recordstore;
+
+import main.java.com.xakers.model.Seminar;
+
+/**
+ * A read-only view of one record in a {@link SeminarStore}.
+ * <p>
+ * A view holds only the store and the record offset; every accessor reads the
+ * field from the store when called. Numeric fields cost a single buffer read, and
+ * {@link #appendTo} formats the record without creating any strings. A view must
+ * not be used after its record has been removed from the store.
+ *
+ * @author Xavier Akers
+ * @version 2026-10-16
+ * @since 2026-10-16
+ */
+public final class SeminarView {
+    private final SeminarStore store;   // The store holding the record
+    private final int record;           // The offset of the record
+
+    /**
+     * Constructs a view of a record.
+     *
+     * @param store  The store holding the record.
+     * @param record The offset of the record.
+     */
+    SeminarView(SeminarStore store, int record) {
+        this.store = store;
+        this.record = record;
+    }
+
+    /**
+     * Returns the offset of the record in its store.
+     *
+     * @return The record offset.
+     */
+    public int record() {
+        return record;
+    }
+
+    /**
+     * Returns the seminar ID.
+     *
+     * @return The seminar ID.
+     */
+    public int id() {
+        return store.id(record);
+    }
+
+    /**
+     * Returns the seminar title.
+     *
+     * @return The title.
+     */
+    public String title() {
+        return store.title(record);
+    }
+
+    /**
+     * Returns the seminar date as it was inserted.
+     *
+     * @return The date.
+     */
+    public String date() {
+        return store.date(record);
+    }
+
+    /**
+     * Returns the seminar date packed into an int.
+     *
+     * @return The packed date.
+     */
+    public int packedDate() {
+        return store.packedDate(record);
+    }
+
+    /**
+     * Returns the seminar length.
+     *
+     * @return The length.
+     */
+    public int length() {
+        return store.length(record);
+    }
+
+    /**
+     * Returns the seminar x-coordinate.
+     *
+     * @return The x-coordinate.
+     */
+    public int x() {
+        return store.x(record);
+    }
+
+    /**
+     * Returns the seminar y-coordinate.
+     *
+     * @return The y-coordinate.
+     */
+    public int y() {
+        return store.y(record);
+    }
+
+    /**
+     * Returns the seminar cost.
+     *
+     * @return The cost.
+     */
+    public int cost() {
+        return store.cost(record);
+    }
+
+    /**
+     * Returns the seminar keywords.
+     *
+     * @return A new array of the keywords.
+     */
+    public String[] keywords() {
+        String[] keywords = new String[store.keywordCount(record)];
+        for (int i = 0; i < keywords.length; i++) {
+            keywords[i] = store.keyword(record, i);
+        }
+        return keywords;
+    }
+
+    /**
+     * Returns the codes of the seminar keywords in the store's keyword pool.
+     *
+     * @return A new array of the keyword codes.
+     */
+    public int[] keywordCodes() {
+        int[] codes = new int[store.keywordCount(record)];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = store.keywordCode(record, i);
+        }
+        return codes;
+    }
+
+    /**
+     * Returns the seminar description.
+     *
+     * @return The description.
+     */
+    public String description() {
+        return store.description(record);
+    }
+
+    /**
+     * Copies the record into a heap {@link Seminar}.
+     *
+     * @return A new seminar with the record's fields.
+     */
+    public Seminar toSeminar() {
+        return new Seminar(id(), title(), date(), length(), (short) x(), (short) y(),
+                cost(), keywords(), description());
+    }
+
+    /**
+     * Appends the string representation of the record to a builder,
+     * in the format of {@link Seminar#appendTo}.
+     *
+     * @param sb The builder to append to.
+     * @return The builder.
+     */
+    public StringBuilder appendTo(StringBuilder sb) {
+        return store.appendTo(record, sb);
+    }
+
+    /**
+     * @return a string representation of the record.
+     */
+    @Override
+    public String toString() {
+        return appendTo(new StringBuilder(128)).toString();
+    }
+}
@@ -0,0 +1,242 @@
+package main.java.com.xakers.datastructures.stringpool;
+
+import main.java.com.xakers.io.SnapshotReader;
+import main.java.com.xakers.io.SnapshotWriter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * An interning dictionary that maps each distinct string to one canonical
+ * {@link String} instance and a small {@code int} code.
+ * <p>
+ * Codes are handed out densely from 0 in order of first appearance and never
+ * change, so they can index arrays and be compared with {@code ==}. Entries are
+ * never removed. Strings can be interned straight from UTF-8 bytes, such as a
+ * token in a memory-mapped file; a string that is already in the pool is then
+ * found without decoding or allocating anything.
+ * <p>
+ * The hash table uses open addressing with linear probing over the codes, and
+ * stores each string's {@link String#hashCode} next to it. Lookups that find an
+ * existing entry do not modify the pool, so once every string has been interned
+ * the pool may be read from several threads; interning new strings is not thread-safe.
+ * {@link #string} alone may run alongside interning, for codes handed out before it
+ * was called: the code array is only ever replaced by a complete, larger copy.
+ *
+ * @author Xavier Akers
+ * @version 2026-10-16
+ * @since 2026-10-16
+ */
+public class StringPool {
+    /** Code returned for strings that are not in the pool. */
+    public static final int NOT_FOUND = -1;
+
+    private static final int MIN_CAPACITY = 16;
+
+    private volatile String[] strings;  // Canonical string per code, replaced when full
+    private int[] hashes;       // Hash code per code
+    private int size;           // Number of codes handed out
+
+    private int[] slots;        // Hash table of codes, NOT_FOUND for empty slots
+    private int mask;           // Slot count - 1, always a power of two
+
+    /**
+     * Constructs an empty pool.
+     */
+    public StringPool() {
+        this.strings = new String[MIN_CAPACITY];
+        this.hashes = new int[MIN_CAPACITY];
+        allocateSlots(2 * MIN_CAPACITY);
+    }
+
+    /**
+     * Returns the code of a string, adding it to the pool if it is new.
+     *
+     * @param text The string.
+     * @return The code of the string.
+     */
+    public int intern(String text) {
+        int hash = text.hashCode();
+        int slot = hash & mask;
+        while (slots[slot] != NOT_FOUND) {
+            int code = slots[slot];
+            if (hashes[code] == hash && strings[code].equals(text)) return code;
+            slot = (slot + 1) & mask;
+        }
+        return add(slot, text, hash);
+    }
+
+    /**
+     * Returns the code of a string given as UTF-8 bytes, adding it to the pool if it is new.
+     * ASCII bytes are hashed and compared in place; other text is decoded first.
+     *
+     * @param buffer The buffer holding the bytes.
+     * @param start  The offset of the first byte (inclusive).
+     * @param end    The offset just past the last byte (exclusive).
+     * @return The code of the string.
+     */
+    public int intern(ByteBuffer buffer, int start, int end) {
+        int hash = 0;
+        for (int pos = start; pos < end; pos++) {
+            byte b = buffer.get(pos);
+            if (b < 0) {
+                byte[] bytes = new byte[end - start];
+                buffer.get(start, bytes);
+                return intern(new String(bytes, StandardCharsets.UTF_8));
+            }
+            // Matches String.hashCode for ASCII text
+            hash = 31 * hash + b;
+        }
+
+        int length = end - start;
+        int slot = hash & mask;
+        while (slots[slot] != NOT_FOUND) {
+            int code = slots[slot];
+            if (hashes[code] == hash && asciiEquals(strings[code], buffer, start, length)) return code;
+            slot = (slot + 1) & mask;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(start, bytes);
+        return add(slot, new String(bytes, StandardCharsets.ISO_8859_1), hash);
+    }
+
+    /**
+     * Returns the code of a string without adding it to the pool.
+     *
+     * @param text The string.
+     * @return The code of the string, or {@link #NOT_FOUND} if it is not in the pool.
+     */
+    public int code(String text) {
+        int hash = text.hashCode();
+        int slot = hash & mask;
+        while (slots[slot] != NOT_FOUND) {
+            int code = slots[slot];
+            if (hashes[code] == hash && strings[code].equals(text)) return code;
+            slot = (slot + 1) & mask;
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Returns the canonical string of a code.
+     *
+     * @param code The code, in [0, size()).
+     * @return The canonical string.
+     */
+    public String string(int code) {
+        return strings[code];
+    }
+
+    /**
+     * Returns the number of strings in the pool; codes lie in [0, size()).
+     *
+     * @return The number of strings.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Writes the pool to a snapshot: the number of strings, then each string in code order.
+     *
+     * @param out The snapshot being written.
+     * @throws IOException if the snapshot cannot be written.
+     */
+    public void writeTo(SnapshotWriter out) throws IOException {
+        out.putInt(size);
+        for (int code = 0; code < size; code++) {
+            out.putString(strings[code]);
+        }
+    }
+
+    /**
+     * Reads a pool written by {@link #writeTo}. Every string gets back its old code.
+     *
+     * @param in The snapshot being read.
+     * @return The pool.
+     * @throws IOException if the snapshot is truncated or holds a string twice.
+     */
+    public static StringPool readFrom(SnapshotReader in) throws IOException {
+        StringPool pool = new StringPool();
+        int count = in.getCount();
+        for (int code = 0; code < count; code++) {
+            if (pool.intern(in.getString()) != code) {
+                throw new IOException("error: corrupt snapshot, repeated string at code {" + code + "}");
+            }
+        }
+        return pool;
+    }
+
+    // ----------------------------------------------------------
+    // Private Helper Methods
+    // ----------------------------------------------------------
+
+    /**
+     * Helper method to add a new string at an empty slot.
+     *
+     * @param slot The empty slot where the probe for the string ended.
+     * @param text The string.
+     * @param hash The hash code of the string.
+     * @return The new code.
+     */
+    private int add(int slot, String text, int hash) {
+        if (size == strings.length) {
+            strings = Arrays.copyOf(strings, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+        }
+        int code = size++;
+        strings[code] = text;
+        hashes[code] = hash;
+        slots[slot] = code;
+        if (size > (mask + 1) / 2) {
+            rehash((mask + 1) * 2);
+        }
+        return code;
+    }
+
+    /**
+     * Helper method to rebuild the hash table with a new number of slots.
+     *
+     * @param capacity The new number of slots (a power of two).
+     */
+    private void rehash(int capacity) {
+        allocateSlots(capacity);
+        for (int code = 0; code < size; code++) {
+            int slot = hashes[code] & mask;
+            while (slots[slot] != NOT_FOUND) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = code;
+        }
+    }
+
+    /**
+     * Helper method to allocate an empty hash table.
+     *
+     * @param capacity The number of slots (a power of two).
+     */
+    private void allocateSlots(int capacity) {
+        slots = new int[capacity];
+        Arrays.fill(slots, NOT_FOUND);
+        mask = capacity - 1;
+    }
+
+    /**
+     * Helper method to compare a string with ASCII bytes.
+     *
+     * @param text   The string.
+     * @param buffer The buffer holding the bytes.
+     * @param start  The offset of the first byte.
+     * @param length The number of bytes.
+     * @return {@code true} if the string consists of exactly those characters.
+     */
+    private static boolean asciiEquals(String text, ByteBuffer buffer, int start, int length) {
+        if (text.length() != length) return false;
+        for (int i = 0; i < length; i++) {
+            if (text.charAt(i) != buffer.get(start + i)) return false;
+        }
+        return true;
+    }
+}
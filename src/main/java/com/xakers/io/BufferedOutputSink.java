@@ -0,0 +1,147 @@
+package main.java.com.xakers.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
+/**
+ * An {@link OutputSink} that collects text in memory and writes it to a stream in
+ * large chunks.
+ * <p>
+ * Text is appended to a single {@link StringBuilder} that lives as long as the sink.
+ * Once it holds at least {@code capacity} characters it is copied into a reusable
+ * {@code char[]}, encoded and written in one call, so neither a line nor a chunk
+ * allocates once the buffers have grown to size. The sink is not thread-safe.
+ * <p>
+ * The underlying stream is flushed but never closed by the sink: the caller that opened
+ * it owns it.
+ *
+ * @author Xavier Akers
+ * @version 2026-10-16
+ * @since 2026-10-16
+ */
+public class BufferedOutputSink implements OutputSink {
+    /** Default number of characters collected before they are written out. */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final Writer writer;        // Encodes chunks onto the underlying stream
+    private final StringBuilder buffer; // Text not yet written out
+    private final int capacity;         // Buffered length that triggers a write
+    private char[] chunk;               // Reusable copy of the buffer handed to the writer
+
+    /**
+     * Creates a sink that writes to a print stream, using the stream's own charset.
+     *
+     * @param stream The destination stream, for example {@code System.out}.
+     */
+    public BufferedOutputSink(PrintStream stream) {
+        this(stream, stream.charset(), DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a sink that writes to an output stream.
+     *
+     * @param stream   The destination stream.
+     * @param charset  The charset used to encode the text.
+     * @param capacity The number of characters collected before they are written out.
+     */
+    public BufferedOutputSink(OutputStream stream, Charset charset, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("error: invalid capacity {" + capacity + "}");
+        }
+        this.writer = new OutputStreamWriter(stream, charset);
+        this.capacity = capacity;
+        this.buffer = new StringBuilder(capacity + (capacity >> 2));
+        this.chunk = new char[0];
+    }
+
+    /**
+     * Writes text.
+     *
+     * @param text The text to write.
+     */
+    @Override
+    public void print(CharSequence text) {
+        buffer.append(text);
+        drainIfFull();
+    }
+
+    /**
+     * Writes the decimal representation of an integer.
+     *
+     * @param value The value to write.
+     */
+    @Override
+    public void print(int value) {
+        buffer.append(value);
+        drainIfFull();
+    }
+
+    /**
+     * Writes the platform line separator.
+     */
+    @Override
+    public void println() {
+        buffer.append(LINE_SEPARATOR);
+        drainIfFull();
+    }
+
+    /**
+     * Writes the buffered text and flushes the underlying stream.
+     */
+    @Override
+    public void flush() {
+        drain();
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Flushes the sink. The underlying stream is left open.
+     */
+    @Override
+    public void close() {
+        flush();
+    }
+
+    // ----------------------------------------------------------
+    // Private Helper Methods
+    // ----------------------------------------------------------
+
+    /**
+     * Writes the buffered text out once it has reached the capacity.
+     */
+    private void drainIfFull() {
+        if (buffer.length() >= capacity) {
+            drain();
+        }
+    }
+
+    /**
+     * Copies the buffered text into the chunk, hands it to the writer and clears the buffer.
+     */
+    private void drain() {
+        int length = buffer.length();
+        if (length == 0) return;
+
+        if (chunk.length < length) {
+            chunk = new char[Math.max(length, capacity)];
+        }
+        buffer.getChars(0, length, chunk, 0);
+        buffer.setLength(0);
+        try {
+            writer.write(chunk, 0, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,401 @@
+package main.java.com.xakers.io;
+
+import main.java.com.xakers.datastructures.stringpool.StringPool;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads a command file through read-only memory mappings and tokenizes it in place.
+ * <p>
+ * The file is mapped one window at a time, so files of any size can be read. When
+ * a line runs past the end of the current window, the next window is mapped from
+ * the start of that line, so a line is always whole within one mapping; a line
+ * longer than the window doubles the window until it fits.
+ * <p>
+ * The reader walks the file line by line ({@code \n}, {@code \r\n} or {@code \r}
+ * terminated). Within the current line, tokens are runs of non-whitespace bytes
+ * (whitespace being any byte up to and including the ASCII space). Tokens can be
+ * compared, and parsed as {@code int}s or {@code short}s, straight from the mapped
+ * bytes; a {@code String} is only created when a caller asks for one. Text is
+ * decoded as UTF-8.
+ *
+ * @author Xavier Akers
+ * @version 2026-10-16
+ * @since 2026-10-16
+ */
+public class CommandReader implements AutoCloseable {
+    /** Default number of bytes mapped at a time. */
+    public static final int DEFAULT_WINDOW_SIZE = 1 << 26;
+
+    private final FileChannel channel;      // Channel of the command file
+    private final long size;                // Size of the file in bytes
+    private int windowSize;                 // Number of bytes mapped at a time
+    private MappedByteBuffer buffer;        // Read-only mapping of the current window
+    private long windowStart;               // File offset of the first byte of the window
+    private int limit;                      // Number of bytes in the window
+
+    private int next;           // Offset of the first byte after the current line
+    private int lineStart;      // Offset of the first byte of the current line
+    private int lineEnd;        // Offset just past the last byte of the current line
+    private int tokenStart;     // Offset of the first byte of the current token
+    private int tokenEnd;       // Offset just past the current token, also the scan position
+
+    /**
+     * Opens a command file and maps its first window, of the default size.
+     *
+     * @param filename The path of the command file.
+     * @throws IOException if the file cannot be opened or mapped.
+     */
+    public CommandReader(String filename) throws IOException {
+        this(filename, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Opens a command file and maps its first window.
+     *
+     * @param filename   The path of the command file.
+     * @param windowSize The number of bytes mapped at a time.
+     * @throws IOException if the file cannot be opened or mapped.
+     */
+    public CommandReader(String filename, int windowSize) throws IOException {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("error: invalid window size {" + windowSize + "}");
+        }
+        this.channel = FileChannel.open(Path.of(filename), StandardOpenOption.READ);
+        this.size = channel.size();
+        this.windowSize = windowSize;
+        try {
+            map(0);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Advances to the next line of the file.
+     *
+     * @return {@code true} if there is a next line, {@code false} at the end of the file.
+     * @throws UncheckedIOException if the next window of the file cannot be mapped.
+     */
+    public boolean nextLine() {
+        if (windowStart + next >= size) return false;
+
+        int pos;
+        while (true) {
+            lineStart = next;
+            pos = lineStart;
+            while (pos < limit && buffer.get(pos) != '\n' && buffer.get(pos) != '\r') {
+                pos++;
+            }
+            // The line and its terminator, which may be two bytes, must lie inside the window
+            if (pos + 1 < limit || windowStart + limit == size) break;
+
+            carryLine();
+        }
+        lineEnd = pos;
+        if (pos < limit && buffer.get(pos) == '\r') pos++;
+        if (pos < limit && buffer.get(pos) == '\n' && (pos == lineEnd || buffer.get(pos - 1) == '\r')) pos++;
+        next = pos;
+
+        tokenStart = tokenEnd = lineStart;
+        return true;
+    }
+
+    /**
+     * Advances to the next line, failing if the file has ended.
+     *
+     * @throws NoSuchElementException if there is no next line.
+     */
+    public void requireLine() {
+        if (!nextLine()) {
+            throw new NoSuchElementException("error: unexpected end of command file");
+        }
+    }
+
+    /**
+     * Counts the tokens of the current line without moving the token position.
+     *
+     * @return The number of tokens on the line.
+     */
+    public int countTokens() {
+        int count = 0;
+        boolean inToken = false;
+        for (int pos = lineStart; pos < lineEnd; pos++) {
+            boolean space = isSpace(buffer.get(pos));
+            if (!space && !inToken) count++;
+            inToken = !space;
+        }
+        return count;
+    }
+
+    /**
+     * Advances to the next token of the current line.
+     *
+     * @return {@code true} if there is a next token on the line.
+     */
+    public boolean nextToken() {
+        int pos = tokenEnd;
+        while (pos < lineEnd && isSpace(buffer.get(pos))) {
+            pos++;
+        }
+        if (pos == lineEnd) {
+            tokenStart = tokenEnd = lineEnd;
+            return false;
+        }
+
+        tokenStart = pos;
+        while (pos < lineEnd && !isSpace(buffer.get(pos))) {
+            pos++;
+        }
+        tokenEnd = pos;
+        return true;
+    }
+
+    /**
+     * Advances to the next token, failing if the line has no more tokens.
+     *
+     * @throws NoSuchElementException if there is no next token on the line.
+     */
+    public void requireToken() {
+        if (!nextToken()) {
+            throw new NoSuchElementException("error: missing argument in command file");
+        }
+    }
+
+    /**
+     * Compares the current token with an ASCII string.
+     *
+     * @param ascii The string to compare with.
+     * @return {@code true} if the token consists of exactly the characters of {@code ascii}.
+     */
+    public boolean tokenEquals(String ascii) {
+        if (tokenEnd - tokenStart != ascii.length()) return false;
+        for (int i = 0; i < ascii.length(); i++) {
+            if (buffer.get(tokenStart + i) != ascii.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the current token as a string.
+     *
+     * @return The token.
+     */
+    public String token() {
+        return decode(tokenStart, tokenEnd);
+    }
+
+    /**
+     * Returns the remaining tokens of the current line as strings, consuming them.
+     *
+     * @return The remaining tokens.
+     */
+    public String[] remainingTokens() {
+        int start = tokenEnd;
+        int count = 0;
+        while (nextToken()) count++;
+
+        String[] tokens = new String[count];
+        tokenEnd = start;
+        for (int i = 0; i < count; i++) {
+            nextToken();
+            tokens[i] = token();
+        }
+        return tokens;
+    }
+
+    /**
+     * Returns the code of the current token in a string pool, adding it if it is new.
+     * A token the pool already holds is looked up straight from the mapped bytes.
+     *
+     * @param pool The pool to intern into.
+     * @return The code of the token.
+     */
+    public int internToken(StringPool pool) {
+        return pool.intern(buffer, tokenStart, tokenEnd);
+    }
+
+    /**
+     * Interns the remaining tokens of the current line into a string pool, consuming them.
+     *
+     * @param pool The pool to intern into.
+     * @return The codes of the remaining tokens.
+     */
+    public int[] internRemainingTokens(StringPool pool) {
+        int start = tokenEnd;
+        int count = 0;
+        while (nextToken()) count++;
+
+        int[] codes = new int[count];
+        tokenEnd = start;
+        for (int i = 0; i < count; i++) {
+            nextToken();
+            codes[i] = internToken(pool);
+        }
+        return codes;
+    }
+
+    /**
+     * Parses the current token as a decimal {@code int}, with the same rules as
+     * {@link Integer#parseInt(String)}.
+     *
+     * @return The parsed value.
+     * @throws NumberFormatException if the token is not a valid {@code int}.
+     */
+    public int parseInt() {
+        long value = parseLong(Integer.MIN_VALUE, Integer.MAX_VALUE);
+        return (int) value;
+    }
+
+    /**
+     * Parses the current token as a decimal {@code short}, with the same rules as
+     * {@link Short#parseShort(String)}.
+     *
+     * @return The parsed value.
+     * @throws NumberFormatException if the token is not a valid {@code short}.
+     */
+    public short parseShort() {
+        return (short) parseLong(Short.MIN_VALUE, Short.MAX_VALUE);
+    }
+
+    /**
+     * Returns the current line as a string, exactly as it appears in the file.
+     *
+     * @return The line without its terminator.
+     */
+    public String line() {
+        return decode(lineStart, lineEnd);
+    }
+
+    /**
+     * Returns the current line as a string without leading and trailing whitespace.
+     *
+     * @return The trimmed line.
+     */
+    public String trimmedLine() {
+        int start = lineStart;
+        int end = lineEnd;
+        while (start < end && isSpace(buffer.get(start))) start++;
+        while (end > start && isSpace(buffer.get(end - 1))) end--;
+        return decode(start, end);
+    }
+
+    /**
+     * Closes the file channel. The mappings are released once they are no longer reachable.
+     *
+     * @throws IOException if the channel cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // ----------------------------------------------------------
+    // Private Helper Methods
+    // ----------------------------------------------------------
+
+    /**
+     * Maps the window beginning at a file offset.
+     *
+     * @param start The file offset of the first byte of the window.
+     * @throws IOException if the window cannot be mapped.
+     */
+    private void map(long start) throws IOException {
+        int length = (int) Math.min(windowSize, size - start);
+        this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        this.windowStart = start;
+        this.limit = length;
+        this.next = 0;
+    }
+
+    /**
+     * Helper method to map the next window from the start of the current line, which
+     * runs past the end of the current window. If the window already starts at the
+     * line, the line is longer than the window, so the window size is doubled.
+     *
+     * @throws UncheckedIOException if the window cannot be mapped.
+     */
+    private void carryLine() {
+        if (lineStart == 0) {
+            if (windowSize == Integer.MAX_VALUE) {
+                throw new IllegalStateException("error: command line longer than 2 GB");
+            }
+            windowSize = (int) Math.min(2L * windowSize, Integer.MAX_VALUE);
+        }
+        try {
+            map(windowStart + lineStart);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Helper method to parse the current token as a bounded decimal integer.
+     *
+     * @param min The smallest accepted value.
+     * @param max The largest accepted value.
+     * @return The parsed value.
+     * @throws NumberFormatException if the token is not a decimal integer within [min, max].
+     */
+    private long parseLong(long min, long max) {
+        int pos = tokenStart;
+        boolean negative = false;
+        if (pos < tokenEnd && (buffer.get(pos) == '-' || buffer.get(pos) == '+')) {
+            negative = buffer.get(pos) == '-';
+            pos++;
+        }
+        if (pos == tokenEnd) throw invalidNumber();
+
+        long value = 0;
+        for (; pos < tokenEnd; pos++) {
+            int digit = buffer.get(pos) - '0';
+            if (digit < 0 || digit > 9) throw invalidNumber();
+
+            value = value * 10 + digit;
+            if (value > max + 1) throw invalidNumber();
+        }
+        value = negative ? -value : value;
+        if (value < min || value > max) throw invalidNumber();
+        return value;
+    }
+
+    /**
+     * Creates the exception for a token that is not a valid number.
+     *
+     * @return The exception.
+     */
+    private NumberFormatException invalidNumber() {
+        return new NumberFormatException("For input string: \"" + token() + "\"");
+    }
+
+    /**
+     * Decodes a range of the file as UTF-8.
+     *
+     * @param start The first byte (inclusive).
+     * @param end   The last byte (exclusive).
+     * @return The decoded string.
+     */
+    private String decode(int start, int end) {
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Checks whether a byte is whitespace (a control character or the ASCII space).
+     *
+     * @param b The byte to check.
+     * @return {@code true} for whitespace.
+     */
+    private static boolean isSpace(byte b) {
+        return b >= 0 && b <= ' ';
+    }
+}
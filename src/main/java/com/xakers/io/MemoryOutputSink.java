@@ -0,0 +1,87 @@
+package main.java.com.xakers.io;
+
+/**
+ * An {@link OutputSink} that keeps its text in memory until the owner copies it
+ * elsewhere, for example to hold the results of a command computed out of order.
+ * <p>
+ * The text lives in one {@link StringBuilder} that is reused after {@link #clear},
+ * so a sink recycled across commands stops allocating once it has grown to size.
+ * Flushing does nothing. The sink is not thread-safe.
+ *
+ * @author Xavier Akers
+ * @version 2026-10-16
+ * @since 2026-10-16
+ */
+public class MemoryOutputSink implements OutputSink {
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final StringBuilder buffer; // Text written so far
+
+    /**
+     * Creates an empty sink.
+     */
+    public MemoryOutputSink() {
+        this.buffer = new StringBuilder(256);
+    }
+
+    /**
+     * Writes text.
+     *
+     * @param text The text to write.
+     */
+    @Override
+    public void print(CharSequence text) {
+        buffer.append(text);
+    }
+
+    /**
+     * Writes the decimal representation of an integer.
+     *
+     * @param value The value to write.
+     */
+    @Override
+    public void print(int value) {
+        buffer.append(value);
+    }
+
+    /**
+     * Writes the platform line separator.
+     */
+    @Override
+    public void println() {
+        buffer.append(LINE_SEPARATOR);
+    }
+
+    /**
+     * Does nothing: the text stays in memory until it is read.
+     */
+    @Override
+    public void flush() {
+        // Nothing to push
+    }
+
+    /**
+     * Does nothing: the sink holds no resources.
+     */
+    @Override
+    public void close() {
+        // Nothing to release
+    }
+
+    /**
+     * Returns the text written since the sink was created or last cleared. The
+     * returned sequence is the sink's own buffer and changes with it.
+     *
+     * @return The text.
+     */
+    public CharSequence text() {
+        return buffer;
+    }
+
+    /**
+     * Discards the text, keeping the buffer for reuse.
+     */
+    public void clear() {
+        buffer.setLength(0);
+    }
+}
@@ -0,0 +1,67 @@
+package main.java.com.xakers.io;
+
+/**
+ * Destination for the text written by the database and its trees.
+ * <p>
+ * Writers build their text in place (typically in a {@link StringBuilder} they reuse
+ * across calls) and hand it to the sink as a {@link CharSequence}; the sink copies the
+ * characters out before returning, so the caller is free to clear and refill the same
+ * builder for the next line. Integers are accepted directly so that counts and IDs can
+ * be written without creating a {@code String}.
+ *
+ * @author Xavier Akers
+ * @version 2026-10-16
+ * @since 2026-10-16
+ */
+public interface OutputSink extends AutoCloseable {
+
+    /**
+     * Writes text.
+     *
+     * @param text The text to write; its characters are copied before returning.
+     */
+    void print(CharSequence text);
+
+    /**
+     * Writes the decimal representation of an integer.
+     *
+     * @param value The value to write.
+     */
+    void print(int value);
+
+    /**
+     * Writes a line separator.
+     */
+    void println();
+
+    /**
+     * Writes text followed by a line separator.
+     *
+     * @param text The text to write; its characters are copied before returning.
+     */
+    default void println(CharSequence text) {
+        print(text);
+        println();
+    }
+
+    /**
+     * Writes the decimal representation of an integer followed by a line separator.
+     *
+     * @param value The value to write.
+     */
+    default void println(int value) {
+        print(value);
+        println();
+    }
+
+    /**
+     * Pushes any buffered text to the underlying destination.
+     */
+    void flush();
+
+    /**
+     * Flushes the sink and releases its resources.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,233 @@
+package main.java.com.xakers.io;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * An {@link OutputSink} that hands its text to a writer thread, so that encoding and
+ * writing overlap with the work of the thread producing the text.
+ * <p>
+ * Text is collected in a chunk of at least {@code chunkCapacity} characters. A full
+ * chunk is passed to the writer thread through a bounded ring buffer, and the writer
+ * prints it to the target sink and hands it back through a second ring buffer for
+ * reuse. Only {@code depth} chunks exist, so a producer that outruns the writer waits
+ * for a free chunk instead of allocating. Chunks are written in the order they were
+ * filled, so the output is identical to writing to the target directly.
+ * <p>
+ * {@link #flush} waits until the writer has printed everything written so far and
+ * flushed the target, so that text sent to another stream afterwards (such as
+ * {@code System.err}) stays in order. The sink must be used by a single producer
+ * thread, and the target must not be used by anyone else until the sink is closed.
+ *
+ * @author Xavier Akers
+ * @version 2026-10-16
+ * @since 2026-10-16
+ */
+public class PipelinedOutputSink implements OutputSink {
+    /** Default number of characters collected before a chunk is handed over. */
+    public static final int DEFAULT_CHUNK_CAPACITY = 1 << 14;
+    /** Default number of chunks in circulation. */
+    public static final int DEFAULT_DEPTH = 8;
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final OutputSink target;                    // Sink the writer thread prints to
+    private final int chunkCapacity;                    // Chunk length that triggers a hand-over
+    private final BlockingQueue<Object> filled;         // Chunks and flush requests, in order
+    private final BlockingQueue<StringBuilder> free;    // Chunks printed and ready for reuse
+    private final Thread writer;                        // Thread printing the chunks
+    private volatile RuntimeException failure;          // First failure of the writer thread
+    private StringBuilder chunk;                        // Chunk being filled
+    private boolean closed;                             // Whether close has been called
+
+    /**
+     * Creates a sink with the default chunk capacity and depth, and starts its writer thread.
+     *
+     * @param target The sink the text is finally written to.
+     */
+    public PipelinedOutputSink(OutputSink target) {
+        this(target, DEFAULT_CHUNK_CAPACITY, DEFAULT_DEPTH);
+    }
+
+    /**
+     * Creates a sink and starts its writer thread.
+     *
+     * @param target        The sink the text is finally written to.
+     * @param chunkCapacity The number of characters collected before a chunk is handed over.
+     * @param depth         The number of chunks in circulation, at least 2.
+     */
+    public PipelinedOutputSink(OutputSink target, int chunkCapacity, int depth) {
+        if (chunkCapacity <= 0) {
+            throw new IllegalArgumentException("error: invalid chunk capacity {" + chunkCapacity + "}");
+        }
+        if (depth < 2) {
+            throw new IllegalArgumentException("error: invalid depth {" + depth + "}");
+        }
+        this.target = target;
+        this.chunkCapacity = chunkCapacity;
+        // One spare slot for a flush request on top of every chunk
+        this.filled = new ArrayBlockingQueue<>(depth + 1);
+        this.free = new ArrayBlockingQueue<>(depth);
+        for (int i = 1; i < depth; i++) {
+            free.add(new StringBuilder(chunkCapacity + (chunkCapacity >> 2)));
+        }
+        this.chunk = new StringBuilder(chunkCapacity + (chunkCapacity >> 2));
+        this.writer = new Thread(this::drain, "output-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Writes text.
+     *
+     * @param text The text to write.
+     */
+    @Override
+    public void print(CharSequence text) {
+        chunk.append(text);
+        handOverIfFull();
+    }
+
+    /**
+     * Writes the decimal representation of an integer.
+     *
+     * @param value The value to write.
+     */
+    @Override
+    public void print(int value) {
+        chunk.append(value);
+        handOverIfFull();
+    }
+
+    /**
+     * Writes the platform line separator.
+     */
+    @Override
+    public void println() {
+        chunk.append(LINE_SEPARATOR);
+        handOverIfFull();
+    }
+
+    /**
+     * Hands over the current chunk and waits until the writer has printed it and
+     * flushed the target.
+     */
+    @Override
+    public void flush() {
+        checkFailure();
+        handOver();
+        CountDownLatch flushed = new CountDownLatch(1);
+        put(flushed);
+        try {
+            flushed.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("error: interrupted while flushing output", e);
+        }
+        checkFailure();
+    }
+
+    /**
+     * Flushes the sink and stops the writer thread. The target is flushed but left open.
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+
+        closed = true;
+        try {
+            flush();
+        } finally {
+            writer.interrupt();
+        }
+    }
+
+    // ----------------------------------------------------------
+    // Private Helper Methods
+    // ----------------------------------------------------------
+
+    /**
+     * Hands the current chunk over once it has reached the capacity.
+     */
+    private void handOverIfFull() {
+        if (chunk.length() >= chunkCapacity) {
+            checkFailure();
+            handOver();
+        }
+    }
+
+    /**
+     * Passes the current chunk to the writer and takes a free one to fill next.
+     */
+    private void handOver() {
+        if (chunk.length() == 0) return;
+
+        put(chunk);
+        try {
+            chunk = free.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("error: interrupted while writing output", e);
+        }
+    }
+
+    /**
+     * Helper method to queue a chunk or flush request for the writer.
+     *
+     * @param item The chunk or flush request.
+     */
+    private void put(Object item) {
+        try {
+            filled.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("error: interrupted while writing output", e);
+        }
+    }
+
+    /**
+     * Rethrows a failure of the writer thread in the producer.
+     */
+    private void checkFailure() {
+        RuntimeException e = failure;
+        if (e != null) throw e;
+    }
+
+    /**
+     * Body of the writer thread: prints chunks in order, recycling them, and answers
+     * flush requests once everything before them has been flushed. After a failure
+     * chunks are discarded but flush requests are still answered.
+     */
+    private void drain() {
+        try {
+            while (true) {
+                Object item = filled.take();
+                if (item instanceof CountDownLatch) {
+                    if (failure == null) {
+                        try {
+                            target.flush();
+                        } catch (RuntimeException e) {
+                            failure = e;
+                        }
+                    }
+                    ((CountDownLatch) item).countDown();
+                    continue;
+                }
+
+                StringBuilder text = (StringBuilder) item;
+                if (failure == null) {
+                    try {
+                        target.print(text);
+                    } catch (RuntimeException e) {
+                        failure = e;
+                    }
+                }
+                text.setLength(0);
+                free.put(text);
+            }
+        } catch (InterruptedException e) {
+            // Closed: everything handed over has been answered
+        }
+    }
+}
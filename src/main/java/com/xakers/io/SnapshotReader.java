@@ -0,0 +1,200 @@
+package main.java.com.xakers.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a snapshot file written by a {@link SnapshotWriter} through a memory mapping.
+ * <p>
+ * The file is mapped privately: pages are read from the file on first access, and a
+ * page that is written to becomes a private copy that never reaches the file. This
+ * lets a structure adopt a {@link #slice} of the mapping as its own storage and keep
+ * modifying it, without first copying the bytes to the heap. Arrays are bulk-copied
+ * out of the mapping. A private mapping needs a channel open for writing, so the
+ * file must be writable, although it is never modified.
+ * <p>
+ * Every read checks that the bytes are there, so a truncated or corrupt snapshot
+ * fails with an {@link IOException} instead of an unchecked exception.
+ *
+ * @author Xavier Akers
+ * @version 2026-10-16
+ * @since 2026-10-16
+ */
+public final class SnapshotReader implements AutoCloseable {
+    private final FileChannel channel;      // Channel of the snapshot file
+    private final MappedByteBuffer buffer;  // Private mapping of the whole file
+
+    /**
+     * Opens and maps a snapshot file and checks its header.
+     *
+     * @param filename The path of the snapshot file.
+     * @throws IOException if the file cannot be opened or mapped, is larger than 2 GB,
+     *                     or is not a snapshot of this version and byte order.
+     */
+    public SnapshotReader(String filename) throws IOException {
+        this.channel = FileChannel.open(Path.of(filename), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("error: snapshot larger than 2 GB {" + filename + "}");
+            }
+            this.buffer = channel.map(FileChannel.MapMode.PRIVATE, 0, size);
+            buffer.order(ByteOrder.nativeOrder());
+
+            int magic = getInt();
+            if (magic != SnapshotWriter.MAGIC) {
+                throw new IOException(Integer.reverseBytes(magic) == SnapshotWriter.MAGIC
+                        ? "error: snapshot written with another byte order {" + filename + "}"
+                        : "error: not a snapshot {" + filename + "}");
+            }
+            int version = getInt();
+            if (version != SnapshotWriter.VERSION) {
+                throw new IOException("error: unsupported snapshot version {" + version + "}");
+            }
+            expect(SnapshotWriter.BYTE_ORDER_MARK);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads an {@code int}.
+     *
+     * @return The value.
+     * @throws IOException if the snapshot ends first.
+     */
+    public int getInt() throws IOException {
+        require(Integer.BYTES);
+        return buffer.getInt();
+    }
+
+    /**
+     * Reads a {@code long}.
+     *
+     * @return The value.
+     * @throws IOException if the snapshot ends first.
+     */
+    public long getLong() throws IOException {
+        require(Long.BYTES);
+        return buffer.getLong();
+    }
+
+    /**
+     * Reads an {@code int} and checks that it has the expected value, such as a section tag.
+     *
+     * @param expected The expected value.
+     * @throws IOException if the snapshot ends first or holds another value.
+     */
+    public void expect(int expected) throws IOException {
+        int value = getInt();
+        if (value != expected) {
+            throw new IOException("error: corrupt snapshot, expected {" + expected + "} at offset {"
+                    + (buffer.position() - Integer.BYTES) + "} but found {" + value + "}");
+        }
+    }
+
+    /**
+     * Reads a non-negative count, such as an array length.
+     *
+     * @return The count.
+     * @throws IOException if the snapshot ends first or the count is negative.
+     */
+    public int getCount() throws IOException {
+        int count = getInt();
+        if (count < 0) {
+            throw new IOException("error: corrupt snapshot, negative count {" + count + "}");
+        }
+        return count;
+    }
+
+    /**
+     * Reads an array of {@code int}s.
+     *
+     * @param length The number of values.
+     * @return A new array of the values.
+     * @throws IOException if the snapshot ends first.
+     */
+    public int[] getInts(int length) throws IOException {
+        require((long) length * Integer.BYTES);
+        int[] values = new int[length];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + length * Integer.BYTES);
+        return values;
+    }
+
+    /**
+     * Reads {@code long}s into a range of an array.
+     *
+     * @param values The array to fill.
+     * @param from   The first index to fill.
+     * @param length The number of values.
+     * @throws IOException if the snapshot ends first.
+     */
+    public void getLongs(long[] values, int from, int length) throws IOException {
+        require((long) length * Long.BYTES);
+        buffer.asLongBuffer().get(values, from, length);
+        buffer.position(buffer.position() + length * Long.BYTES);
+    }
+
+    /**
+     * Reads a string written by {@link SnapshotWriter#putString}.
+     *
+     * @return The string.
+     * @throws IOException if the snapshot ends first.
+     */
+    public String getString() throws IOException {
+        int length = getCount();
+        require(length);
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the next bytes of the mapping as a writable buffer in native byte order,
+     * without copying them. Writes to the slice stay private to this process.
+     *
+     * @param length The number of bytes.
+     * @return A buffer whose position is 0 and whose capacity is {@code length}.
+     * @throws IOException if the snapshot ends first.
+     */
+    public ByteBuffer slice(int length) throws IOException {
+        require(length);
+        ByteBuffer slice = buffer.slice(buffer.position(), length).order(ByteOrder.nativeOrder());
+        buffer.position(buffer.position() + length);
+        return slice;
+    }
+
+    /**
+     * Closes the file channel. Slices stay valid until they are no longer reachable.
+     *
+     * @throws IOException if the channel cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // ----------------------------------------------------------
+    // Private Helper Methods
+    // ----------------------------------------------------------
+
+    /**
+     * Helper method to check that a number of bytes remains.
+     *
+     * @param bytes The number of bytes about to be read.
+     * @throws IOException if fewer bytes remain.
+     */
+    private void require(long bytes) throws IOException {
+        if (bytes < 0 || bytes > buffer.remaining()) {
+            throw new IOException("error: truncated snapshot at offset {" + buffer.position() + "}");
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package main.java.com.xakers.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes a binary snapshot file, to be read back with a {@link SnapshotReader}.
+ * <p>
+ * A snapshot starts with a header of three {@code int}s: the magic number
+ * {@value #MAGIC}, the format version {@value #VERSION} and the platform's byte
+ * order mark. Everything after the header is written by the structures being
+ * saved, in the platform's native byte order, so that the reader can use the
+ * mapped bytes as they are. Arrays are written without padding.
+ * <p>
+ * Bytes are staged in a direct buffer and written to a temporary file next to the
+ * target. {@link #commit} forces the file to disk and renames it over the target;
+ * closing a writer that was not committed deletes the temporary file. A failure or
+ * crash while saving therefore leaves any previous snapshot intact.
+ *
+ * @author Xavier Akers
+ * @version 2026-10-16
+ * @since 2026-10-16
+ */
+public final class SnapshotWriter implements AutoCloseable {
+    /** Magic number at the start of every snapshot ("SDBS"). */
+    public static final int MAGIC = 0x53444253;
+    /** Version of the snapshot format. */
+    public static final int VERSION = 4;
+    /** Byte order mark; reads back as itself only in the byte order it was written in. */
+    public static final int BYTE_ORDER_MARK = 0x01020304;
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final Path target;          // Path of the finished snapshot
+    private final Path temp;            // Path the snapshot is written to
+    private final FileChannel channel;  // Channel of the temporary file
+    private final ByteBuffer buffer;    // Staging buffer, flushed when full
+    private boolean committed;          // Whether the snapshot has replaced the target
+
+    /**
+     * Starts a snapshot and writes its header.
+     *
+     * @param filename The path of the snapshot file.
+     * @throws IOException if the temporary file cannot be created.
+     */
+    public SnapshotWriter(String filename) throws IOException {
+        this.target = Path.of(filename);
+        this.temp = target.resolveSibling(target.getFileName() + ".tmp");
+        this.channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.nativeOrder());
+        putInt(MAGIC);
+        putInt(VERSION);
+        putInt(BYTE_ORDER_MARK);
+    }
+
+    /**
+     * Writes an {@code int}.
+     *
+     * @param value The value.
+     * @throws IOException if the file cannot be written.
+     */
+    public void putInt(int value) throws IOException {
+        ensure(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    /**
+     * Writes a {@code long}.
+     *
+     * @param value The value.
+     * @throws IOException if the file cannot be written.
+     */
+    public void putLong(long value) throws IOException {
+        ensure(Long.BYTES);
+        buffer.putLong(value);
+    }
+
+    /**
+     * Writes a range of an {@code int} array.
+     *
+     * @param values The array.
+     * @param from   The first index to write.
+     * @param length The number of values.
+     * @throws IOException if the file cannot be written.
+     */
+    public void putInts(int[] values, int from, int length) throws IOException {
+        while (length > 0) {
+            ensure(Integer.BYTES);
+            int n = Math.min(length, buffer.remaining() / Integer.BYTES);
+            buffer.asIntBuffer().put(values, from, n);
+            buffer.position(buffer.position() + n * Integer.BYTES);
+            from += n;
+            length -= n;
+        }
+    }
+
+    /**
+     * Writes a range of a {@code long} array.
+     *
+     * @param values The array.
+     * @param from   The first index to write.
+     * @param length The number of values.
+     * @throws IOException if the file cannot be written.
+     */
+    public void putLongs(long[] values, int from, int length) throws IOException {
+        while (length > 0) {
+            ensure(Long.BYTES);
+            int n = Math.min(length, buffer.remaining() / Long.BYTES);
+            buffer.asLongBuffer().put(values, from, n);
+            buffer.position(buffer.position() + n * Long.BYTES);
+            from += n;
+            length -= n;
+        }
+    }
+
+    /**
+     * Writes a range of a buffer's bytes. The buffer's position is not changed.
+     *
+     * @param source The buffer.
+     * @param from   The offset of the first byte.
+     * @param length The number of bytes.
+     * @throws IOException if the file cannot be written.
+     */
+    public void putBytes(ByteBuffer source, int from, int length) throws IOException {
+        while (length > 0) {
+            ensure(1);
+            int n = Math.min(length, buffer.remaining());
+            buffer.put(buffer.position(), source, from, n);
+            buffer.position(buffer.position() + n);
+            from += n;
+            length -= n;
+        }
+    }
+
+    /**
+     * Writes a string as its UTF-8 byte count followed by the bytes.
+     *
+     * @param text The string.
+     * @throws IOException if the file cannot be written.
+     */
+    public void putString(String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        putInt(bytes.length);
+        putBytes(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+
+    /**
+     * Finishes the snapshot: flushes the staged bytes, forces the file to disk and
+     * renames it over the target.
+     *
+     * @throws IOException if the file cannot be written or renamed.
+     */
+    public void commit() throws IOException {
+        try (channel) {
+            flush();
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        committed = true;
+    }
+
+    /**
+     * Abandons the snapshot unless it was committed, deleting the temporary file.
+     *
+     * @throws IOException if the file cannot be closed or deleted.
+     */
+    @Override
+    public void close() throws IOException {
+        if (committed) return;
+
+        channel.close();
+        Files.deleteIfExists(temp);
+    }
+
+    // ----------------------------------------------------------
+    // Private Helper Methods
+    // ----------------------------------------------------------
+
+    /**
+     * Helper method to make room for a number of bytes in the staging buffer.
+     *
+     * @param bytes The number of bytes about to be staged.
+     * @throws IOException if the file cannot be written.
+     */
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    /**
+     * Helper method to write the staged bytes to the file.
+     *
+     * @throws IOException if the file cannot be written.
+     */
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,434 @@
+package main.java.com.xakers.io;
+
+import main.java.com.xakers.model.Seminar;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * An append-only log of the inserts and deletes applied to a database, used to
+ * recover them after a crash.
+ * <p>
+ * The file starts with a header of the magic number {@value #MAGIC}, the format
+ * version {@value #VERSION} and the {@code long} sequence number of its first
+ * record. Each record is framed as its body length and the CRC-32C of its body,
+ * followed by the body: a type byte and the operation's fields. A delete holds the
+ * seminar ID; an insert holds the seminar's numeric fields and its strings as UTF-8.
+ * Records are numbered consecutively from the header's base, so sequence numbers
+ * are not stored. All values are big-endian.
+ * <p>
+ * Appends are staged in memory and written and forced to disk together (group
+ * commit): a group is committed once it holds {@code groupSize} records or its
+ * buffer fills, and whenever {@link #sync} is called. A crash therefore loses at
+ * most the records of the group in progress. Opening a log scans it and cuts off a
+ * torn or corrupt tail, so new records always follow the last intact one.
+ *
+ * @author Xavier Akers
+ * @version 2026-10-16
+ * @since 2026-10-16
+ */
+public final class WriteAheadLog implements AutoCloseable {
+    /** Magic number at the start of every log ("SDBW"). */
+    public static final int MAGIC = 0x53444257;
+    /** Version of the log format. */
+    public static final int VERSION = 1;
+    /** Default number of records per group commit. */
+    public static final int DEFAULT_GROUP_SIZE = 512;
+
+    private static final int HEADER_SIZE = 16;          // Magic, version and base sequence number
+    private static final int FRAME_SIZE = 8;            // Body length and checksum
+    private static final int BUFFER_SIZE = 1 << 20;     // Staging buffer for a group
+    private static final byte INSERT = 1;               // Type of an insert record
+    private static final byte DELETE = 2;               // Type of a delete record
+
+    /**
+     * Receives the operations of a log as they are replayed.
+     */
+    public interface Handler {
+
+        /**
+         * Applies a logged insert.
+         *
+         * @param seminar The inserted seminar.
+         */
+        void insert(Seminar seminar);
+
+        /**
+         * Applies a logged delete.
+         *
+         * @param id The ID of the deleted seminar.
+         */
+        void delete(int id);
+    }
+
+    private final FileChannel channel;  // Channel of the log file
+    private final int groupSize;        // Records per group commit
+    private final CRC32C crc;           // Reused checksum
+    private ByteBuffer buffer;          // Records staged for the next group commit
+    private int pending;                // Number of records staged
+    private long base;                  // Sequence number of the first record in the file
+    private long next;                  // Sequence number of the next record appended
+    private long end;                   // File offset just past the last intact record
+
+    /**
+     * Opens a log, creating it if it does not exist, and cuts off any torn tail.
+     *
+     * @param filename  The path of the log file.
+     * @param groupSize The number of records per group commit.
+     * @throws IOException if the file cannot be opened or is not a log of this version.
+     */
+    public WriteAheadLog(String filename, int groupSize) throws IOException {
+        if (groupSize <= 0) {
+            throw new IllegalArgumentException("error: groupSize must be greater than 0.");
+        }
+        this.channel = FileChannel.open(Path.of(filename), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.groupSize = groupSize;
+        this.crc = new CRC32C();
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        try {
+            if (channel.size() == 0) {
+                writeHeader(1);
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(header, 0);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("error: not a write-ahead log {" + filename + "}");
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IOException("error: unsupported log version {" + header.getInt(4) + "}");
+            }
+            this.base = header.getLong(8);
+            this.next = base + scan(null, Long.MAX_VALUE);
+            if (channel.size() > end) {
+                // A crash cut the last group short: drop the partial record
+                channel.truncate(end);
+                channel.force(true);
+            }
+            channel.position(end);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Replays the records that follow a sequence number, in order.
+     *
+     * @param after   The sequence number of the last operation already applied.
+     * @param handler Receives the operations.
+     * @return The number of records replayed.
+     * @throws IOException if the log cannot be read, or starts after {@code after + 1}
+     *                     so that operations are missing.
+     */
+    public long replay(long after, Handler handler) throws IOException {
+        if (base > after + 1 && next > base) {
+            throw new IOException("error: log starts at {" + base + "}, after the missing operation {"
+                    + (after + 1) + "}");
+        }
+        return scan(handler, after);
+    }
+
+    /**
+     * Appends an insert to the current group.
+     *
+     * @param seminar The inserted seminar.
+     * @return The sequence number of the record.
+     * @throws IOException if a full group cannot be committed.
+     */
+    public long appendInsert(Seminar seminar) throws IOException {
+        byte[] title = utf8(seminar.title());
+        byte[] date = utf8(seminar.date());
+        byte[] description = utf8(seminar.description());
+        String[] keywords = seminar.keywords();
+        byte[][] keywordBytes = new byte[keywords.length][];
+        // Type, ID, length, coordinates, cost, three prefixed strings and the keyword count
+        int bodySize = 1 + 4 + 4 + 2 * 2 + 4 + 3 * 4 + title.length + date.length + description.length + 4;
+        for (int i = 0; i < keywords.length; i++) {
+            keywordBytes[i] = utf8(keywords[i]);
+            bodySize += 4 + keywordBytes[i].length;
+        }
+
+        int body = beginRecord(bodySize);
+        buffer.put(INSERT);
+        buffer.putInt(seminar.id());
+        buffer.putInt(seminar.length());
+        buffer.putShort((short) seminar.x());
+        buffer.putShort((short) seminar.y());
+        buffer.putInt(seminar.cost());
+        putBytes(date);
+        putBytes(title);
+        putBytes(description);
+        buffer.putInt(keywords.length);
+        for (byte[] keyword : keywordBytes) {
+            putBytes(keyword);
+        }
+        return endRecord(body);
+    }
+
+    /**
+     * Appends a delete to the current group.
+     *
+     * @param id The ID of the deleted seminar.
+     * @return The sequence number of the record.
+     * @throws IOException if a full group cannot be committed.
+     */
+    public long appendDelete(int id) throws IOException {
+        int body = beginRecord(1 + 4);
+        buffer.put(DELETE);
+        buffer.putInt(id);
+        return endRecord(body);
+    }
+
+    /**
+     * Commits the current group: writes the staged records and forces them to disk.
+     *
+     * @throws IOException if the records cannot be written.
+     */
+    public void sync() throws IOException {
+        if (pending == 0) return;
+
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+        channel.force(false);
+        end = channel.position();
+        pending = 0;
+    }
+
+    /**
+     * Empties the log once a snapshot holds every operation up to a sequence number.
+     * Records appended afterwards are numbered from {@code applied + 1}.
+     * <p>
+     * The records are cut off and forced to disk before the header is given its new
+     * base, so a crash in between leaves an empty log with its old base rather than old
+     * records renumbered as new ones. The caller must then rebase the empty log with
+     * another call once it is reopened.
+     *
+     * @param applied The sequence number of the last operation the snapshot holds.
+     * @throws IOException if the log cannot be rewritten.
+     */
+    public void truncate(long applied) throws IOException {
+        sync();
+        channel.truncate(HEADER_SIZE);
+        channel.force(true);
+        writeHeader(applied + 1);
+        channel.force(true);
+        channel.position(HEADER_SIZE);
+        base = applied + 1;
+        next = base;
+        end = HEADER_SIZE;
+    }
+
+    /**
+     * Returns the sequence number of the last record appended.
+     *
+     * @return The sequence number, {@code base - 1} for an empty log.
+     */
+    public long lastSequence() {
+        return next - 1;
+    }
+
+    /**
+     * Commits the current group and closes the log.
+     *
+     * @throws IOException if the records cannot be written or the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        try (channel) {
+            sync();
+        }
+    }
+
+    // ----------------------------------------------------------
+    // Private Helper Methods
+    // ----------------------------------------------------------
+
+    /**
+     * Helper method to walk the records of the file, stopping at the first torn or
+     * corrupt one, and to hand the records after a sequence number to a handler.
+     *
+     * @param handler Receives the operations, or {@code null} to only scan.
+     * @param after   The sequence number of the last operation not to hand over.
+     * @return The number of intact records (when scanning) or of records handed over.
+     * @throws IOException if the file cannot be read.
+     */
+    private long scan(Handler handler, long after) throws IOException {
+        long size = handler == null ? channel.size() : end;
+        long offset = HEADER_SIZE;
+        long sequence = base;
+        long handled = 0;
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_SIZE);
+        ByteBuffer body = ByteBuffer.allocate(256);
+        while (offset + FRAME_SIZE <= size) {
+            frame.clear();
+            readFully(frame, offset);
+            int length = frame.getInt(0);
+            if (length <= 0 || offset + FRAME_SIZE + length > size) break;
+
+            if (body.capacity() < length) {
+                body = ByteBuffer.allocate(Math.max(length, 2 * body.capacity()));
+            }
+            body.clear().limit(length);
+            readFully(body, offset + FRAME_SIZE);
+            body.flip();
+            crc.reset();
+            crc.update(body.array(), 0, length);
+            if ((int) crc.getValue() != frame.getInt(4)) break;
+
+            if (handler != null && sequence > after) {
+                apply(body, handler);
+                handled++;
+            }
+            offset += FRAME_SIZE + length;
+            sequence++;
+        }
+        if (handler == null) {
+            end = offset;
+            return sequence - base;
+        }
+        return handled;
+    }
+
+    /**
+     * Helper method to decode one record body and hand its operation to a handler.
+     *
+     * @param body    The record body, positioned at its type byte.
+     * @param handler Receives the operation.
+     * @throws IOException if the body is malformed.
+     */
+    private static void apply(ByteBuffer body, Handler handler) throws IOException {
+        try {
+            byte type = body.get();
+            if (type == DELETE) {
+                handler.delete(body.getInt());
+                return;
+            }
+            if (type != INSERT) {
+                throw new IOException("error: corrupt log, record type {" + type + "}");
+            }
+            int id = body.getInt();
+            int length = body.getInt();
+            short x = body.getShort();
+            short y = body.getShort();
+            int cost = body.getInt();
+            String date = getString(body);
+            String title = getString(body);
+            String description = getString(body);
+            String[] keywords = new String[body.getInt()];
+            for (int i = 0; i < keywords.length; i++) {
+                keywords[i] = getString(body);
+            }
+            handler.insert(new Seminar(id, title, date, length, x, y, cost, keywords, description));
+        } catch (RuntimeException e) {
+            throw new IOException("error: corrupt log, malformed record", e);
+        }
+    }
+
+    /**
+     * Helper method to reserve room for a record in the staging buffer and write its frame.
+     *
+     * @param bodySize The size of the record body.
+     * @return The buffer offset of the body.
+     * @throws IOException if a full group cannot be committed.
+     */
+    private int beginRecord(int bodySize) throws IOException {
+        if (buffer.remaining() < FRAME_SIZE + bodySize) {
+            sync();
+            if (buffer.capacity() < FRAME_SIZE + bodySize) {
+                buffer = ByteBuffer.allocateDirect(FRAME_SIZE + bodySize);
+            }
+        }
+        buffer.putInt(bodySize);
+        buffer.putInt(0); // Checksum, filled in by endRecord
+        return buffer.position();
+    }
+
+    /**
+     * Helper method to checksum a staged record and commit the group if it is full.
+     *
+     * @param body The buffer offset of the record body.
+     * @return The sequence number of the record.
+     * @throws IOException if a full group cannot be committed.
+     */
+    private long endRecord(int body) throws IOException {
+        crc.reset();
+        crc.update(buffer.slice(body, buffer.position() - body));
+        buffer.putInt(body - 4, (int) crc.getValue());
+        long sequence = next++;
+        if (++pending >= groupSize) {
+            sync();
+        }
+        return sequence;
+    }
+
+    /**
+     * Helper method to write the file header.
+     *
+     * @param first The sequence number of the first record.
+     * @throws IOException if the header cannot be written.
+     */
+    private void writeHeader(long first) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putLong(first).flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+    }
+
+    /**
+     * Helper method to fill a buffer from a file offset.
+     *
+     * @param target The buffer to fill up to its limit.
+     * @param offset The file offset to read from.
+     * @throws IOException if the file ends first or cannot be read.
+     */
+    private void readFully(ByteBuffer target, long offset) throws IOException {
+        while (target.hasRemaining()) {
+            if (channel.read(target, offset + target.position()) < 0) {
+                throw new IOException("error: truncated log");
+            }
+        }
+    }
+
+    /**
+     * Helper method to stage a length-prefixed byte string.
+     *
+     * @param bytes The bytes.
+     */
+    private void putBytes(byte[] bytes) {
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    /**
+     * Helper method to read a length-prefixed UTF-8 string.
+     *
+     * @param body The record body.
+     * @return The string.
+     */
+    private static String getString(ByteBuffer body) {
+        int length = body.getInt();
+        String text = new String(body.array(), body.position(), length, StandardCharsets.UTF_8);
+        body.position(body.position() + length);
+        return text;
+    }
+
+    /**
+     * Helper method to encode a string as UTF-8.
+     *
+     * @param text The string.
+     * @return The bytes.
+     */
+    private static byte[] utf8(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,231 @@
+package main.java.com.xakers.model;
+
+/**
+ * Utility class for packing seminar dates ({@code YYMMDDhhmm} strings such as
+ * {@code 0610051600}) into non-negative {@code int} timestamps.
+ * <p>
+ * The fields are packed into adjacent bit ranges (year 7 bits, month 4,
+ * day 5, hour 5, minute 6), so comparing two packed dates numerically gives
+ * the same result as comparing the original strings.
+ * Query bounds are arbitrary strings; {@link #lowerBound(String)} and
+ * {@link #upperBound(String)} translate them so that a numeric range query
+ * matches exactly the dates the string comparison would have matched, even
+ * when the bound contains characters other than digits.
+ *
+ * @author Xavier Akers
+ * @version 2026-10-16
+ * @since 2026-10-16
+ */
+public final class PackedDate {
+    /**
+     * Marker for a date string that cannot be packed.
+     */
+    public static final int INVALID = -1;
+
+    private static final int LENGTH = 10;                           // Digits in a date string
+    private static final int[] BITS = {7, 4, 5, 5, 6};              // Bits per field: YY MM DD hh mm
+    private static final int[] MIN = {0, 1, 1, 0, 0};               // Smallest valid value per field
+    private static final int[] MAX = {99, 12, 31, 23, 59};          // Largest valid value per field
+
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private PackedDate() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Packs a date string.
+     *
+     * @param date The date in {@code YYMMDDhhmm} form.
+     * @return The packed date, or {@link #INVALID} if the string is not a valid date.
+     */
+    public static int pack(String date) {
+        if (date == null || date.length() != LENGTH || !isDigits(date)) return INVALID;
+
+        int packed = 0;
+        for (int i = 0; i < BITS.length; i++) {
+            int field = field(date, i);
+            if (field < MIN[i] || field > MAX[i]) return INVALID;
+            packed = (packed << BITS[i]) | field;
+        }
+        return packed;
+    }
+
+    /**
+     * Formats a packed date back into its {@code YYMMDDhhmm} string.
+     *
+     * @param packed The packed date.
+     * @return The date string.
+     */
+    public static String format(int packed) {
+        return appendTo(packed, new StringBuilder(LENGTH)).toString();
+    }
+
+    /**
+     * Appends the {@code YYMMDDhhmm} string of a packed date to a builder.
+     *
+     * @param packed The packed date.
+     * @param sb     The builder to append to.
+     * @return The builder.
+     */
+    public static StringBuilder appendTo(int packed, StringBuilder sb) {
+        int shift = 0;
+        for (int bits : BITS) {
+            shift += bits;
+        }
+        for (int i = 0; i < BITS.length; i++) {
+            shift -= BITS[i];
+            int field = (packed >>> shift) & fieldMask(i);
+            sb.append((char) ('0' + field / 10)).append((char) ('0' + field % 10));
+        }
+        return sb;
+    }
+
+    /**
+     * Translates an inclusive lower bound string into a packed lower bound:
+     * {@code pack(d) >= lowerBound(low)} exactly when {@code d.compareTo(low) >= 0}.
+     *
+     * @param low The lower bound, any string.
+     * @return The packed lower bound ({@link Integer#MAX_VALUE} if no date can match).
+     */
+    public static int lowerBound(String low) {
+        low = digitBound(low, true);
+        String digits;
+        if (low.length() > LENGTH) {
+            // A date equal to the prefix is shorter than the bound, so it sorts below it
+            long next = Long.parseLong(low.substring(0, LENGTH)) + 1;
+            if (next > 9_999_999_999L) return Integer.MAX_VALUE;
+            digits = String.format("%010d", next);
+        } else {
+            // Padding with zeros does not change which dates are >= the bound
+            digits = low + "0".repeat(LENGTH - low.length());
+        }
+
+        int packed = 0;
+        for (int i = 0; i < BITS.length; i++) {
+            int field = field(digits, i);
+            if (field > fieldMask(i)) {
+                // No date has this prefix with so large a field: start at the next prefix
+                return (saturate(packed, i) + 1);
+            }
+            packed = (packed << BITS[i]) | field;
+        }
+        return packed;
+    }
+
+    /**
+     * Translates an inclusive upper bound string into a packed upper bound:
+     * {@code pack(d) <= upperBound(high)} exactly when {@code d.compareTo(high) <= 0}.
+     *
+     * @param high The upper bound, any string.
+     * @return The packed upper bound ({@link #INVALID} if no date can match).
+     */
+    public static int upperBound(String high) {
+        high = digitBound(high, false);
+        String digits;
+        if (high.length() < LENGTH) {
+            // A date matching the short bound as a prefix is longer, so it sorts above it.
+            // The largest matching date is therefore (bound - 1) followed by nines.
+            if (high.isEmpty() || Long.parseLong(high) == 0) return INVALID;
+            digits = String.format("%0" + high.length() + "d", Long.parseLong(high) - 1)
+                    + "9".repeat(LENGTH - high.length());
+        } else {
+            digits = high.substring(0, LENGTH);
+        }
+
+        int packed = 0;
+        for (int i = 0; i < BITS.length; i++) {
+            int field = field(digits, i);
+            if (field > fieldMask(i)) {
+                // Every date with this prefix is below the bound
+                return saturate(packed, i);
+            }
+            packed = (packed << BITS[i]) | field;
+        }
+        return packed;
+    }
+
+    // ----------------------------------------------------------
+    // Private Helper Methods
+    // ----------------------------------------------------------
+
+    /**
+     * Returns the two-digit value of a field.
+     *
+     * @param digits The date digits.
+     * @param i      The field index.
+     * @return The field value.
+     */
+    private static int field(String digits, int i) {
+        return (digits.charAt(2 * i) - '0') * 10 + (digits.charAt(2 * i + 1) - '0');
+    }
+
+    /**
+     * Returns the largest value a field's bit range can hold.
+     *
+     * @param i The field index.
+     * @return The field mask.
+     */
+    private static int fieldMask(int i) {
+        return (1 << BITS[i]) - 1;
+    }
+
+    /**
+     * Fills field {@code i} and every later field with ones.
+     *
+     * @param prefix The packed fields before {@code i}.
+     * @param i      The first field to saturate.
+     * @return The packed value.
+     */
+    private static int saturate(int prefix, int i) {
+        int packed = prefix;
+        for (int j = i; j < BITS.length; j++) {
+            packed = (packed << BITS[j]) | fieldMask(j);
+        }
+        return packed;
+    }
+
+    /**
+     * Checks whether a string consists only of ASCII digits.
+     *
+     * @param str The string to check.
+     * @return {@code true} if every character is a digit.
+     */
+    private static boolean isDigits(String str) {
+        for (int i = 0; i < str.length(); i++) {
+            if (str.charAt(i) < '0' || str.charAt(i) > '9') return false;
+        }
+        return true;
+    }
+
+    /**
+     * Replaces a bound with one that every date compares against the same way and
+     * whose first {@value #LENGTH} characters (or all, if fewer) are digits. Only the first {@value #LENGTH} characters can decide a comparison with
+     * a date. If one of them is not a digit, every date that shares the digits before it
+     * sorts below the bound when the character is above {@code '9'}, and above it when
+     * the character is below {@code '0'}.
+     *
+     * @param bound The bound.
+     * @param lower Whether the bound is a lower bound.
+     * @return The equivalent bound.
+     */
+    private static String digitBound(String bound, boolean lower) {
+        int length = Math.min(bound.length(), LENGTH);
+        for (int i = 0; i < length; i++) {
+            char c = bound.charAt(i);
+            if (c >= '0' && c <= '9') continue;
+
+            String prefix = bound.substring(0, i);
+            if (c < '0') {
+                // Dates sharing the prefix sort above the bound, as they do above the prefix
+                return prefix;
+            }
+            // Dates sharing the prefix sort below the bound, as they do below the prefix
+            // followed by nines and one more digit
+            String nines = prefix + "9".repeat(LENGTH - i);
+            return lower ? nines + "0" : nines;
+        }
+        return bound;
+    }
+}
@@ -10,6 +10,7 @@ package main.java.com.xakers.model;
 public class Seminar {
     private String title;       // Semianar title
     private String date;        // Seminar date
+    private int packedDate;     // Seminar date packed for numeric comparison
     private int length;         // Seminar length
     private String[] keywords;  // Seminar keywords
     private short x;            // Seminar x coord
@@ -54,6 +55,7 @@ public class Seminar {
         id = idin;
         title = tin;
         date = datein;
+        packedDate = PackedDate.pack(datein);
         length = lin;
         x = xin;
         y = yin;
@@ -75,6 +77,18 @@ public class Seminar {
     }
 
 
+    // ----------------------------------------------------------
+
+    /**
+     * Return the seminar title
+     *
+     * @return the title field for the seminar
+     */
+    public String title() {
+        return title;
+    }
+
+
     // ----------------------------------------------------------
 
     /**
@@ -87,6 +101,30 @@ public class Seminar {
     }
 
 
+    // ----------------------------------------------------------
+
+    /**
+     * Return the seminar date packed into an int
+     *
+     * @return the packed date, or {@link PackedDate#INVALID} if the date is malformed
+     */
+    public int packedDate() {
+        return packedDate;
+    }
+
+
+    // ----------------------------------------------------------
+
+    /**
+     * Return the seminar length
+     *
+     * @return the length field for the seminar
+     */
+    public int length() {
+        return length;
+    }
+
+
     // ----------------------------------------------------------
 
     /**
@@ -135,19 +173,48 @@ public class Seminar {
     }
 
 
+    // ----------------------------------------------------------
+
+    /**
+     * Return the seminar description
+     *
+     * @return the description field for the seminar
+     */
+    public String description() {
+        return desc;
+    }
+
+
     /**
      * @return a string representation of the object.
      */
     public String toString() {
-        int i;
-        String mykeys = "";
-        for (i = 0; i < keywords.length; i++) {
-            mykeys += keywords[i];
+        return appendTo(new StringBuilder(128)).toString();
+    }
+
+
+    // ----------------------------------------------------------
+
+    /**
+     * Append the string representation of the object to a builder,
+     * so callers can format many seminars through one reused builder
+     *
+     * @param sb the builder to append to
+     * @return the builder
+     */
+    public StringBuilder appendTo(StringBuilder sb) {
+        sb.append("ID: ").append(id).append(", Title: ").append(title)
+                .append("\nDate: ").append(date)
+                .append(", Length: ").append(length)
+                .append(", X: ").append(x).append(", Y: ").append(y)
+                .append(", Cost: ").append(cost)
+                .append("\nDescription: ").append(desc)
+                .append("\nKeywords: ");
+        for (int i = 0; i < keywords.length; i++) {
+            sb.append(keywords[i]);
             if (i != keywords.length - 1)
-                mykeys += ", ";
+                sb.append(", ");
         }
-        return "ID: " + id + ", Title: " + title + "\nDate: " + date
-                + ", Length: " + length + ", X: " + x + ", Y: " + y + ", Cost: "
-                + cost + "\nDescription: " + desc + "\nKeywords: " + mykeys;
+        return sb;
     }
 }
\ No newline at end of file